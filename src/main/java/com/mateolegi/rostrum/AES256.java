@@ -4,7 +4,6 @@ import com.mateolegi.rostrum.exception.DecryptionException;
 import com.mateolegi.rostrum.exception.EncryptionException;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONObject;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -13,14 +12,14 @@ import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.util.Base64;
-
-import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
+import java.util.Objects;
 
 /**
  * Implements AES256 cipher method to secure texts.
@@ -29,14 +28,14 @@ import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
  */
 public class AES256 {
 
-    private static final String privateKey;
-    private static final String salt;
+    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
 
-    static {
-        JSONObject jsonObject = (JSONObject) Properties.getJSONFile().get(AES256);
-        privateKey = (String) jsonObject.get(SECRET_KEY);
-        salt = (String) jsonObject.get(SALT);
-    }
+    private static final ThreadLocal<ThreadCipher> ENCRYPTION = ThreadLocal.withInitial(
+            () -> new ThreadCipher(Cipher.ENCRYPT_MODE));
+    private static final ThreadLocal<ThreadCipher> DECRYPTION = ThreadLocal.withInitial(
+            () -> new ThreadCipher(Cipher.DECRYPT_MODE));
+
+    private static volatile DerivedKey derivedKey;
 
     /**
      * Encrypt the text with the AES256 encryption method.
@@ -45,11 +44,8 @@ public class AES256 {
      */
     public static String encrypt(String original) {
         try {
-            AlgorithmParameterSpec ivspec = getAlgorithmParameterSpec();
-            Key secretKey = getKey();
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, ivspec);
-            return Base64.getEncoder().encodeToString(cipher.doFinal(original.getBytes(StandardCharsets.UTF_8)));
+            return Base64.getEncoder().encodeToString(ENCRYPTION.get()
+                    .doFinal(getKey(), original.getBytes(StandardCharsets.UTF_8)));
         } catch (Exception e) {
             throw new EncryptionException("Error while encrypting: ", e);
         }
@@ -65,11 +61,7 @@ public class AES256 {
     @Contract("_ -> new")
     public static String decrypt(String encryptedText) {
         try {
-            AlgorithmParameterSpec ivspec = getAlgorithmParameterSpec();
-            Key secretKey = getKey();
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5PADDING");
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, ivspec);
-            return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedText)));
+            return new String(DECRYPTION.get().doFinal(getKey(), Base64.getDecoder().decode(encryptedText)));
         } catch (Exception e) {
             throw new DecryptionException("Error while decrypting", e);
         }
@@ -82,11 +74,87 @@ public class AES256 {
         return new IvParameterSpec(iv);
     }
 
+    /**
+     * Gets the key derived from the configured secret key and salt. The derivation is expensive, so it is done only
+     * once and repeated only if the configuration changes.
+     * @return AES key
+     */
     @NotNull
     private static Key getKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        RostrumConfig config = Properties.getConfig();
+        String privateKey = config.getAesSecretKey();
+        String salt = config.getAesSalt();
+        DerivedKey current = derivedKey;
+        if (Objects.isNull(current) || !current.isDerivedFrom(privateKey, salt)) {
+            synchronized (AES256.class) {
+                current = derivedKey;
+                if (Objects.isNull(current) || !current.isDerivedFrom(privateKey, salt)) {
+                    current = new DerivedKey(privateKey, salt, deriveKey(privateKey, salt));
+                    derivedKey = current;
+                }
+            }
+        }
+        return current.key;
+    }
+
+    @NotNull
+    private static Key deriveKey(String privateKey, String salt)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
         SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
         KeySpec spec = new PBEKeySpec(privateKey.toCharArray(), salt.getBytes(), 65536, 256);
         SecretKey tmp = factory.generateSecret(spec);
         return new SecretKeySpec(tmp.getEncoded(), "AES");
     }
+
+    /**
+     * Key and the configuration it was derived from.
+     */
+    private static class DerivedKey {
+
+        private final String privateKey;
+        private final String salt;
+        private final Key key;
+
+        private DerivedKey(String privateKey, String salt, Key key) {
+            this.privateKey = privateKey;
+            this.salt = salt;
+            this.key = key;
+        }
+
+        private boolean isDerivedFrom(String privateKey, String salt) {
+            return this.privateKey.equals(privateKey) && this.salt.equals(salt);
+        }
+    }
+
+    /**
+     * Cipher owned by a thread. It is initialized once per key, since {@code doFinal} leaves it ready for the next
+     * operation with the same key and IV.
+     */
+    private static class ThreadCipher {
+
+        private final int mode;
+        private Cipher cipher;
+        private Key key;
+
+        private ThreadCipher(int mode) {
+            this.mode = mode;
+        }
+
+        private byte[] doFinal(Key key, byte[] input) throws GeneralSecurityException {
+            if (this.key != key) {
+                if (Objects.isNull(cipher)) {
+                    cipher = Cipher.getInstance(TRANSFORMATION);
+                }
+                cipher.init(mode, key, getAlgorithmParameterSpec());
+                this.key = key;
+            }
+            try {
+                return cipher.doFinal(input);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                // The cipher state is undefined after a failure, so it is initialized again on the next use
+                this.key = null;
+                throw e;
+            }
+        }
+    }
 }
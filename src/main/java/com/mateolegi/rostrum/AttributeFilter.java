@@ -0,0 +1,322 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Condition on an attribute of an entity, parsed from an entry of the filters map. The key of the entry is the name of
+ * the attribute, optionally followed by {@code __} and an operator, as in {@code age__gte}; without an operator the
+ * value is compared for equality. The values are converted to the type of the attribute when they are parsed, so the
+ * predicates only need a parameter of that type.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ * @see Operator
+ */
+final class AttributeFilter implements Comparable<AttributeFilter> {
+
+    static final String SEPARATOR = "__";
+
+    private final String attribute;
+    private final Operator operator;
+    private final Object value;
+
+    private AttributeFilter(String attribute, Operator operator, Object value) {
+        this.attribute = attribute;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    /**
+     * Parses the filters of the map. The keys that start with an underscore are reserved for the options of the
+     * query and are skipped.
+     * @param clazz entity class
+     * @param attributes types of the attributes of the entity, by attribute name
+     * @param queryParams filters
+     * @param strict whether the keys that don't belong to an attribute of the entity fail or are omitted
+     * @return filters, sorted by {@link #getShape() shape}
+     * @throws IllegalArgumentException if the operator doesn't exist or the value doesn't fit the operator or the
+     * type of the attribute, or, when {@code strict}, if the attribute doesn't exist
+     */
+    @NotNull
+    static List<AttributeFilter> parse(Class<?> clazz,
+                                       @NotNull("Attributes can't be null") Map<String, Class<?>> attributes,
+                                       @NotNull("Query params can't be null") Map<String, Object> queryParams,
+                                       boolean strict) {
+        List<AttributeFilter> filters = new ArrayList<>(queryParams.size());
+        queryParams.forEach((key, value) -> {
+            if (key.startsWith("_")) {
+                if (strict) {
+                    throw new IllegalArgumentException(String.format("The %s option isn't supported here.", key));
+                }
+                return;
+            }
+            int separator = attributes.containsKey(key) ? -1 : key.lastIndexOf(SEPARATOR);
+            String attribute = separator > 0 ? key.substring(0, separator) : key;
+            if (!attributes.containsKey(attribute)) {
+                if (strict) {
+                    throw new IllegalArgumentException(String.format("The %s attribute doesn't exist in %s.",
+                            attribute, clazz.getSimpleName()));
+                }
+                return;
+            }
+            Operator operator = separator > 0 ? Operator.of(key.substring(separator + SEPARATOR.length()))
+                    : Operator.EQ;
+            if (Objects.isNull(operator)) {
+                throw new IllegalArgumentException(String.format("The operator of %s doesn't exist.", key));
+            }
+            filters.add(create(attribute, attributes.get(attribute), operator, value));
+        });
+        Collections.sort(filters);
+        return filters;
+    }
+
+    private static AttributeFilter create(String attribute, Class<?> type, Operator operator, Object value) {
+        if (Objects.isNull(value) && (operator == Operator.EQ || operator == Operator.NE)) {
+            return new AttributeFilter(attribute, Operator.IS_NULL, operator == Operator.EQ);
+        } else if (Objects.isNull(value)) {
+            throw new IllegalArgumentException(String.format("The %s%s%s filter requires a value.", attribute,
+                    SEPARATOR, operator.getName()));
+        }
+        switch (operator) {
+            case IS_NULL:
+                return new AttributeFilter(attribute, operator, convert(attribute, Boolean.class, value));
+            case IN:
+            case NOT_IN:
+                List<Object> values = new ArrayList<>();
+                for (Object item : toList(value)) {
+                    values.add(convert(attribute, type, item));
+                }
+                return new AttributeFilter(attribute, operator, values);
+            case STARTS_WITH:
+            case ENDS_WITH:
+            case CONTAINS:
+                if (type != String.class) {
+                    throw new IllegalArgumentException(String.format("The %s%s%s filter requires a text attribute.",
+                            attribute, SEPARATOR, operator.getName()));
+                }
+                String text = escape(value.toString());
+                return new AttributeFilter(attribute, operator, operator == Operator.STARTS_WITH ? text + '%'
+                        : operator == Operator.ENDS_WITH ? '%' + text : '%' + text + '%');
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                if (!Comparable.class.isAssignableFrom(wrap(type))) {
+                    throw new IllegalArgumentException(String.format("The %s%s%s filter requires a comparable "
+                            + "attribute.", attribute, SEPARATOR, operator.getName()));
+                }
+                return new AttributeFilter(attribute, operator, convert(attribute, type, value));
+            default:
+                return new AttributeFilter(attribute, operator, convert(attribute, type, value));
+        }
+    }
+
+    /**
+     * Gets the name of the filtered attribute.
+     * @return attribute name
+     */
+    @NotNull
+    String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Gets the part of the filter that changes the statement: the attribute, the operator and, for the filters
+     * without parameter, their value. Two filters with the same shape only differ in the values they bind.
+     * @return shape
+     */
+    @NotNull
+    String getShape() {
+        String shape = attribute + SEPARATOR + operator.getName();
+        return hasParameter() ? shape : shape + '=' + (operator == Operator.IS_NULL ? value : "[]");
+    }
+
+    /**
+     * Validates if the predicate of the filter takes its value from a parameter. Null checks and empty lists don't.
+     * @return validation result
+     */
+    boolean hasParameter() {
+        return operator != Operator.IS_NULL && !(value instanceof List && ((List<?>) value).isEmpty());
+    }
+
+    /**
+     * Gets the type of the parameter of the predicate.
+     * @param attributeType type of the attribute
+     * @return parameter type
+     */
+    @NotNull
+    Class<?> getParameterType(Class<?> attributeType) {
+        return operator == Operator.IN || operator == Operator.NOT_IN ? List.class
+                : operator.isPattern() ? String.class : wrap(attributeType);
+    }
+
+    /**
+     * Gets the value bound to the parameter of the predicate, already converted to its type.
+     * @return value
+     */
+    @Nullable
+    Object getValue() {
+        return value;
+    }
+
+    /**
+     * Builds the predicate of the filter.
+     * @param builder object used to build the query
+     * @param path path of the attribute
+     * @param parameter parameter of the value, ignored if the filter {@link #hasParameter() has no parameter}
+     * @return predicate
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @NotNull
+    Predicate toPredicate(CriteriaBuilder builder, Path<?> path, @Nullable Expression<?> parameter) {
+        switch (operator) {
+            case EQ:
+                return builder.equal(path, parameter);
+            case NE:
+                return builder.notEqual(path, parameter);
+            case GT:
+                return builder.greaterThan((Path<Comparable>) path, (Expression<Comparable>) parameter);
+            case GTE:
+                return builder.greaterThanOrEqualTo((Path<Comparable>) path, (Expression<Comparable>) parameter);
+            case LT:
+                return builder.lessThan((Path<Comparable>) path, (Expression<Comparable>) parameter);
+            case LTE:
+                return builder.lessThanOrEqualTo((Path<Comparable>) path, (Expression<Comparable>) parameter);
+            case IN:
+                return hasParameter() ? path.in(parameter) : builder.disjunction();
+            case NOT_IN:
+                return hasParameter() ? builder.not(path.in(parameter)) : builder.conjunction();
+            case IS_NULL:
+                return (Boolean) value ? builder.isNull(path) : builder.isNotNull(path);
+            default:
+                return builder.like((Path<String>) path, (Expression<String>) parameter, '\\');
+        }
+    }
+
+    @Override
+    public int compareTo(@NotNull AttributeFilter other) {
+        return getShape().compareTo(other.getShape());
+    }
+
+    private static Object convert(String attribute, Class<?> type, Object value) {
+        if (wrap(type).isInstance(value)) {
+            return value;
+        }
+        try {
+            return Converters.of(type).apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("The value %s can't be assigned to the %s attribute.",
+                    value, attribute), e);
+        }
+    }
+
+    /**
+     * Gets the values of a list filter, which can be a collection, an array or a text separated by commas.
+     */
+    private static List<?> toList(Object value) {
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        } else if (value.getClass().isArray()) {
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                values.add(Array.get(value, i));
+            }
+            return values;
+        } else if (value instanceof String) {
+            List<String> values = new ArrayList<>();
+            for (String item : ((String) value).split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+            return values;
+        }
+        return Collections.singletonList(value);
+    }
+
+    /**
+     * Escapes the wildcards of {@code LIKE} with a backslash, so the text is matched literally.
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * Operators of the filters, written after the attribute name and {@code __} in the keys of the filters map.
+     */
+    enum Operator {
+        /** Equal to the value, or null if the value is null. It's the operator of the keys without one. */
+        EQ("eq"),
+        /** Not equal to the value, or not null if the value is null. */
+        NE("ne"),
+        /** Greater than the value. */
+        GT("gt"),
+        /** Greater than or equal to the value. */
+        GTE("gte"),
+        /** Less than the value. */
+        LT("lt"),
+        /** Less than or equal to the value. */
+        LTE("lte"),
+        /** Equal to one of the values: a collection, an array or a text separated by commas. */
+        IN("in"),
+        /** Not equal to any of the values, given as in {@link #IN}. */
+        NOT_IN("notIn"),
+        /** Text that starts with the value. */
+        STARTS_WITH("startsWith"),
+        /** Text that ends with the value. */
+        ENDS_WITH("endsWith"),
+        /** Text that contains the value. */
+        CONTAINS("contains"),
+        /** Null if the value is true, not null if it's false. */
+        IS_NULL("isNull");
+
+        private static final Map<String, Operator> OPERATORS = new HashMap<>();
+
+        static {
+            for (Operator operator : values()) {
+                OPERATORS.put(operator.name, operator);
+            }
+        }
+
+        private final String name;
+
+        Operator(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the operator with the name used in the keys.
+         * @param name operator name
+         * @return operator or {@code null} if it doesn't exist
+         */
+        @Nullable
+        static Operator of(String name) {
+            return OPERATORS.get(name);
+        }
+
+        /**
+         * Gets the name of the operator used in the keys.
+         * @return operator name
+         */
+        @NotNull
+        String getName() {
+            return name;
+        }
+
+        boolean isPattern() {
+            return this == STARTS_WITH || this == ENDS_WITH || this == CONTAINS;
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package com.mateolegi.rostrum;
 
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONObject;
-
-import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
 
 /**
  * BCrypt implements OpenBSD-style Blowfish password hashing using
@@ -14,13 +11,6 @@ import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
  */
 public class BCrypt {
 
-    private static final int logRounds;
-
-    static {
-        JSONObject jsonObject = (JSONObject) Properties.getJSONFile().get(BCRYPT);
-        logRounds = Math.toIntExact((Long) jsonObject.get(ITERATIONS));
-    }
-
     /**
      * Hash a string using the OpenBSD bcrypt scheme
      * @param original the text to hash
@@ -28,6 +18,7 @@ public class BCrypt {
      */
     @NotNull
     public static String hash(String original) {
+        int logRounds = Properties.getConfig().getBcryptIterations();
         return org.mindrot.jbcrypt.BCrypt.hashpw(original, org.mindrot.jbcrypt.BCrypt.gensalt(logRounds));
     }
 
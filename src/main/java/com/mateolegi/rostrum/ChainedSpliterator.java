@@ -0,0 +1,86 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential spliterator over the streams of several sources, read one after the other. The stream of each source is
+ * opened when the previous one is exhausted and closed right after it, so a short-circuiting operation like
+ * {@code findFirst} or {@code limit} never opens the sources it doesn't reach. {@code Stream.flatMap} can't be used
+ * for this in Java 8, since it pushes every element of the inner stream even after the operation is satisfied.
+ * @param <S> source type
+ * @param <T> element type
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class ChainedSpliterator<S, T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final Iterator<S> sources;
+    private final Function<S, Stream<T>> opener;
+    private Stream<T> current;
+    private Spliterator<T> spliterator;
+
+    private ChainedSpliterator(Iterator<S> sources, Function<S, Stream<T>> opener) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.sources = sources;
+        this.opener = opener;
+    }
+
+    /**
+     * Creates a sequential stream over the streams of the sources. Closing it closes the stream of the source being
+     * read, if any.
+     * @param <S> source type
+     * @param <T> element type
+     * @param sources sources, in reading order
+     * @param opener function that opens the stream of a source
+     * @return stream of elements
+     */
+    @NotNull
+    static <S, T> Stream<T> stream(@NotNull("Sources can't be null") List<S> sources,
+                                   @NotNull("Opener can't be null") Function<S, Stream<T>> opener) {
+        ChainedSpliterator<S, T> spliterator = new ChainedSpliterator<>(new ArrayList<>(sources).iterator(), opener);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::closeCurrent);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (Objects.nonNull(spliterator) || openNext()) {
+            if (spliterator.tryAdvance(action)) {
+                return true;
+            }
+            closeCurrent();
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (Objects.nonNull(spliterator) || openNext()) {
+            spliterator.forEachRemaining(action);
+            closeCurrent();
+        }
+    }
+
+    private boolean openNext() {
+        if (!sources.hasNext()) {
+            return false;
+        }
+        current = opener.apply(sources.next());
+        spliterator = current.spliterator();
+        return true;
+    }
+
+    private void closeCurrent() {
+        Stream<T> stream = current;
+        current = null;
+        spliterator = null;
+        if (Objects.nonNull(stream)) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Unmodifiable result of a query stored by columns instead of by rows. {@code Long} values are kept in a
+ * {@code long[]}, {@code Integer}, {@code Short} and {@code Byte} values in an {@code int[]}, {@code Double} and
+ * {@code Float} values in a {@code double[]} and text as codes of a dictionary of the distinct values of the column;
+ * columns of any other type, or with values of more than one type, keep the objects. <br>
+ * The list creates a new DTO each time a row is read with {@link #get(int)}, so the rows that are never read cost
+ * only their values. The numeric columns can be read without creating DTOs with {@link #getLong(int, String)} or
+ * aggregated with {@link #longs(String)} and {@link #doubles(String)}.
+ * <pre>{@code
+ * ColumnarList<Sale> sales = EntityFactory.reflectColumnar(query, Sale.class);
+ * double total = sales.doubles("amount").sum();
+ * Sale first = sales.get(0);
+ * }</pre>
+ * @param <T> DTO type
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ * @see EntityFactory#reflectColumnar(javax.persistence.Query, Class, int)
+ */
+public final class ColumnarList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<String> columnNames;
+    private final Function<List<?>, T> factory;
+    private final Column[] columns;
+    private int size;
+
+    ColumnarList(List<String> columnNames, Function<List<?>, T> factory) {
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+        this.factory = factory;
+        this.columns = new Column[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new NullColumn();
+        }
+    }
+
+    /**
+     * Appends a row.
+     * @param values values of the row, in the order of the columns
+     */
+    void addRow(List<?> values) {
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values.get(i);
+            if (Objects.nonNull(value) && !columns[i].accepts(value)) {
+                columns[i] = columns[i].widen(value, size);
+            }
+            columns[i].add(value, size);
+        }
+        size++;
+    }
+
+    /**
+     * Releases the unused capacity of the columns once every row has been appended.
+     * @return this list
+     */
+    ColumnarList<T> complete() {
+        for (Column column : columns) {
+            column.trim(size);
+        }
+        return this;
+    }
+
+    /**
+     * Creates the DTO of the row with the values of its columns.
+     * @param index row index
+     * @return new DTO
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public T get(int index) {
+        checkIndex(index);
+        List<Object> values = new ArrayList<>(columns.length);
+        for (Column column : columns) {
+            values.add(column.get(index));
+        }
+        return factory.apply(values);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the names of the columns, in the order of the query.
+     * @return column names
+     */
+    @NotNull
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Gets the value of a column of a row, boxed with the type returned by the driver.
+     * @param index row index
+     * @param column column name, ignoring case
+     * @return value or {@code null} if it's null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the column doesn't exist
+     */
+    public Object getValue(int index, String column) {
+        checkIndex(index);
+        return columns[getColumnIndex(column)].get(index);
+    }
+
+    /**
+     * Validates if the value of a column of a row is null.
+     * @param index row index
+     * @param column column name, ignoring case
+     * @return validation result
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the column doesn't exist
+     */
+    public boolean isNull(int index, String column) {
+        checkIndex(index);
+        return columns[getColumnIndex(column)].isNull(index);
+    }
+
+    /**
+     * Gets the value of a numeric column of a row as a {@code long}, without boxing it if the column is stored in a
+     * primitive array.
+     * @param index row index
+     * @param column column name, ignoring case
+     * @return value or {@code 0} if it's null, as {@code ResultSet.getLong} does
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the column doesn't exist
+     * @throws ClassCastException if the column isn't numeric
+     */
+    public long getLong(int index, String column) {
+        checkIndex(index);
+        return columns[getColumnIndex(column)].getLong(index);
+    }
+
+    /**
+     * Gets the value of a numeric column of a row as a {@code double}, without boxing it if the column is stored in
+     * a primitive array.
+     * @param index row index
+     * @param column column name, ignoring case
+     * @return value or {@code 0} if it's null, as {@code ResultSet.getDouble} does
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the column doesn't exist
+     * @throws ClassCastException if the column isn't numeric
+     */
+    public double getDouble(int index, String column) {
+        checkIndex(index);
+        return columns[getColumnIndex(column)].getDouble(index);
+    }
+
+    /**
+     * Streams the non null values of a numeric column as {@code long}s, in row order.
+     * @param column column name, ignoring case
+     * @return values
+     * @throws IllegalArgumentException if the column doesn't exist
+     * @throws ClassCastException if the column isn't numeric
+     */
+    public LongStream longs(String column) {
+        Column values = columns[getColumnIndex(column)];
+        return IntStream.range(0, size).filter(index -> !values.isNull(index)).mapToLong(values::getLong);
+    }
+
+    /**
+     * Streams the non null values of a numeric column as {@code double}s, in row order.
+     * @param column column name, ignoring case
+     * @return values
+     * @throws IllegalArgumentException if the column doesn't exist
+     * @throws ClassCastException if the column isn't numeric
+     */
+    public DoubleStream doubles(String column) {
+        Column values = columns[getColumnIndex(column)];
+        return IntStream.range(0, size).filter(index -> !values.isNull(index)).mapToDouble(values::getDouble);
+    }
+
+    private int getColumnIndex(String column) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(String.format("The column %s doesn't exist.", column));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static int grow(int capacity, int index) {
+        return Math.max(Math.max(capacity * 2, INITIAL_CAPACITY), index + 1);
+    }
+
+    /**
+     * Values of a column. Each implementation stores the values of one type; when a value of another type is
+     * appended the column is replaced by a wider one with the same values.
+     */
+    private abstract static class Column {
+
+        abstract boolean accepts(Object value);
+
+        abstract void add(Object value, int index);
+
+        abstract Object get(int index);
+
+        abstract boolean isNull(int index);
+
+        abstract void trim(int size);
+
+        long getLong(int index) {
+            Object value = get(index);
+            return Objects.isNull(value) ? 0L : ((Number) value).longValue();
+        }
+
+        double getDouble(int index) {
+            Object value = get(index);
+            return Objects.isNull(value) ? 0D : ((Number) value).doubleValue();
+        }
+
+        /**
+         * Creates a column that holds the values of this one and the value.
+         * @param value value that this column doesn't accept
+         * @param size number of values of this column
+         * @return new column
+         */
+        Column widen(Object value, int size) {
+            ObjectColumn column = new ObjectColumn(size);
+            for (int i = 0; i < size; i++) {
+                column.add(get(i), i);
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Column whose values have all been null so far.
+     */
+    private static final class NullColumn extends Column {
+
+        @Override
+        boolean accepts(Object value) {
+            return false;
+        }
+
+        @Override
+        void add(Object value, int index) {
+        }
+
+        @Override
+        Object get(int index) {
+            return null;
+        }
+
+        @Override
+        boolean isNull(int index) {
+            return true;
+        }
+
+        @Override
+        void trim(int size) {
+        }
+
+        @Override
+        Column widen(Object value, int size) {
+            Column column;
+            if (value instanceof Long) {
+                column = new LongColumn(size);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                column = new IntColumn(value.getClass(), size);
+            } else if (value instanceof Double || value instanceof Float) {
+                column = new DoubleColumn(value.getClass(), size);
+            } else if (value instanceof String) {
+                column = new StringColumn(size);
+            } else {
+                column = new ObjectColumn(size);
+            }
+            for (int i = 0; i < size; i++) {
+                column.add(null, i);
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Column of primitive values, with the null ones marked in a bit set.
+     */
+    private abstract static class PrimitiveColumn extends Column {
+
+        final BitSet nulls = new BitSet();
+
+        @Override
+        boolean isNull(int index) {
+            return nulls.get(index);
+        }
+    }
+
+    private static final class LongColumn extends PrimitiveColumn {
+
+        private long[] values;
+
+        private LongColumn(int capacity) {
+            this.values = new long[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Long;
+        }
+
+        @Override
+        void add(Object value, int index) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, index));
+            }
+            if (Objects.isNull(value)) {
+                nulls.set(index);
+            } else {
+                values[index] = (Long) value;
+            }
+        }
+
+        @Override
+        Object get(int index) {
+            return isNull(index) ? null : values[index];
+        }
+
+        @Override
+        long getLong(int index) {
+            return values[index];
+        }
+
+        @Override
+        double getDouble(int index) {
+            return values[index];
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class IntColumn extends PrimitiveColumn {
+
+        private final Class<?> type;
+        private int[] values;
+
+        private IntColumn(Class<?> type, int capacity) {
+            this.type = type;
+            this.values = new int[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value.getClass() == type;
+        }
+
+        @Override
+        void add(Object value, int index) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, index));
+            }
+            if (Objects.isNull(value)) {
+                nulls.set(index);
+            } else {
+                values[index] = ((Number) value).intValue();
+            }
+        }
+
+        @Override
+        Object get(int index) {
+            if (isNull(index)) {
+                return null;
+            } else if (type == Short.class) {
+                return (short) values[index];
+            } else if (type == Byte.class) {
+                return (byte) values[index];
+            }
+            return values[index];
+        }
+
+        @Override
+        long getLong(int index) {
+            return values[index];
+        }
+
+        @Override
+        double getDouble(int index) {
+            return values[index];
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class DoubleColumn extends PrimitiveColumn {
+
+        private final Class<?> type;
+        private double[] values;
+
+        private DoubleColumn(Class<?> type, int capacity) {
+            this.type = type;
+            this.values = new double[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value.getClass() == type;
+        }
+
+        @Override
+        void add(Object value, int index) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, index));
+            }
+            if (Objects.isNull(value)) {
+                nulls.set(index);
+            } else {
+                values[index] = ((Number) value).doubleValue();
+            }
+        }
+
+        @Override
+        Object get(int index) {
+            if (isNull(index)) {
+                return null;
+            }
+            return type == Float.class ? (Object) (float) values[index] : (Object) values[index];
+        }
+
+        @Override
+        long getLong(int index) {
+            return (long) values[index];
+        }
+
+        @Override
+        double getDouble(int index) {
+            return values[index];
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Column of text stored as the codes of a dictionary, so repeated values are kept once.
+     */
+    private static final class StringColumn extends Column {
+
+        private final ArrayList<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> codes = new HashMap<>();
+        private int[] values;
+
+        private StringColumn(int capacity) {
+            this.values = new int[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof String;
+        }
+
+        @Override
+        void add(Object value, int index) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, index));
+            }
+            if (Objects.isNull(value)) {
+                values[index] = -1;
+            } else {
+                values[index] = codes.computeIfAbsent((String) value, text -> {
+                    dictionary.add(text);
+                    return dictionary.size() - 1;
+                });
+            }
+        }
+
+        @Override
+        Object get(int index) {
+            return values[index] < 0 ? null : dictionary.get(values[index]);
+        }
+
+        @Override
+        boolean isNull(int index) {
+            return values[index] < 0;
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+            // The codes are only needed to append values
+            codes = null;
+            dictionary.trimToSize();
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private Object[] values;
+
+        private ObjectColumn(int capacity) {
+            this.values = new Object[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        void add(Object value, int index) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, index));
+            }
+            values[index] = value;
+        }
+
+        @Override
+        Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        boolean isNull(int index) {
+            return Objects.isNull(values[index]);
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.Temporal;
+import java.util.*;
+
+/**
+ * Position of a keyset paginated query, encoded as an opaque URL safe string. It stores the sort of the query and
+ * the key values of the last row that was read, written as text so that no class is deserialized from user input.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class ContinuationToken {
+
+    private static final String SORT = "s";
+    private static final String DESCENDING = "d";
+    private static final String KEYS = "k";
+
+    private final String sortAttribute;
+    private final boolean descending;
+    private final List<String> keys;
+
+    private ContinuationToken(String sortAttribute, boolean descending, List<String> keys) {
+        this.sortAttribute = sortAttribute;
+        this.descending = descending;
+        this.keys = keys;
+    }
+
+    /**
+     * Encodes the position after a row.
+     * @param sortAttribute sort attribute of the query
+     * @param descending sort direction of the query
+     * @param keys key values of the row, in sort order
+     * @return token
+     * @throws IllegalArgumentException if a key value has a type that can't be used as a pagination key
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    static String encode(String sortAttribute, boolean descending, List<?> keys) {
+        JSONArray values = new JSONArray();
+        for (Object key : keys) {
+            values.add(format(key));
+        }
+        JSONObject json = new JSONObject();
+        json.put(SORT, sortAttribute);
+        json.put(DESCENDING, descending);
+        json.put(KEYS, values);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(json.toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token.
+     * @param token token returned by {@link #encode}
+     * @return position of the query
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    @NotNull
+    static ContinuationToken decode(@NotNull("Token can't be null") String token) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            JSONObject object = (JSONObject) new JSONParser().parse(json);
+            List<String> keys = new ArrayList<>();
+            for (Object key : (JSONArray) object.get(KEYS)) {
+                keys.add((String) Objects.requireNonNull(key));
+            }
+            return new ContinuationToken((String) Objects.requireNonNull(object.get(SORT)),
+                    (Boolean) Objects.requireNonNull(object.get(DESCENDING)), keys);
+        } catch (ParseException | RuntimeException e) {
+            throw new IllegalArgumentException("The continuation token is not valid.", e);
+        }
+    }
+
+    String getSortAttribute() {
+        return sortAttribute;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * Gets a key value converted to the type of the attribute.
+     * @param index position of the key
+     * @param type attribute type
+     * @return key value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    Object getKey(int index, Class<?> type) {
+        try {
+            return parse(keys.get(index), type);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("The continuation token is not valid.", e);
+        }
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            return timestamp.getTime() + "," + timestamp.getNanos();
+        } else if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        } else if (value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof UUID || value instanceof Temporal) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException(String.format("The %s type can't be used as a pagination key.",
+                Objects.isNull(value) ? null : value.getClass().getName()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        } else if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        } else if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        } else if (type == Short.class || type == short.class) {
+            return Short.valueOf(value);
+        } else if (type == Byte.class || type == byte.class) {
+            return Byte.valueOf(value);
+        } else if (type == Double.class || type == double.class) {
+            return Double.valueOf(value);
+        } else if (type == Float.class || type == float.class) {
+            return Float.valueOf(value);
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(value);
+        } else if (type == Character.class || type == char.class) {
+            return value.charAt(0);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type == BigInteger.class) {
+            return new BigInteger(value);
+        } else if (type == UUID.class) {
+            return UUID.fromString(value);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        } else if (type == Timestamp.class) {
+            String[] parts = value.split(",", 2);
+            Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+            timestamp.setNanos(Integer.parseInt(parts[1]));
+            return timestamp;
+        } else if (type == java.sql.Date.class) {
+            return new java.sql.Date(Long.parseLong(value));
+        } else if (type == Date.class) {
+            return new Date(Long.parseLong(value));
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        } else if (type == LocalTime.class) {
+            return LocalTime.parse(value);
+        } else if (type == Instant.class) {
+            return Instant.parse(value);
+        } else if (type == OffsetDateTime.class) {
+            return OffsetDateTime.parse(value);
+        } else if (type == ZonedDateTime.class) {
+            return ZonedDateTime.parse(value);
+        }
+        throw new IllegalArgumentException(String.format("The %s type can't be used as a pagination key.",
+                type.getName()));
+    }
+}
@@ -0,0 +1,246 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Converters of the values returned by the JDBC drivers to the types of the DTO properties. The converter of each
+ * type is resolved once and cached in a {@code ClassValue}. Primitive properties are written through the primitive
+ * setters of {@link PropertyAccessor}, so the numbers are not boxed again. The supported types are:
+ * <ul>
+ *     <li> The primitive types and their wrappers, {@code BigDecimal} and {@code BigInteger}, from any number or
+ *     from text. </li>
+ *     <li> {@code Boolean}, from booleans, numbers (zero is false) and text. </li>
+ *     <li> {@code String}, from any value. </li>
+ *     <li> {@code Date}, {@code LocalDate}, {@code LocalTime}, {@code LocalDateTime}, {@code Instant},
+ *     {@code OffsetDateTime} and {@code ZonedDateTime}, from any JDBC date or {@code java.time} value and from ISO
+ *     text. Values without zone use the default zone of the JVM. </li>
+ *     <li> Enums, from their name or their ordinal. </li>
+ * </ul>
+ * Any other type is only cast.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class Converters {
+
+    private static final ClassValue<Function<Object, Object>> CONVERTERS = new ClassValue<Function<Object, Object>>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private static final Set<Class<?>> NUMERIC_TYPES = new HashSet<>(Arrays.asList(Long.class, long.class,
+            Integer.class, int.class, Short.class, short.class, Byte.class, byte.class, Double.class, double.class,
+            Float.class, float.class, BigDecimal.class, BigInteger.class));
+
+    private Converters() {
+    }
+
+    /**
+     * Gets the function that converts the non null values to the type. Primitive types are converted to their
+     * wrappers.
+     * @param type target type
+     * @return converter
+     */
+    @NotNull
+    static Function<Object, Object> of(@NotNull("Type can't be null") Class<?> type) {
+        return CONVERTERS.get(type);
+    }
+
+    /**
+     * Validates if the numbers can be converted to the type.
+     * @param type target type
+     * @return validation result
+     */
+    static boolean isNumeric(Class<?> type) {
+        return NUMERIC_TYPES.contains(type);
+    }
+
+    /**
+     * Creates the function that converts each value and writes it to the property. Null values can't be written to
+     * primitive properties.
+     * @param property property
+     * @return writer, which throws {@code IllegalArgumentException} or {@code ClassCastException} if the value can't
+     *         be converted
+     */
+    @NotNull
+    static BiConsumer<Object, Object> writerOf(@NotNull("Property can't be null") PropertyAccessor property) {
+        Class<?> type = property.getType();
+        if (type == long.class) {
+            return (target, value) -> property.setLong(target, toLong(requireValue(value)));
+        } else if (type == int.class) {
+            return (target, value) -> property.setInt(target, toInt(requireValue(value)));
+        } else if (type == double.class) {
+            return (target, value) -> property.setDouble(target, toDouble(requireValue(value)));
+        } else if (type == boolean.class) {
+            return (target, value) -> property.setBoolean(target, toBoolean(requireValue(value)));
+        }
+        Function<Object, Object> converter = of(type);
+        if (type.isPrimitive()) {
+            return (target, value) -> property.set(target, converter.apply(requireValue(value)));
+        }
+        return (target, value) -> property.set(target, Objects.isNull(value) ? null : converter.apply(value));
+    }
+
+    static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return Long.parseLong(text(value));
+    }
+
+    static int toInt(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return Integer.parseInt(text(value));
+    }
+
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return Double.parseDouble(text(value));
+    }
+
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        return Boolean.parseBoolean(text(value));
+    }
+
+    private static Object requireValue(Object value) {
+        if (Objects.isNull(value)) {
+            throw new IllegalArgumentException("Can't assign null to a primitive field.");
+        }
+        return value;
+    }
+
+    private static String text(Object value) {
+        if (value instanceof String) {
+            return ((String) value).trim();
+        }
+        throw new ClassCastException(String.format("%s is neither a number nor text.", value.getClass().getName()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> create(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return Converters::toLong;
+        } else if (type == Integer.class || type == int.class) {
+            return Converters::toInt;
+        } else if (type == Double.class || type == double.class) {
+            return Converters::toDouble;
+        } else if (type == Float.class || type == float.class) {
+            return value -> value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(text(value));
+        } else if (type == Short.class || type == short.class) {
+            return value -> value instanceof Number ? ((Number) value).shortValue() : Short.parseShort(text(value));
+        } else if (type == Byte.class || type == byte.class) {
+            return value -> value instanceof Number ? ((Number) value).byteValue() : Byte.parseByte(text(value));
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Converters::toBoolean;
+        } else if (type == BigDecimal.class) {
+            return Converters::toBigDecimal;
+        } else if (type == BigInteger.class) {
+            return value -> value instanceof BigInteger ? value : toBigDecimal(value).toBigInteger();
+        } else if (type == String.class) {
+            return Object::toString;
+        } else if (type == Date.class) {
+            return value -> value.getClass() == Timestamp.class ? new Date(((Timestamp) value).getTime())
+                    : value instanceof Date ? value : Date.from(toInstant(value));
+        } else if (type == LocalDateTime.class) {
+            return Converters::toLocalDateTime;
+        } else if (type == LocalDate.class) {
+            return value -> value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate()
+                    : value instanceof String ? LocalDate.parse((String) value) : toLocalDateTime(value).toLocalDate();
+        } else if (type == LocalTime.class) {
+            return value -> value instanceof Time ? ((Time) value).toLocalTime()
+                    : value instanceof String ? LocalTime.parse((String) value) : toLocalDateTime(value).toLocalTime();
+        } else if (type == Instant.class) {
+            return Converters::toInstant;
+        } else if (type == OffsetDateTime.class) {
+            return value -> value instanceof OffsetDateTime ? value
+                    : value instanceof String ? OffsetDateTime.parse((String) value)
+                    : toInstant(value).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        } else if (type == ZonedDateTime.class) {
+            return value -> value instanceof ZonedDateTime ? value
+                    : value instanceof String ? ZonedDateTime.parse((String) value)
+                    : toInstant(value).atZone(ZoneId.systemDefault());
+        } else if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            Object[] constants = type.getEnumConstants();
+            return value -> {
+                if (!(value instanceof Number)) {
+                    return Enum.valueOf(enumType, value.toString());
+                }
+                int ordinal = ((Number) value).intValue();
+                if (ordinal < 0 || ordinal >= constants.length) {
+                    throw new IllegalArgumentException(String.format("%d is not an ordinal of %s.", ordinal,
+                            type.getSimpleName()));
+                }
+                return constants[ordinal];
+            };
+        }
+        return type::cast;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        }
+        return new BigDecimal(text(value));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof String) {
+            return LocalDateTime.parse((String) value);
+        }
+        return LocalDateTime.ofInstant(toInstant(value), ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof java.sql.Date || value instanceof Time || value instanceof LocalDateTime
+                || value instanceof LocalDate) {
+            // java.sql.Date and Time don't support toInstant
+            return toLocalDateTime(value instanceof Time ? new Timestamp(((Time) value).getTime()) : value)
+                    .atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        } else if (value instanceof String) {
+            return Instant.parse((String) value);
+        } else if (value instanceof TemporalAccessor) {
+            return Instant.from((TemporalAccessor) value);
+        }
+        throw new ClassCastException(String.format("%s can't be converted to a date.", value.getClass().getName()));
+    }
+}
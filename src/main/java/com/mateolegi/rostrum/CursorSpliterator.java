@@ -0,0 +1,67 @@
+package com.mateolegi.rostrum;
+
+import org.eclipse.persistence.queries.ScrollableCursor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential spliterator over an EclipseLink scrollable cursor. Each row is mapped when it is requested and, every
+ * {@code clearInterval} rows, the cursor and the persistence context are cleared so that the processed rows can be
+ * garbage collected.
+ * @param <T> element type
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class CursorSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final ScrollableCursor cursor;
+    private final Function<Object, T> mapper;
+    private final int clearInterval;
+    private final Runnable clear;
+    private int count;
+
+    private CursorSpliterator(ScrollableCursor cursor, Function<Object, T> mapper, int clearInterval, Runnable clear) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.cursor = cursor;
+        this.mapper = mapper;
+        this.clearInterval = Math.max(clearInterval, 1);
+        this.clear = clear;
+    }
+
+    /**
+     * Creates a sequential stream over the cursor. Closing the stream runs {@code onClose}, which is expected to
+     * close the cursor and release its connection.
+     * @param <T> element type
+     * @param cursor open cursor
+     * @param mapper function that maps each row to an element
+     * @param clearInterval number of rows between each clear
+     * @param clear action that releases the processed rows
+     * @param onClose action executed when the stream is closed
+     * @return stream of elements
+     */
+    @NotNull
+    static <T> Stream<T> stream(@NotNull("Cursor can't be null") ScrollableCursor cursor, Function<Object, T> mapper,
+                                int clearInterval, Runnable clear, Runnable onClose) {
+        return StreamSupport.stream(new CursorSpliterator<>(cursor, mapper, clearInterval, clear), false)
+                .onClose(onClose);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!cursor.hasNext()) {
+            return false;
+        }
+        action.accept(mapper.apply(cursor.next()));
+        if (++count % clearInterval == 0) {
+            cursor.clear();
+            clear.run();
+        }
+        return true;
+    }
+}
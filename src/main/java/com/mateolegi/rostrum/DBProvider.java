@@ -1,15 +1,66 @@
 package com.mateolegi.rostrum;
 
+import org.eclipse.persistence.config.BatchWriting;
+
+import java.util.*;
+
 public class DBProvider {
 
+    /**
+     * Number of values bound in a single {@code IN} list when the provider doesn't define its own limit.
+     */
+    public static final int DEFAULT_MAX_PARAMETERS = 1000;
+
+    /**
+     * Number of prepared statements cached per connection when the provider doesn't define its own size.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 100;
+
+    /**
+     * Separator of the url parameters written as a query string: {@code ?a=1&b=2}.
+     */
+    public static final char QUERY_STRING = '&';
+
+    /**
+     * Separator of the url parameters written as attributes: {@code ;a=1;b=2}.
+     */
+    public static final char SEMICOLON = ';';
+
     private String name;
     private String driver;
     private String url;
+    private int maxParameters;
+    private int statementCacheSize;
+    private String batchWriting;
+    private char urlParameterSeparator;
+    private Map<String, String> urlParameters;
 
     public DBProvider(String name, String driver, String url) {
+        this(name, driver, url, DEFAULT_MAX_PARAMETERS, DEFAULT_STATEMENT_CACHE_SIZE, BatchWriting.JDBC, SEMICOLON,
+                Collections.emptyMap());
+    }
+
+    /**
+     * Creates a provider with its own limits and driver defaults.
+     * @param name provider name
+     * @param driver class name of the JDBC driver
+     * @param url url template, with the {@code ?host}, {@code ?port} and {@code ?database} placeholders
+     * @param maxParameters maximum number of values bound in a single {@code IN} list
+     * @param statementCacheSize prepared statements cached per connection, {@code 0} to disable the cache
+     * @param batchWriting batch writing mode, one of the values of {@link BatchWriting}
+     * @param urlParameterSeparator {@link #QUERY_STRING} or {@link #SEMICOLON}
+     * @param urlParameters driver parameters added by default to the url
+     */
+    public DBProvider(String name, String driver, String url, int maxParameters, int statementCacheSize,
+                      String batchWriting, char urlParameterSeparator, Map<String, String> urlParameters) {
         this.name = name;
         this.driver = driver;
         this.url = url;
+        this.maxParameters = maxParameters;
+        this.statementCacheSize = statementCacheSize;
+        this.batchWriting = batchWriting;
+        this.urlParameterSeparator = urlParameterSeparator;
+        this.urlParameters = urlParameters;
     }
 
     public String getName() {
@@ -35,4 +86,104 @@ public class DBProvider {
     public void setUrl(String url) {
         this.url = url;
     }
+
+    /**
+     * Gets the maximum number of values that can be bound in a single {@code IN} list.
+     * @return number of values
+     */
+    public int getMaxParameters() {
+        return maxParameters;
+    }
+
+    public void setMaxParameters(int maxParameters) {
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Gets the default number of prepared statements cached per connection of the internal pool.
+     * @return number of statements, {@code 0} if they aren't cached
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Gets the default batch writing mode, one of the values of {@link BatchWriting}.
+     * @return batch writing mode
+     */
+    public String getBatchWriting() {
+        return batchWriting;
+    }
+
+    public void setBatchWriting(String batchWriting) {
+        this.batchWriting = batchWriting;
+    }
+
+    /**
+     * Gets the separator of the parameters in the urls of the provider, {@link #QUERY_STRING} or
+     * {@link #SEMICOLON}.
+     * @return separator
+     */
+    public char getUrlParameterSeparator() {
+        return urlParameterSeparator;
+    }
+
+    public void setUrlParameterSeparator(char urlParameterSeparator) {
+        this.urlParameterSeparator = urlParameterSeparator;
+    }
+
+    /**
+     * Gets the driver parameters added by default to the url, usually the ones that enable batched inserts and the
+     * caching of prepared statements in the driver.
+     * @return values by parameter name
+     */
+    public Map<String, String> getUrlParameters() {
+        return urlParameters;
+    }
+
+    public void setUrlParameters(Map<String, String> urlParameters) {
+        this.urlParameters = urlParameters;
+    }
+
+    /**
+     * Adds the parameters to the url with the separator of the provider. The parameters that the url already
+     * defines keep their value.
+     * @param url connection url
+     * @param parameters values by parameter name
+     * @return url with the parameters
+     */
+    public String appendUrlParameters(String url, Map<String, String> parameters) {
+        if (parameters.isEmpty()) {
+            return url;
+        }
+        Set<String> defined = getParameterNames(url);
+        StringBuilder builder = new StringBuilder(url);
+        boolean first = urlParameterSeparator == QUERY_STRING && url.indexOf('?') < 0;
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            if (defined.contains(parameter.getKey())) {
+                continue;
+            }
+            builder.append(first ? '?' : urlParameterSeparator)
+                    .append(parameter.getKey()).append('=').append(parameter.getValue());
+            first = false;
+        }
+        return builder.toString();
+    }
+
+    private Set<String> getParameterNames(String url) {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        int start = urlParameterSeparator == QUERY_STRING ? url.indexOf('?') : url.indexOf(SEMICOLON);
+        if (start < 0) {
+            return names;
+        }
+        for (String parameter : url.substring(start + 1).split(String.valueOf(urlParameterSeparator))) {
+            int equals = parameter.indexOf('=');
+            names.add(equals < 0 ? parameter : parameter.substring(0, equals));
+        }
+        return names;
+    }
 }
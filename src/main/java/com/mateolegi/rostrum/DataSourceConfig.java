@@ -0,0 +1,312 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.constant.DatabaseProvider;
+import org.eclipse.persistence.config.BatchWriting;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
+
+/**
+ * Immutable configuration of a data source of {@code rostrum.json}. The values used on each operation are resolved
+ * when the configuration is loaded.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class DataSourceConfig {
+
+    /**
+     * Default milliseconds after a write during which the reads of the same thread go to the primary.
+     */
+    public static final int DEFAULT_READ_AFTER_WRITE_WINDOW = 1000;
+
+    private static final List<String> CONNECTION_ATTRIBUTES = Arrays.asList(DATABASE_HOST, DATABASE_PORT,
+            DATABASE_NAME);
+
+    private final Map<String, Object> properties;
+    private final String persistenceUnit;
+    private final String databaseProvider;
+    private final List<String> entityPackages;
+    private final int batchSize;
+    private final int fetchSize;
+    private final int statementCacheSize;
+    private final String batchWriting;
+    private final boolean bindParameters;
+    private final boolean forceBindParameters;
+    private final Map<String, String> urlParameters;
+    private final PoolConfig pool;
+    private final List<DataSourceConfig> replicas;
+    private final int readAfterWriteWindow;
+
+    DataSourceConfig(@NotNull("Properties can't be null") Map<String, Object> properties) {
+        this.properties = properties;
+        this.persistenceUnit = getString(PERSISTENCE_UNIT);
+        this.databaseProvider = resolveDatabaseProvider();
+        Object packages = properties.get(ENTITY_PACKAGE);
+        this.entityPackages = packages instanceof List
+                ? Collections.unmodifiableList(((List<?>) packages).stream()
+                .map(String::valueOf).collect(Collectors.toList()))
+                : Objects.isNull(packages) ? Collections.emptyList() : Collections.singletonList(packages.toString());
+        this.batchSize = getInt(BATCH_SIZE, Factory.DEFAULT_BATCH_SIZE);
+        this.fetchSize = getInt(FETCH_SIZE, Factory.DEFAULT_FETCH_SIZE);
+        DBProvider provider = Objects.isNull(databaseProvider)
+                ? null : DatabaseProvider.PROVIDERS.get(databaseProvider);
+        this.statementCacheSize = getInt(STATEMENT_CACHE_SIZE, Objects.isNull(provider)
+                ? DBProvider.DEFAULT_STATEMENT_CACHE_SIZE : provider.getStatementCacheSize());
+        this.batchWriting = contains(BATCH_WRITING) ? getString(BATCH_WRITING)
+                : Objects.isNull(provider) ? BatchWriting.JDBC : provider.getBatchWriting();
+        this.bindParameters = getBoolean(BIND_PARAMETERS, true);
+        this.forceBindParameters = getBoolean(FORCE_BIND_PARAMETERS, false);
+        this.urlParameters = resolveUrlParameters(provider);
+        Object pool = properties.get(POOL);
+        this.pool = pool instanceof Map ? new PoolConfig(castMap(pool)) : null;
+        this.replicas = resolveReplicas();
+        this.readAfterWriteWindow = getInt(READ_AFTER_WRITE_WINDOW, DEFAULT_READ_AFTER_WRITE_WINDOW);
+    }
+
+    public String getPersistenceUnit() {
+        return persistenceUnit;
+    }
+
+    /**
+     * Gets the name of the database provider, as defined in {@link DatabaseProvider}.
+     * @return provider name or {@code null} if it can't be determined from the connection or the driver
+     */
+    @Nullable
+    public String getDatabaseProvider() {
+        return databaseProvider;
+    }
+
+    public List<String> getEntityPackages() {
+        return entityPackages;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Gets the number of prepared statements cached per connection of the internal pool. External pools cache
+     * statements with their own configuration.
+     * @return number of statements, {@code 0} if they aren't cached
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Gets the batch writing mode, the default of the database provider if it isn't configured.
+     * @return one of the values of {@link BatchWriting}
+     */
+    public String getBatchWriting() {
+        return batchWriting;
+    }
+
+    /**
+     * Indicates if the values of the statements are sent as bind parameters, so the database can reuse the plan of
+     * each statement. Enabled by default.
+     * @return configured value
+     */
+    public boolean isBindParameters() {
+        return bindParameters;
+    }
+
+    /**
+     * Indicates if the values are bound even where the database platform would write them as literals, such as the
+     * arguments of functions. Disabled by default because some databases reject parameters in those positions.
+     * @return configured value
+     */
+    public boolean isForceBindParameters() {
+        return forceBindParameters;
+    }
+
+    /**
+     * Gets the driver parameters added to the url: the defaults of the database provider merged with the ones of
+     * the {@code url-parameters} object, where a {@code null} value removes a default. If the object is
+     * {@code false} only the url is used.
+     * @return values by parameter name
+     */
+    public Map<String, String> getUrlParameters() {
+        return urlParameters;
+    }
+
+    /**
+     * Gets the configuration of the connection pool.
+     * @return configuration or {@code null} if the data source has no {@code pool} section
+     */
+    @Nullable
+    public PoolConfig getPool() {
+        return pool;
+    }
+
+    /**
+     * Gets the configuration of the read replicas. Each replica has every attribute of this data source except the
+     * ones it overrides; if it defines a host, port or database, the url of the primary is not inherited.
+     * @return replicas, empty if reads go to this data source
+     */
+    public List<DataSourceConfig> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Gets the balancing policy of the replicas.
+     * @return {@code round-robin} or {@code least-loaded}
+     */
+    public String getReplicaBalancing() {
+        String balancing = getString(REPLICA_BALANCING);
+        return Objects.isNull(balancing) ? ReplicaSet.ROUND_ROBIN : balancing;
+    }
+
+    /**
+     * Gets the milliseconds after a write of a thread during which its reads go to the primary, so that it reads
+     * its own writes.
+     * @return window in milliseconds
+     */
+    public int getReadAfterWriteWindow() {
+        return readAfterWriteWindow;
+    }
+
+    /**
+     * Validates if the attribute is defined for the data source.
+     * @param key attribute name
+     * @return validation result
+     */
+    public boolean contains(String key) {
+        return properties.containsKey(key);
+    }
+
+    /**
+     * Gets an attribute of the data source. Nested objects and arrays are returned as unmodifiable maps and lists.
+     * @param key attribute name
+     * @return value or {@code null} if it isn't defined
+     */
+    @Nullable
+    public Object get(String key) {
+        return properties.get(key);
+    }
+
+    /**
+     * Gets an attribute of the data source as text.
+     * @param key attribute name
+     * @return value or {@code null} if it isn't defined
+     */
+    @Nullable
+    public String getString(String key) {
+        Object value = properties.get(key);
+        return Objects.isNull(value) ? null : value.toString();
+    }
+
+    /**
+     * Gets a numeric attribute of the data source, written either as a number or as text.
+     * @param key attribute name
+     * @param defaultValue value used if the attribute isn't defined
+     * @return value
+     * @throws NumberFormatException if the value is not a number
+     */
+    public int getInt(String key, int defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            return Integer.parseInt((String) value);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Gets a boolean attribute of the data source, written either as a boolean or as text.
+     * @param key attribute name
+     * @param defaultValue value used if the attribute isn't defined
+     * @return value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        return defaultValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private Map<String, String> resolveUrlParameters(@Nullable DBProvider provider) {
+        Object overrides = properties.get(URL_PARAMETERS);
+        if (Boolean.FALSE.equals(overrides) || "false".equals(overrides)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (Objects.nonNull(provider)) {
+            parameters.putAll(provider.getUrlParameters());
+        }
+        if (overrides instanceof Map) {
+            castMap(overrides).forEach((name, value) -> {
+                if (Objects.isNull(value)) {
+                    parameters.remove(name);
+                } else {
+                    parameters.put(name, value.toString());
+                }
+            });
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    private List<DataSourceConfig> resolveReplicas() {
+        Object array = properties.get(REPLICAS);
+        if (!(array instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<DataSourceConfig> replicas = new ArrayList<>();
+        for (Object item : (List<?>) array) {
+            Map<String, Object> overrides = castMap(item);
+            Map<String, Object> replica = new LinkedHashMap<>(properties);
+            replica.remove(REPLICAS);
+            if (CONNECTION_ATTRIBUTES.stream().anyMatch(overrides::containsKey)) {
+                replica.remove(DATABASE_URL);
+            }
+            replica.putAll(overrides);
+            replicas.add(new DataSourceConfig(Collections.unmodifiableMap(replica)));
+        }
+        return Collections.unmodifiableList(replicas);
+    }
+
+    @Nullable
+    private String resolveDatabaseProvider() {
+        if (properties.containsKey(DATABASE_CONNECTION)) {
+            return getString(DATABASE_CONNECTION);
+        }
+        Object driver = properties.get(DATABASE_DRIVER);
+        return DatabaseProvider.PROVIDERS.values().stream()
+                .filter(provider -> provider.getDriver().equals(driver))
+                .map(DBProvider::getName)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return properties.equals(((DataSourceConfig) o).properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return properties.hashCode();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mateolegi.rostrum;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Creates the pooled {@code DataSource} of a persistence unit, replacing the internal connection pool of EclipseLink.
+ * It allows using pools such as HikariCP through a small adapter. The implementation can be set in the
+ * {@code data-source-provider} attribute of the {@code pool} section, in which case it must have a public constructor
+ * without parameters, or registered with {@link Factory#setDataSourceProvider}. <br>
+ * The pool should be filled up to {@link PoolConfig#getMin()} connections when it's created. If the returned
+ * {@code DataSource} is {@link AutoCloseable}, it's closed together with the factory of the persistence unit.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface DataSourceProvider {
+
+    /**
+     * Creates the data source.
+     * @param config configuration of the data source, its {@code pool} section is available in
+     *               {@link DataSourceConfig#getPool()}
+     * @param connection resolved connection properties: {@code javax.persistence.jdbc.driver},
+     *                   {@code javax.persistence.jdbc.url}, {@code javax.persistence.jdbc.user} and
+     *                   {@code javax.persistence.jdbc.password}
+     * @return pooled data source
+     */
+    DataSource createDataSource(DataSourceConfig config, Map<String, String> connection);
+}
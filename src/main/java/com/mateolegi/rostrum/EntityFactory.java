@@ -1,42 +1,42 @@
 package com.mateolegi.rostrum;
 
 import com.google.common.base.CaseFormat;
-import com.mateolegi.rostrum.number_cast.*;
+import org.eclipse.persistence.config.HintValues;
 import org.eclipse.persistence.config.QueryHints;
 import org.eclipse.persistence.config.ResultType;
 import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.*;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.sql.Timestamp;
+import java.lang.reflect.InvocationTargetException;
+import java.time.DateTimeException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 
 /**
  * It fulfills the function of transforming the generic objects returned by the native JPA queries in a POJO with the
  * required attributes.
  * @author <a href="https://mateolegi.github.io">Mateo Leal</a>
- * @version 2.1.0
+ * @version 2.2.0
  */
 public class EntityFactory {
 
-    private static final Map<Class<?>, NumberCast> numberCast = new HashMap<>();
     private static final Logger LOGGER = Logger.getLogger(EntityFactory.class.getSimpleName());
 
-    static {
-        numberCast.put(Long.class, new LongCast());
-        numberCast.put(Integer.class, new IntegerCast());
-        numberCast.put(Double.class, new DoubleCast());
-        numberCast.put(Float.class, new FloatCast());
-    }
-
     @Contract(" -> fail")
     private EntityFactory() {
         throw new AssertionError("There are no instances for you!");
@@ -63,12 +63,25 @@ public class EntityFactory {
      * @return POJO with the information of the object
      */
     public static <T> List<T> reflectList(final Object o, final Class<T> clazz) {
-        List<T> results = new ArrayList<>();
-        if (o instanceof List<?>) {
-            List<?> l = (List<?>) o;
-            l.forEach(i -> results.add(objectToDTO(i, clazz)));
-        } else {
+        if (!(o instanceof List<?>)) {
+            List<T> results = new ArrayList<>(1);
             results.add(objectToDTO(o, clazz));
+            return results;
+        }
+        List<?> l = (List<?>) o;
+        List<T> results = new ArrayList<>(l.size());
+        ConstructorPlan<T> plan = null;
+        for (Object i : l) {
+            if (i instanceof Object[]) {
+                Object[] row = (Object[]) i;
+                // The plan is only looked up again if the types of the row differ from the previous ones
+                if (Objects.isNull(plan) || !plan.matches(row)) {
+                    plan = ConstructorPlan.of(row, clazz);
+                }
+                results.add(plan.newInstance(row));
+            } else {
+                results.add(castSimpleObject(i, clazz));
+            }
         }
         return results;
     }
@@ -99,7 +112,7 @@ public class EntityFactory {
     public static <T> T reflect(@NotNull("Query can't be null") final Query query, final Class<T> clazz) {
         query.setHint(QueryHints.RESULT_TYPE, ResultType.Map);
         Map<DatabaseField, ?> map = (Map<DatabaseField, ?>) query.getSingleResult();
-        return mapToDTO(map, clazz);
+        return MappingPlan.of(map, clazz).map(map);
     }
 
     /**
@@ -130,7 +143,7 @@ public class EntityFactory {
         try {
             query.setHint(QueryHints.RESULT_TYPE, ResultType.Map);
             Map<DatabaseField, ?> map = (Map<DatabaseField, ?>) query.getSingleResult();
-            return mapToDTO(map, clazz);
+            return MappingPlan.of(map, clazz).map(map);
         } catch (NoResultException e) {
             return noResultExceptionCallback.apply(e);
         }
@@ -166,7 +179,7 @@ public class EntityFactory {
         try {
             query.setHint(QueryHints.RESULT_TYPE, ResultType.Map);
             Map<DatabaseField, ?> map = (Map<DatabaseField, ?>) query.getSingleResult();
-            return mapToDTO(map, clazz);
+            return MappingPlan.of(map, clazz).map(map);
         } catch (NoResultException e) {
             return noResultExceptionCallback.apply(e);
         } catch (NonUniqueResultException e) {
@@ -195,75 +208,155 @@ public class EntityFactory {
      */
     @SuppressWarnings("unchecked")
     public static <T> List<T> reflectList(@NotNull("Query can't be null") final Query query, final Class<T> clazz) {
-        List<T> response = new ArrayList<>();
         query.setHint(QueryHints.RESULT_TYPE, ResultType.Map);
         List<Map<DatabaseField, ?>> res = query.getResultList();
-        res.forEach(map -> response.add(mapToDTO(map, clazz)));
+        List<T> response = new ArrayList<>(res.size());
+        RowMapper<T> mapper = new RowMapper<>(clazz);
+        for (Map<DatabaseField, ?> map : res) {
+            response.add(mapper.apply(map));
+        }
         return response;
     }
 
     /**
-     * Transforms a map returned by the Query in an instance of the class given by parameter.
-     * @param <T> entity type
-     * @param map map with the result of the query
-     * @param clazz class to which you are going to map
-     * @return instance with map values
-     * @throws IllegalArgumentException if map or class is null
-     * @since 2.0.0
+     * Executes a query and keeps its result in columns, fetching {@link Factory#DEFAULT_FETCH_SIZE} rows per round
+     * trip.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which each row is transformed when it is read
+     * @return list view over the columns
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     * @see #reflectColumnar(Query, Class, int)
      */
-    @Nullable
-    private static <T> T mapToDTO(@NotNull("Map can't be null") Map<DatabaseField, ?> map,
-                                  @NotNull("Class can't be null") final Class<T> clazz) {
-        try {
-            T instance = clazz.newInstance();
-            List<Field> fields = Arrays.asList(clazz.getDeclaredFields());
-            map.entrySet().stream()
-                    .filter(field -> getField(field.getKey().getName(), fields) != null)
-                    .forEach(i -> {
-                        Field field = getField(i.getKey().getName(), fields);
-                        setValue(field, i.getValue(), instance);
-                    });
-            return instance;
-        } catch (InstantiationException | IllegalAccessException e) {
-            LOGGER.log(Level.SEVERE, "Error creating an instance of " + clazz.getName(), e);
-        }
-        return null;
+    public static <T> ColumnarList<T> reflectColumnar(@NotNull("Query can't be null") final Query query,
+                                                      final Class<T> clazz) {
+        return reflectColumnar(query, clazz, Factory.DEFAULT_FETCH_SIZE);
     }
 
     /**
-     * Assign the value to the instance attribute.
-     * @param <T> entity type
-     * @param field field to which the value is assigned
-     * @param o value to be assigned
-     * @param instance instance of the field
-     * @throws IllegalArgumentException if field is null
-     * @since 2.0.0
+     * Executes a query and keeps its result in columns instead of DTOs: numeric columns in primitive arrays and text
+     * columns as codes of a dictionary of their distinct values. The rows are read through a database cursor,
+     * fetching {@code fetchSize} rows per round trip, so the records of the query are never collected. The DTO of a
+     * row is only created when it is read from the list, and the numeric columns can be aggregated without creating
+     * any DTO.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which each row is transformed when it is read
+     * @param fetchSize number of rows fetched per round trip
+     * @return list view over the columns
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     * @throws IllegalStateException if it is called for an UPDATE or DELETE statement from the Java persistence query
+     *         language
+     * @throws PersistenceException if the query fails
      */
-    private static <T> void setValue(@NotNull("Field can't be null") Field field, Object o, T instance) {
+    @SuppressWarnings("unchecked")
+    public static <T> ColumnarList<T> reflectColumnar(@NotNull("Query can't be null") final Query query,
+                                                      final Class<T> clazz, int fetchSize) {
+        ScrollableCursor cursor = openCursor(query, fetchSize);
         try {
-            boolean isAccessible = field.isAccessible();
-            field.setAccessible(true);
-            field.set(instance, castParam(o, field.getType()));
-            field.setAccessible(isAccessible);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            LOGGER.log(Level.WARNING, "Error setting the value " + o + " in the " + field.getName() + " field.", e);
+            ColumnarList<T> list = null;
+            int count = 0;
+            while (cursor.hasNext()) {
+                Map<DatabaseField, ?> row = (Map<DatabaseField, ?>) cursor.next();
+                if (Objects.isNull(list)) {
+                    List<String> columns = new ArrayList<>(row.size());
+                    row.keySet().forEach(field -> columns.add(field.getName()));
+                    list = new ColumnarList<>(columns, MappingPlan.of(row, clazz)::map);
+                }
+                list.addRow(getValues(row));
+                if (++count % fetchSize == 0) {
+                    cursor.clear();
+                }
+            }
+            if (Objects.isNull(list)) {
+                List<String> columns = new ArrayList<>();
+                if (Objects.nonNull(cursor.getFields())) {
+                    cursor.getFields().forEach(field -> columns.add(field.getName()));
+                }
+                list = new ColumnarList<>(columns, values -> null);
+            }
+            return list.complete();
+        } finally {
+            cursor.close();
         }
     }
 
     /**
-     * Find matches between the name of the column and the name of the attribute. Regardless of whether it is
-     * {@code camelCase} or {@code SNAKE_CASE}.
-     * @param databaseField column name
-     * @param fields list with the fields of the class
-     * @return the field of the class that matches, otherwise {@code null}
-     * @throws IllegalArgumentException if field lists is null
-     * @since 2.0.0
+     * Executes a query through a database cursor and maps each row to a DTO when it is read, fetching
+     * {@link Factory#DEFAULT_FETCH_SIZE} rows per round trip.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which you want to transform each row
+     * @return stream of DTOs
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     * @see #stream(Query, Class, int)
      */
-    private static Field getField(String databaseField, @NotNull("Field list can't be null") List<Field> fields) {
-        return fields.parallelStream()
-                .filter(field -> field.getName().equalsIgnoreCase(getNameField(databaseField)))
-                .findFirst()
-                .orElse(null);
+    public static <T> Stream<T> stream(@NotNull("Query can't be null") final Query query, final Class<T> clazz) {
+        return stream(query, clazz, Factory.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Executes a query through a database cursor and maps each row to a DTO when it is read, fetching
+     * {@code fetchSize} rows per round trip. The rows aren't collected, so the memory used doesn't depend on the
+     * size of the result. The stream keeps the cursor and its connection open until it is closed, so it must be used
+     * in a try-with-resources block, and the entity manager of the query must stay open meanwhile. Some drivers,
+     * like PostgreSQL, only honor the fetch size inside a transaction.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which you want to transform each row
+     * @param fetchSize number of rows fetched per round trip
+     * @return stream of DTOs
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     * @throws IllegalStateException if it is called for an UPDATE or DELETE statement from the Java persistence query
+     *         language
+     * @throws PersistenceException if the query fails
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> stream(@NotNull("Query can't be null") final Query query, final Class<T> clazz,
+                                       int fetchSize) {
+        ScrollableCursor cursor = openCursor(query, fetchSize);
+        RowMapper<T> mapper = new RowMapper<>(clazz);
+        // The DTOs aren't managed, so only the rows buffered by the cursor have to be released
+        return CursorSpliterator.stream(cursor, row -> mapper.apply((Map<DatabaseField, ?>) row), fetchSize,
+                () -> { }, cursor::close);
+    }
+
+    /**
+     * Performs the action for each row of the query mapped to a DTO, reading them through a database cursor as
+     * {@link #stream(Query, Class)} does.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which you want to transform each row
+     * @param action action to be performed on each DTO
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     */
+    public static <T> void forEach(@NotNull("Query can't be null") final Query query, final Class<T> clazz,
+                                   @NotNull("Action can't be null") Consumer<? super T> action) {
+        forEach(query, clazz, Factory.DEFAULT_FETCH_SIZE, action);
+    }
+
+    /**
+     * Performs the action for each row of the query mapped to a DTO, reading them through a database cursor as
+     * {@link #stream(Query, Class, int)} does. The cursor is closed when the action has been performed on every
+     * row or when it throws an exception.
+     * @param <T> DTO type
+     * @param query query after assigning parameters
+     * @param clazz class to which you want to transform each row
+     * @param fetchSize number of rows fetched per round trip
+     * @param action action to be performed on each DTO
+     * @since 2.2.0
+     * @throws IllegalArgumentException if query is null
+     */
+    public static <T> void forEach(@NotNull("Query can't be null") final Query query, final Class<T> clazz,
+                                   int fetchSize, @NotNull("Action can't be null") Consumer<? super T> action) {
+        try (Stream<T> stream = stream(query, clazz, fetchSize)) {
+            stream.forEach(action);
+        }
     }
 
     /**
@@ -291,27 +384,11 @@ public class EntityFactory {
      * @throws IllegalArgumentException if there is no constructor for the query attributes
      */
     private static <T> T objectToDTO(Object o, Class<T> clazz) {
-        Object[] oA;
-        try {
-            oA = (Object[]) o;
-        } catch (ClassCastException e) {
+        if (!(o instanceof Object[])) {
             return castSimpleObject(o, clazz);
         }
-        int length = oA.length;
-        // Get the right constructor to build the POJO
-        Constructor<T> c = getConstructor(clazz, length);
-        if (c != null) {
-            try {
-                // Create an instance of the POJO with the constructor found
-                return c.newInstance(castParams(oA, c.getParameterTypes()));
-            } catch (Exception e) {
-                // If an error occurs during initialization
-                LOGGER.log(Level.SEVERE, "An error occurred instantiating the object.", e);
-                throw new ClassCastException(e.getMessage());
-            }
-        } else {
-            throw new IllegalArgumentException("No constructor was found for the number of elements.");
-        }
+        Object[] row = (Object[]) o;
+        return ConstructorPlan.of(row, clazz).newInstance(row);
     }
 
     /**
@@ -326,40 +403,6 @@ public class EntityFactory {
         return (T) castParam(o, clazz);
     }
 
-    /**
-     * Gets the first constructor with the number of parameters equal to the number of attributes of the object of the
-     * query.
-     * @param <T> entity type
-     * @param clazz POJO class
-     * @param parameterCount number of attributes of the native query object
-     * @return the constructor
-     * @throws IllegalArgumentException if class is null
-     */
-    @SuppressWarnings("unchecked")
-    private static <T> Constructor<T> getConstructor(@NotNull("Class can't be null") Class<T> clazz,
-                                                     int parameterCount) {
-        Constructor<T>[] constructors = (Constructor<T>[]) clazz.getConstructors();
-        return Arrays.stream(constructors)
-                .filter(i -> i.getParameterCount() == parameterCount)
-                .findFirst()
-                .orElse(null);
-    }
-
-    /**
-     * Cast each of the values to their respective class within the POJO.
-     * @param p array with the attributes of the native query object
-     * @param classes array with the respective classes for each attribute
-     * @return array of objects with casted attributes
-     * @throws IllegalArgumentException if attributes array is null
-     */
-    private static Object[] castParams(@NotNull("Attributes array can't be null") Object[] p, Class<?>[] classes) {
-        Object[] castedParams = new Object[p.length];
-        for (int i = 0; i < p.length; i++) {
-            castedParams[i] = castParam(p[i], classes[i]);
-        }
-        return castedParams;
-    }
-
     /**
      * Cast numbers to the class sent by parameter.
      * @param o number object
@@ -369,20 +412,20 @@ public class EntityFactory {
      */
     @Nullable
     private static Object castParam(Object o, Class<?> clazz) {
+        return castParam(o, clazz, Converters.of(clazz));
+    }
+
+    /**
+     * Cast the value with the converter of the class.
+     * @param o value returned by the query
+     * @param clazz class to be casted
+     * @param converter converter of the class
+     * @return casted value
+     */
+    @Nullable
+    private static Object castParam(Object o, Class<?> clazz, Function<Object, Object> converter) {
         try {
-            if (o == null) {
-                return null;
-            } else if (clazz == Number.class || clazz.getSuperclass() == Number.class) {
-                // Special cases to cast the numbers
-                return castNumber(o, clazz);
-            } else if (clazz == Date.class && o.getClass() == Timestamp.class) {
-                Timestamp timestamp = (Timestamp) o;
-                return new Date(timestamp.getTime());
-            } else if (clazz == String.class && !(o instanceof String)) {
-                return o.toString();
-            } else {
-                return clazz.cast(o);
-            }
+            return o == null ? null : converter.apply(o);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "An error occurred by casting the object with value " + o + " to class "
                     + clazz.getName(), e);
@@ -391,12 +434,324 @@ public class EntityFactory {
     }
 
     /**
-     * Cast numbers to the class sent by parameter.
-     * @param o number object
-     * @param clazz class to be casted
-     * @return casted number
+     * Gets the wrapper class of a primitive type.
+     * @param type class
+     * @return wrapper class, or the same class if it isn't primitive
      */
-    private static Number castNumber(Object o, Class<?> clazz) {
-        return numberCast.get(clazz).cast(o);
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * Constructor of a DTO chosen for the Java types of the values of a native query row, with the converter of each
+     * parameter. Plans are cached per class and list of types, so the constructors are only compared for the first
+     * row of each query shape.
+     * @param <T> DTO type
+     */
+    private static final class ConstructorPlan<T> {
+
+        private static final ClassValue<ConcurrentMap<List<Class<?>>, ConstructorPlan<?>>> PLANS =
+                new ClassValue<ConcurrentMap<List<Class<?>>, ConstructorPlan<?>>>() {
+                    @Override
+                    protected ConcurrentMap<List<Class<?>>, ConstructorPlan<?>> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+
+        private final Class<?>[] types;
+        private final Constructor<T> constructor;
+        private final Class<?>[] parameterTypes;
+        private final List<Function<Object, Object>> converters;
+
+        private ConstructorPlan(Class<?>[] types, Constructor<T> constructor) {
+            this.types = types;
+            this.constructor = constructor;
+            this.parameterTypes = constructor.getParameterTypes();
+            this.converters = new ArrayList<>(parameterTypes.length);
+            for (Class<?> parameterType : parameterTypes) {
+                converters.add(Converters.of(parameterType));
+            }
+        }
+
+        /**
+         * Gets the plan of the class for the types of the values of the row.
+         * @param <T> DTO type
+         * @param row values of a native query row
+         * @param clazz DTO class
+         * @return plan
+         * @throws IllegalArgumentException if there is no constructor for the number of values
+         */
+        @SuppressWarnings("unchecked")
+        static <T> ConstructorPlan<T> of(@NotNull("Row can't be null") Object[] row,
+                                         @NotNull("Class can't be null") Class<T> clazz) {
+            Class<?>[] types = new Class<?>[row.length];
+            for (int i = 0; i < row.length; i++) {
+                types[i] = Objects.isNull(row[i]) ? null : row[i].getClass();
+            }
+            ConcurrentMap<List<Class<?>>, ConstructorPlan<?>> plans = PLANS.get(clazz);
+            List<Class<?>> key = Arrays.asList(types);
+            ConstructorPlan<T> plan = (ConstructorPlan<T>) plans.get(key);
+            if (Objects.isNull(plan)) {
+                plan = new ConstructorPlan<>(types, getConstructor(clazz, types));
+                plans.putIfAbsent(key, plan);
+            }
+            return plan;
+        }
+
+        /**
+         * Validates if the values of the row have the types of this plan. Null values match any type.
+         * @param row values of a native query row
+         * @return validation result
+         */
+        boolean matches(Object[] row) {
+            if (row.length != types.length) {
+                return false;
+            }
+            for (int i = 0; i < row.length; i++) {
+                if (Objects.nonNull(row[i]) && row[i].getClass() != types[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Creates an instance of the DTO with the values of the row.
+         * @param row values of a native query row
+         * @return instance
+         * @throws ClassCastException if the object can't be instantiated
+         */
+        T newInstance(Object[] row) {
+            Object[] castedParams = new Object[row.length];
+            for (int i = 0; i < row.length; i++) {
+                castedParams[i] = castParam(row[i], parameterTypes[i], converters.get(i));
+            }
+            try {
+                // Create an instance of the POJO with the constructor found
+                return constructor.newInstance(castedParams);
+            } catch (Exception e) {
+                // If an error occurs during initialization
+                LOGGER.log(Level.SEVERE, "An error occurred instantiating the object.", e);
+                throw new ClassCastException(e.getMessage());
+            }
+        }
+
+        /**
+         * Gets the constructor whose parameters best fit the types of the row: values that can be assigned are
+         * preferred over numbers that must be converted, and those over text conversions. If no constructor fits, the
+         * first one with the number of values is used.
+         * @param <T> DTO type
+         * @param clazz DTO class
+         * @param types types of the values, {@code null} for null values
+         * @return constructor
+         * @throws IllegalArgumentException if there is no constructor for the number of values
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> Constructor<T> getConstructor(Class<T> clazz, Class<?>[] types) {
+            Constructor<T> first = null;
+            Constructor<T> best = null;
+            int bestScore = -1;
+            for (Constructor<?> constructor : clazz.getConstructors()) {
+                if (constructor.getParameterCount() != types.length) {
+                    continue;
+                }
+                if (Objects.isNull(first)) {
+                    first = (Constructor<T>) constructor;
+                }
+                int score = score(constructor.getParameterTypes(), types);
+                if (score > bestScore) {
+                    best = (Constructor<T>) constructor;
+                    bestScore = score;
+                }
+            }
+            if (Objects.isNull(first)) {
+                throw new IllegalArgumentException("No constructor was found for the number of elements.");
+            }
+            return Objects.isNull(best) ? first : best;
+        }
+
+        /**
+         * Scores how well the parameters fit the types: 3 for each value that can be assigned, 2 for each number that
+         * must be converted to another number type and 1 for each value converted to text or null.
+         * @param parameters parameter types of the constructor
+         * @param types types of the values, {@code null} for null values
+         * @return score or {@code -1} if a value can't be passed to its parameter
+         */
+        private static int score(Class<?>[] parameters, Class<?>[] types) {
+            int score = 0;
+            for (int i = 0; i < parameters.length; i++) {
+                Class<?> parameter = wrap(parameters[i]);
+                if (Objects.isNull(types[i])) {
+                    if (parameters[i].isPrimitive()) {
+                        return -1;
+                    }
+                    score += 1;
+                } else if (parameter.isAssignableFrom(types[i])) {
+                    score += 3;
+                } else if (Number.class.isAssignableFrom(types[i]) && Converters.isNumeric(parameter)) {
+                    score += 2;
+                } else if (parameter == String.class) {
+                    score += 1;
+                } else {
+                    return -1;
+                }
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Gets the values of a row returned with {@code ResultType.Map}, in the order of its columns.
+     * @param row row of a query
+     * @return values
+     */
+    private static List<?> getValues(Map<DatabaseField, ?> row) {
+        return row instanceof AbstractRecord ? ((AbstractRecord) row).getValues() : new ArrayList<>(row.values());
+    }
+
+    /**
+     * Opens a scrollable cursor over the rows of the query, returned with {@code ResultType.Map}.
+     * @param query query after assigning parameters
+     * @param fetchSize number of rows fetched per round trip
+     * @return open cursor
+     */
+    private static ScrollableCursor openCursor(Query query, int fetchSize) {
+        return (ScrollableCursor) query
+                .setHint(QueryHints.RESULT_TYPE, ResultType.Map)
+                .setHint(QueryHints.SCROLLABLE_CURSOR, HintValues.TRUE)
+                .setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize)
+                .getSingleResult();
+    }
+
+    /**
+     * Maps the rows of a query to DTOs, looking the mapping plan up only when the columns change. The rows of a query
+     * share their list of fields, so they are compared by reference.
+     * @param <T> DTO type
+     */
+    private static final class RowMapper<T> implements Function<Map<DatabaseField, ?>, T> {
+
+        private final Class<T> clazz;
+        private MappingPlan<T> plan;
+        private List<DatabaseField> columns;
+
+        private RowMapper(Class<T> clazz) {
+            this.clazz = clazz;
+        }
+
+        @Override
+        public T apply(Map<DatabaseField, ?> row) {
+            List<DatabaseField> fields = row instanceof AbstractRecord ? ((AbstractRecord) row).getFields() : null;
+            if (Objects.isNull(plan) || Objects.isNull(fields) || fields != columns) {
+                plan = MappingPlan.of(row, clazz);
+                columns = fields;
+            }
+            return plan.map(row);
+        }
+    }
+
+    /**
+     * Columns of a query resolved to the properties of a DTO and the writers that convert their values. Plans are
+     * cached per class and list of columns, so the fields are only searched for the first row of each query shape.
+     * @param <T> DTO type
+     */
+    private static final class MappingPlan<T> {
+
+        private static final ClassValue<ConcurrentMap<List<String>, MappingPlan<?>>> PLANS =
+                new ClassValue<ConcurrentMap<List<String>, MappingPlan<?>>>() {
+                    @Override
+                    protected ConcurrentMap<List<String>, MappingPlan<?>> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+
+        private final Class<T> clazz;
+        private final Constructor<T> constructor;
+        private final PropertyAccessor[] accessors;
+        private final List<BiConsumer<Object, Object>> writers;
+
+        private MappingPlan(Class<T> clazz, List<String> columns) {
+            this.clazz = clazz;
+            this.constructor = getDefaultConstructor(clazz);
+            this.accessors = new PropertyAccessor[columns.size()];
+            this.writers = new ArrayList<>(columns.size());
+            Map<String, PropertyAccessor> properties = new HashMap<>();
+            // The first field in declaration order wins when two names differ only in case
+            PropertyAccessor.fieldsOf(clazz).values()
+                    .forEach(field -> properties.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field));
+            for (int i = 0; i < accessors.length; i++) {
+                accessors[i] = properties.get(getNameField(columns.get(i)).toLowerCase(Locale.ROOT));
+                writers.add(Objects.isNull(accessors[i]) ? null : Converters.writerOf(accessors[i]));
+            }
+        }
+
+        /**
+         * Gets the plan of the class for the columns of the row.
+         * @param <T> DTO type
+         * @param row row of a query executed with {@code ResultType.Map}
+         * @param clazz DTO class
+         * @return plan
+         */
+        @SuppressWarnings("unchecked")
+        static <T> MappingPlan<T> of(@NotNull("Map can't be null") Map<DatabaseField, ?> row,
+                                     @NotNull("Class can't be null") Class<T> clazz) {
+            List<String> columns = new ArrayList<>(row.size());
+            row.keySet().forEach(field -> columns.add(field.getName()));
+            return (MappingPlan<T>) PLANS.get(clazz).computeIfAbsent(columns, key -> new MappingPlan<>(clazz, key));
+        }
+
+        /**
+         * Creates an instance of the DTO with the values of the row.
+         * @param row row of a query, with the columns of this plan
+         * @return instance or {@code null} if the class can't be instantiated
+         */
+        @Nullable
+        T map(Map<DatabaseField, ?> row) {
+            return map(getValues(row));
+        }
+
+        /**
+         * Creates an instance of the DTO with the values of a row.
+         * @param values values of the row, in the order of the columns of this plan
+         * @return instance or {@code null} if the class can't be instantiated
+         */
+        @Nullable
+        T map(List<?> values) {
+            T instance;
+            try {
+                if (Objects.isNull(constructor)) {
+                    throw new InstantiationException("There is no constructor without parameters.");
+                }
+                instance = constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                LOGGER.log(Level.SEVERE, "Error creating an instance of " + clazz.getName(), e);
+                return null;
+            }
+            for (int i = 0; i < accessors.length; i++) {
+                if (Objects.nonNull(accessors[i])) {
+                    setValue(i, values.get(i), instance);
+                }
+            }
+            return instance;
+        }
+
+        private void setValue(int column, Object o, T instance) {
+            try {
+                // Primitive fields are written without boxing the converted value
+                writers.get(column).accept(instance, o);
+            } catch (IllegalArgumentException | ClassCastException | UnsupportedOperationException
+                    | DateTimeException e) {
+                LOGGER.log(Level.WARNING, "Error setting the value " + o + " in the " + accessors[column].getName()
+                        + " field.", e);
+            }
+        }
+
+        @Nullable
+        private static <T> Constructor<T> getDefaultConstructor(Class<T> clazz) {
+            try {
+                return clazz.getConstructor();
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
     }
 }
@@ -0,0 +1,213 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.annotation.Crypt;
+import com.mateolegi.rostrum.annotation.Type;
+import com.mateolegi.rostrum.exception.MultipleIdException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import java.beans.Introspector;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reflective information of an entity class that Rostrum needs on each operation. It is resolved only once per
+ * class and includes the members inherited from {@code MappedSuperclass} and {@code Entity} superclasses.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class EntityMetadata {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String UPDATED_AT = "updatedAt";
+
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<EntityMetadata>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return new EntityMetadata(type);
+        }
+    };
+
+    private final Class<?> entityClass;
+    private final PropertyAccessor idAccessor;
+    private final String idAttribute;
+    private final PropertyAccessor createdAtAccessor;
+    private final PropertyAccessor updatedAtAccessor;
+    private final List<CryptField> cryptFields;
+    private final Map<String, PropertyAccessor> accessors;
+
+    private EntityMetadata(Class<?> entityClass) {
+        this.entityClass = entityClass;
+        List<Class<?>> hierarchy = getHierarchy(entityClass);
+        Field id = null;
+        Method getter = null;
+        PropertyAccessor createdAt = null;
+        PropertyAccessor updatedAt = null;
+        List<CryptField> crypt = new ArrayList<>();
+        Map<String, PropertyAccessor> all = new HashMap<>();
+        for (Class<?> clazz : hierarchy) {
+            Map<String, PropertyAccessor> accessors = PropertyAccessor.fieldsOf(clazz);
+            accessors.forEach(all::putIfAbsent);
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    if (Objects.nonNull(id)) {
+                        throw new MultipleIdException("There is more than one field with the Id annotation.");
+                    }
+                    id = field;
+                }
+                Crypt annotation = field.getDeclaredAnnotation(Crypt.class);
+                if (Objects.nonNull(annotation)) {
+                    crypt.add(new CryptField(accessors.get(field.getName()), annotation.type()));
+                }
+            }
+            if (Objects.isNull(createdAt)) {
+                createdAt = accessors.get(CREATED_AT);
+            }
+            if (Objects.isNull(updatedAt)) {
+                updatedAt = accessors.get(UPDATED_AT);
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Id.class)) {
+                    if (Objects.nonNull(getter)) {
+                        throw new MultipleIdException("There is more than one method with the Id annotation.");
+                    }
+                    getter = method;
+                }
+            }
+        }
+        if (Objects.nonNull(id)) {
+            this.idAccessor = PropertyAccessor.fieldsOf(id.getDeclaringClass()).get(id.getName());
+            this.idAttribute = id.getName();
+        } else if (Objects.nonNull(getter)) {
+            this.idAccessor = PropertyAccessor.ofGetter(getter);
+            this.idAttribute = getPropertyName(getter);
+        } else {
+            this.idAccessor = null;
+            this.idAttribute = null;
+        }
+        this.createdAtAccessor = createdAt;
+        this.updatedAtAccessor = updatedAt;
+        this.cryptFields = Collections.unmodifiableList(crypt);
+        this.accessors = Collections.unmodifiableMap(all);
+    }
+
+    /**
+     * Gets the metadata of the entity class.
+     * @param clazz entity class
+     * @return metadata resolved for the class
+     * @throws MultipleIdException if there's more than one field or method with {@code Id} annotation.
+     */
+    @NotNull
+    static EntityMetadata of(@NotNull("Class can't be null") Class<?> clazz) {
+        return METADATA.get(clazz);
+    }
+
+    Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Gets the accessor of the field or getter annotated with {@code Id}.
+     * @return accessor or {@code null} if the class has no id
+     */
+    @Nullable
+    PropertyAccessor getIdAccessor() {
+        return idAccessor;
+    }
+
+    /**
+     * Gets the name of the attribute annotated with {@code Id}, as used in JPQL and criteria queries.
+     * @return attribute name or {@code null} if the class has no id
+     */
+    @Nullable
+    String getIdAttribute() {
+        return idAttribute;
+    }
+
+    @Nullable
+    PropertyAccessor getCreatedAtAccessor() {
+        return createdAtAccessor;
+    }
+
+    @Nullable
+    PropertyAccessor getUpdatedAtAccessor() {
+        return updatedAtAccessor;
+    }
+
+    List<CryptField> getCryptFields() {
+        return cryptFields;
+    }
+
+    /**
+     * Gets the accessor of a field of the class or its persistent superclasses. A field of the class hides the
+     * fields with the same name of its superclasses.
+     * @param attribute field name
+     * @return accessor or {@code null} if there is no field with the name
+     */
+    @Nullable
+    PropertyAccessor getAccessor(String attribute) {
+        return accessors.get(attribute);
+    }
+
+    /**
+     * Gets the class and its persistent superclasses, the class being the first one.
+     * @param clazz entity class
+     * @return classes whose members are mapped
+     */
+    private static List<Class<?>> getHierarchy(Class<?> clazz) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        hierarchy.add(clazz);
+        for (Class<?> parent = clazz.getSuperclass(); Objects.nonNull(parent) && parent != Object.class;
+             parent = parent.getSuperclass()) {
+            if (parent.isAnnotationPresent(MappedSuperclass.class) || parent.isAnnotationPresent(Entity.class)) {
+                hierarchy.add(parent);
+            }
+        }
+        return hierarchy;
+    }
+
+    @Nullable
+    private static String getPropertyName(@Nullable Method getter) {
+        if (Objects.isNull(getter)) {
+            return null;
+        }
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        } else if (name.startsWith("is") && name.length() > 2) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    /**
+     * Field annotated with {@code Crypt} and the type of encryption it requires.
+     */
+    static final class CryptField {
+
+        private final PropertyAccessor accessor;
+        private final Type type;
+
+        private CryptField(PropertyAccessor accessor, Type type) {
+            this.accessor = accessor;
+            this.type = type;
+        }
+
+        PropertyAccessor getAccessor() {
+            return accessor;
+        }
+
+        Type getType() {
+            return type;
+        }
+    }
+}
@@ -2,18 +2,27 @@ package com.mateolegi.rostrum;
 
 import com.mateolegi.rostrum.constant.ConfigurationFileConstants;
 import com.mateolegi.rostrum.constant.DatabaseProvider;
-import com.mateolegi.rostrum.exception.PropertyNotFoundException;
+import com.mateolegi.rostrum.exception.DataSourceNotCreatedException;
 import org.eclipse.persistence.config.TargetServer;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
 import org.eclipse.persistence.jpa.PersistenceProvider;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.metamodel.EntityType;
 import javax.persistence.spi.PersistenceUnitTransactionType;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static org.eclipse.persistence.config.PersistenceUnitProperties.*;
 
@@ -24,40 +33,191 @@ import static org.eclipse.persistence.config.PersistenceUnitProperties.*;
  */
 public class Factory {
 
-    private static final Map<String, EntityManagerFactory> FACTORIES = new HashMap<>();
+    /**
+     * Default number of statements per JDBC batch and chunk size of the bulk operations.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Default number of rows fetched in each round trip when streaming results.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(Factory.class.getSimpleName());
+
+    private static final ConcurrentMap<String, Deployment> DEPLOYMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, DataSourceProvider> PROVIDERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Long>> LAST_WRITES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Deque<UnitOfWork>> TRANSACTIONS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    static {
+        Properties.addListener(Factory::onConfigurationChange);
+    }
 
     /**
-     * Generates EntityManager to interact with the persistence context.
-     * @return generated EntityManager
+     * Gets the EntityManager to interact with the persistence context. If the current thread has a unit of work open
+     * its EntityManager is returned, otherwise a new one is created and the caller is responsible for closing it.
+     * @return EntityManager
      */
     public static EntityManager getEntityManager() {
-        return getEntityManagerFactory(getDefaultPersistenceUnit()).createEntityManager();
+        return getEntityManager(getDefaultPersistenceUnit());
     }
 
     /**
-     * Generates EntityManager to interact with the persistence context.
-     * @return generated EntityManager
+     * Gets the EntityManager to interact with the persistence context. If the current thread has a unit of work open
+     * its EntityManager is returned, otherwise a new one is created and the caller is responsible for closing it.
+     * @param persistenceUnit persistence unit name
+     * @return EntityManager
      */
     public static EntityManager getEntityManager(String persistenceUnit) {
+        EntityManager manager = UnitOfWork.currentEntityManager(persistenceUnit);
+        if (Objects.nonNull(manager)) {
+            return manager;
+        }
         return getEntityManagerFactory(persistenceUnit).createEntityManager();
     }
 
-    public static synchronized EntityManagerFactory getEntityManagerFactory(String persistenceUnit) {
-        if (!FACTORIES.containsKey(persistenceUnit)) {
-            createEntityManagerFactory(persistenceUnit);
+    /**
+     * Gets the entity manager factory of the persistence unit, creating it on the first access. Each unit is created
+     * only once and only the threads that access a unit still being created wait for it.
+     * @param persistenceUnit persistence unit name
+     * @return entity manager factory
+     */
+    public static EntityManagerFactory getEntityManagerFactory(String persistenceUnit) {
+        return getDeployment(persistenceUnit).getFactory();
+    }
+
+    /**
+     * Gets an EntityManager for read-only work on the default persistence unit.
+     * @return EntityManager
+     * @see #getReadEntityManager(String)
+     */
+    public static EntityManager getReadEntityManager() {
+        return getReadEntityManager(getDefaultPersistenceUnit());
+    }
+
+    /**
+     * Gets an EntityManager for read-only work. If the current thread has a unit of work open its EntityManager is
+     * returned. Otherwise a new one is created, connected to one of the replicas of the persistence unit unless it
+     * has none or the thread wrote within the read-after-write window, and the caller is responsible for closing it.
+     * @param persistenceUnit persistence unit name
+     * @return EntityManager
+     */
+    public static EntityManager getReadEntityManager(String persistenceUnit) {
+        EntityManager manager = UnitOfWork.currentEntityManager(persistenceUnit);
+        if (Objects.nonNull(manager)) {
+            return manager;
         }
-        return FACTORIES.get(persistenceUnit);
+        return getReadEntityManagerFactory(persistenceUnit).createEntityManager();
+    }
+
+    /**
+     * Registers the provider that creates the pooled {@code DataSource} of the persistence unit, instead of the one
+     * configured in {@code rostrum.json} or the internal pool. It must be registered before the first access to the
+     * persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @param provider data source provider, {@code null} to remove it
+     */
+    public static void setDataSourceProvider(@NotNull("Persistence unit can't be null")
+                                                     String persistenceUnit,
+                                             @Nullable DataSourceProvider provider) {
+        if (Objects.isNull(provider)) {
+            PROVIDERS.remove(persistenceUnit);
+        } else {
+            PROVIDERS.put(persistenceUnit, provider);
+        }
+    }
+
+    /**
+     * Deploys every persistence unit of {@code rostrum.json} in parallel, so that the first operations don't pay
+     * for it. For each unit the entity manager factories of the primary and its replicas are created, the minimum
+     * connections of their pools are opened and the metadata of the entities of {@code entity-package} is
+     * resolved. A unit that fails doesn't stop the others; its error is included in the report.
+     * @return time of each phase by persistence unit
+     * @see WarmUpReport
+     */
+    public static WarmUpReport warmUp() {
+        List<String> persistenceUnits = Properties.getConfig().getDataSources().stream()
+                .map(DataSourceConfig::getPersistenceUnit)
+                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        Map<String, Map<String, Long>> durations = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(persistenceUnits.size(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "rostrum-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Future<?>> tasks = new LinkedHashMap<>();
+            for (String persistenceUnit : persistenceUnits) {
+                Map<String, Long> phases = new LinkedHashMap<>();
+                durations.put(persistenceUnit, phases);
+                tasks.put(persistenceUnit, executor.submit(() -> warmUp(persistenceUnit, phases)));
+            }
+            for (Map.Entry<String, Future<?>> task : tasks.entrySet()) {
+                try {
+                    task.getValue().get();
+                } catch (ExecutionException e) {
+                    failures.put(task.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.put(task.getKey(), e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        WarmUpReport report = new WarmUpReport(durations, failures,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOGGER.log(report.isSuccessful() ? Level.INFO : Level.WARNING, report.toString());
+        return report;
+    }
+
+    private static void warmUp(String persistenceUnit, Map<String, Long> phases) {
+        long start = System.nanoTime();
+        Deployment deployment = getDeployment(persistenceUnit);
+        deployment.getFactory();
+        phases.put(WarmUpReport.DEPLOY, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        start = System.nanoTime();
+        deployment.connect();
+        phases.put(WarmUpReport.CONNECT, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        start = System.nanoTime();
+        deployment.resolveMetadata();
+        phases.put(WarmUpReport.METADATA, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Opens a unit of work for the default persistence unit bound to the current thread.
+     * @return unit of work scope, it must be closed
+     * @see UnitOfWork
+     */
+    public static UnitOfWork openUnitOfWork() {
+        return openUnitOfWork(getDefaultPersistenceUnit());
+    }
+
+    /**
+     * Opens a unit of work for the persistence unit bound to the current thread. If there is already one open, the
+     * returned scope joins it.
+     * @param persistenceUnit persistence unit name
+     * @return unit of work scope, it must be closed
+     * @see UnitOfWork
+     */
+    public static UnitOfWork openUnitOfWork(String persistenceUnit) {
+        return UnitOfWork.open(persistenceUnit);
     }
 
     public static void beginTransaction() {
         beginTransaction(getDefaultPersistenceUnit());
     }
 
+    /**
+     * Opens a unit of work bound to the current thread that lasts until {@link #commitTransaction(String)} or
+     * {@link #rollbackTransaction(String)} is called.
+     * @param persistenceUnit persistence unit name
+     */
     public static void beginTransaction(String persistenceUnit) {
-        EntityManager manager = getEntityManager(persistenceUnit);
-        if (Objects.nonNull(manager)) {
-            manager.getTransaction().begin();
-        }
+        TRANSACTIONS.get().push(openUnitOfWork(persistenceUnit));
     }
 
     public static void commitTransaction() {
@@ -65,9 +225,10 @@ public class Factory {
     }
 
     public static void commitTransaction(String persistenceUnit) {
-        EntityManager manager = getEntityManager(persistenceUnit);
-        if (Objects.nonNull(manager) && manager.getTransaction().isActive()) {
-            manager.getTransaction().commit();
+        try (UnitOfWork unitOfWork = popTransaction(persistenceUnit)) {
+            if (Objects.nonNull(unitOfWork)) {
+                unitOfWork.commit();
+            }
         }
     }
 
@@ -76,36 +237,182 @@ public class Factory {
     }
 
     public static void rollbackTransaction(String persistenceUnit) {
-        EntityManager manager = getEntityManager(persistenceUnit);
-        if (Objects.nonNull(manager) && manager.getTransaction().isActive()) {
-            manager.getTransaction().rollback();
+        try (UnitOfWork unitOfWork = popTransaction(persistenceUnit)) {
+            if (Objects.nonNull(unitOfWork)) {
+                unitOfWork.setRollbackOnly();
+            }
+        }
+    }
+
+    /**
+     * Removes the last unit of work opened with {@code beginTransaction} for the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return unit of work or {@code null} if there is no transaction started
+     */
+    private static UnitOfWork popTransaction(String persistenceUnit) {
+        Iterator<UnitOfWork> iterator = TRANSACTIONS.get().iterator();
+        while (iterator.hasNext()) {
+            UnitOfWork unitOfWork = iterator.next();
+            if (unitOfWork.getPersistenceUnit().equals(persistenceUnit)) {
+                iterator.remove();
+                return unitOfWork;
+            }
         }
+        return null;
     }
 
-    private static String getDefaultPersistenceUnit() {
-        JSONArray dataSources = Properties.getDataSources();
-        if (dataSources.isEmpty()) {
-            throw new PropertyNotFoundException("There is no persistence unit defined in rostrum.json.");
+    static String getDefaultPersistenceUnit() {
+        return Properties.getConfig().getDefaultPersistenceUnit();
+    }
+
+    /**
+     * Gets the factory that serves the reads of the current thread: one of the replicas, or the primary if there are
+     * none or the thread wrote within the read-after-write window.
+     * @param persistenceUnit persistence unit name
+     * @return entity manager factory
+     */
+    static EntityManagerFactory getReadEntityManagerFactory(String persistenceUnit) {
+        ReplicaSet replicas = getReplicaSet(persistenceUnit);
+        return Objects.isNull(replicas) || isRecentWrite(persistenceUnit)
+                ? getEntityManagerFactory(persistenceUnit) : replicas.next();
+    }
+
+    /**
+     * Executes a read with a short-lived EntityManager of the factory that serves the reads of the current thread.
+     * @param persistenceUnit persistence unit name
+     * @param reader read to be executed
+     * @param <R> result type
+     * @return result of the read
+     */
+    static <R> R read(String persistenceUnit, Function<EntityManager, R> reader) {
+        ReplicaSet replicas = getReplicaSet(persistenceUnit);
+        if (Objects.nonNull(replicas) && !isRecentWrite(persistenceUnit)) {
+            return replicas.read(reader);
+        }
+        EntityManager manager = getEntityManagerFactory(persistenceUnit).createEntityManager();
+        try {
+            return reader.apply(manager);
+        } finally {
+            manager.close();
         }
-        JSONObject dataSource = (JSONObject) dataSources.get(0);
-        return (String) dataSource.get(ConfigurationFileConstants.PERSISTENCE_UNIT);
     }
 
-    private static void createEntityManagerFactory(String persistenceUnit) {
-        FACTORIES.put(persistenceUnit, new PersistenceProvider()
-                .createEntityManagerFactory(persistenceUnit, getProperties(persistenceUnit)));
+    /**
+     * Records that the current thread committed a write, so its next reads go to the primary.
+     * @param persistenceUnit persistence unit name
+     */
+    static void recordWrite(String persistenceUnit) {
+        LAST_WRITES.get().put(persistenceUnit, System.nanoTime());
+    }
+
+    private static boolean isRecentWrite(String persistenceUnit) {
+        Long lastWrite = LAST_WRITES.get().get(persistenceUnit);
+        return Objects.nonNull(lastWrite) && System.nanoTime() - lastWrite
+                < TimeUnit.MILLISECONDS.toNanos(Properties.getDataSource(persistenceUnit).getReadAfterWriteWindow());
+    }
+
+    private static ReplicaSet getReplicaSet(String persistenceUnit) {
+        return getDeployment(persistenceUnit).getReplicas();
+    }
+
+    private static Deployment getDeployment(String persistenceUnit) {
+        // Look up first, computeIfAbsent may lock the bin even when the key is present
+        Deployment deployment = DEPLOYMENTS.get(persistenceUnit);
+        return Objects.nonNull(deployment) ? deployment
+                : DEPLOYMENTS.computeIfAbsent(persistenceUnit, Deployment::new);
     }
 
-    private static Map<String, String> getProperties(String persistenceUnit) {
-        JSONObject datasource = Properties.getDataSource(persistenceUnit);
-        Map<String, String> properties = new HashMap<>();
+    /**
+     * Gets the name of the database provider of the persistence unit, as defined in {@link DatabaseProvider}.
+     * @param persistenceUnit persistence unit name
+     * @return provider name or {@code null} if it can't be determined from the connection or the driver
+     */
+    static String getDatabaseProvider(String persistenceUnit) {
+        return Properties.getDataSource(persistenceUnit).getDatabaseProvider();
+    }
+
+    /**
+     * Gets the batch size configured for the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return batch size, {@link #DEFAULT_BATCH_SIZE} if it isn't configured
+     */
+    static int getBatchSize(String persistenceUnit) {
+        return Properties.getDataSource(persistenceUnit).getBatchSize();
+    }
+
+    /**
+     * Gets the maximum number of values bound in a single {@code IN} list for the database provider of the
+     * persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return number of values, {@link DBProvider#DEFAULT_MAX_PARAMETERS} if the provider is unknown
+     */
+    static int getMaxParameters(String persistenceUnit) {
+        String provider = getDatabaseProvider(persistenceUnit);
+        return Objects.isNull(provider) || !DatabaseProvider.PROVIDERS.containsKey(provider)
+                ? DBProvider.DEFAULT_MAX_PARAMETERS : DatabaseProvider.PROVIDERS.get(provider).getMaxParameters();
+    }
+
+    /**
+     * Gets the fetch size configured for the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return fetch size, {@link #DEFAULT_FETCH_SIZE} if it isn't configured
+     */
+    static int getFetchSize(String persistenceUnit) {
+        return Properties.getDataSource(persistenceUnit).getFetchSize();
+    }
+
+    /**
+     * Closes the factories whose data source changed or was removed, so the next access creates them with the new
+     * configuration. Work still running on a closed factory may fail.
+     * @param config new configuration
+     */
+    private static synchronized void onConfigurationChange(RostrumConfig config) {
+        DEPLOYMENTS.forEach((persistenceUnit, deployment) -> {
+            if (deployment.isChanged(config)) {
+                DEPLOYMENTS.remove(persistenceUnit, deployment);
+                deployment.close();
+            }
+        });
+    }
+
+    private static Map<String, Object> getProperties(DataSourceConfig datasource) {
+        Map<String, Object> properties = new HashMap<>();
         // Ensure RESOURCE_LOCAL transactions is used.
         properties.put(TRANSACTION_TYPE, PersistenceUnitTransactionType.RESOURCE_LOCAL.name());
-        // Internal connection pool
-        setDriver(datasource, properties);
-        setURL(datasource, properties);
-        setUser(datasource, properties);
-        setPassword(datasource, properties);
+        Map<String, String> connection = new HashMap<>();
+        setDriver(datasource, connection);
+        setURL(datasource, connection);
+        setUser(datasource, connection);
+        setPassword(datasource, connection);
+        DataSourceProvider provider = getDataSourceProvider(datasource);
+        if (Objects.nonNull(provider)) {
+            // External connection pool
+            DataSource dataSource = provider.createDataSource(datasource, Collections.unmodifiableMap(connection));
+            if (Objects.isNull(dataSource)) {
+                throw new DataSourceNotCreatedException(String.format("The data source provider of %s returned "
+                        + "no data source.", datasource.getPersistenceUnit()));
+            }
+            properties.put(NON_JTA_DATASOURCE, dataSource);
+        } else {
+            // Internal connection pool
+            properties.putAll(connection);
+            setPool(datasource.getPool(), properties);
+        }
+        if (Objects.nonNull(datasource.getPool())) {
+            // Open the pool when the factory is created instead of on the first access
+            properties.put(DEPLOY_ON_STARTUP, "true");
+        }
+        // Group inserts and updates in JDBC batches
+        properties.put(BATCH_WRITING, datasource.getBatchWriting());
+        properties.put(BATCH_WRITING_SIZE, String.valueOf(datasource.getBatchSize()));
+        // Bound statements can be reused with other values, instead of being parsed again by the database
+        properties.put(JDBC_BIND_PARAMETERS, String.valueOf(datasource.isBindParameters()));
+        properties.put(JDBC_FORCE_BIND_PARAMETERS, String.valueOf(datasource.isForceBindParameters()));
+        if (Objects.isNull(provider) && datasource.getStatementCacheSize() > 0) {
+            // Keep the prepared statements of each connection of the internal pool
+            properties.put(CACHE_STATEMENTS, "true");
+            properties.put(CACHE_STATEMENTS_SIZE, String.valueOf(datasource.getStatementCacheSize()));
+        }
         // Configure logging. FINE ensures all SQL is shown
         properties.put(LOGGING_LEVEL, "FINE");
         properties.put(LOGGING_TIMESTAMP, "false");
@@ -116,67 +423,312 @@ public class Factory {
         return properties;
     }
 
-    private static void setDriver(JSONObject datasource, Map<String, String> properties) {
+    /**
+     * Maps the pool section to the properties of the EclipseLink internal connection pools.
+     * @param pool pool configuration
+     * @param properties properties of the persistence unit
+     */
+    private static void setPool(@Nullable PoolConfig pool, Map<String, Object> properties) {
+        if (Objects.isNull(pool)) {
+            return;
+        }
+        // The keys without a pool name configure the default pool, which serves the writes
+        putIfPresent(properties, CONNECTION_POOL + CONNECTION_POOL_INITIAL, pool.getInitial());
+        putIfPresent(properties, CONNECTION_POOL + CONNECTION_POOL_MIN, pool.getMin());
+        putIfPresent(properties, CONNECTION_POOL + CONNECTION_POOL_MAX, pool.getMax());
+        putIfPresent(properties, CONNECTION_POOL + CONNECTION_POOL_WAIT, pool.getWait());
+        PoolConfig read = pool.getRead();
+        if (Objects.nonNull(read)) {
+            putIfPresent(properties, CONNECTION_POOL_READ + CONNECTION_POOL_INITIAL, read.getInitial());
+            putIfPresent(properties, CONNECTION_POOL_READ + CONNECTION_POOL_MIN, read.getMin());
+            putIfPresent(properties, CONNECTION_POOL_READ + CONNECTION_POOL_MAX, read.getMax());
+            putIfPresent(properties, CONNECTION_POOL_READ + CONNECTION_POOL_WAIT,
+                    Objects.isNull(read.getWait()) ? pool.getWait() : read.getWait());
+            putIfPresent(properties, CONNECTION_POOL_READ + CONNECTION_POOL_SHARED, read.getShared());
+        }
+    }
+
+    private static void putIfPresent(Map<String, Object> properties, String key, @Nullable Object value) {
+        if (Objects.nonNull(value)) {
+            properties.put(key, value.toString());
+        }
+    }
+
+    /**
+     * Gets the data source provider registered for the persistence unit or, if there is none, the one configured in
+     * its pool section.
+     * @param datasource data source configuration
+     * @return provider or {@code null} if the internal pool is used
+     * @throws DataSourceNotCreatedException if the configured class can't be instantiated
+     */
+    @Nullable
+    private static DataSourceProvider getDataSourceProvider(DataSourceConfig datasource) {
+        DataSourceProvider provider = PROVIDERS.get(datasource.getPersistenceUnit());
+        if (Objects.nonNull(provider) || Objects.isNull(datasource.getPool())
+                || Objects.isNull(datasource.getPool().getDataSourceProvider())) {
+            return provider;
+        }
+        String className = datasource.getPool().getDataSourceProvider();
+        try {
+            return (DataSourceProvider) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new DataSourceNotCreatedException(String.format("The data source provider %s can't be "
+                    + "instantiated.", className), e);
+        }
+    }
+
+    private static void closeDataSource(@Nullable DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                throw new DataSourceNotCreatedException("The data source couldn't be closed.", e);
+            }
+        }
+    }
+
+    private static void setDriver(DataSourceConfig datasource, Map<String, String> properties) {
         String driverClass;
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_DRIVER)) {
-            driverClass = (String) datasource.get(ConfigurationFileConstants.DATABASE_DRIVER);
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_DRIVER)) {
+            driverClass = datasource.getString(ConfigurationFileConstants.DATABASE_DRIVER);
         } else {
-            String dbConnection = (String) datasource.get(ConfigurationFileConstants.DATABASE_CONNECTION);
+            String dbConnection = datasource.getString(ConfigurationFileConstants.DATABASE_CONNECTION);
             driverClass = DatabaseProvider.getDatabaseProvider(dbConnection).getDriver();
         }
         DatabaseProvider.validateProvider(driverClass);
         properties.put(JDBC_DRIVER, driverClass);
     }
 
-    private static void setURL(JSONObject datasource, Map<String, String> properties) {
+    private static void setURL(DataSourceConfig datasource, Map<String, String> properties) {
         String url;
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_URL)) {
-            url = (String) datasource.get(ConfigurationFileConstants.DATABASE_URL);
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_URL)) {
+            url = datasource.getString(ConfigurationFileConstants.DATABASE_URL);
         } else {
-            String dbConnection = (String) datasource.get(ConfigurationFileConstants.DATABASE_CONNECTION);
+            String dbConnection = datasource.getString(ConfigurationFileConstants.DATABASE_CONNECTION);
             url = DatabaseProvider.getDatabaseProvider(dbConnection).getUrl();
             url = replaceHost(datasource, url);
             url = replacePort(datasource, url);
             url = replaceDatabase(datasource, url);
         }
+        DBProvider provider = Objects.isNull(datasource.getDatabaseProvider())
+                ? null : DatabaseProvider.PROVIDERS.get(datasource.getDatabaseProvider());
+        if (Objects.nonNull(provider)) {
+            url = provider.appendUrlParameters(url, datasource.getUrlParameters());
+        }
         properties.put(JDBC_URL, url);
     }
 
-    private static void setUser(JSONObject datasource, Map<String, String> properties) {
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_USER)) {
-            String user = (String) datasource.get(ConfigurationFileConstants.DATABASE_USER);
+    private static void setUser(DataSourceConfig datasource, Map<String, String> properties) {
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_USER)) {
+            String user = datasource.getString(ConfigurationFileConstants.DATABASE_USER);
             properties.put(JDBC_USER, user);
         }
     }
 
-    private static void setPassword(JSONObject datasource, Map<String, String> properties) {
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_PASSWORD)) {
-            String password = (String) datasource.get(ConfigurationFileConstants.DATABASE_PASSWORD);
+    private static void setPassword(DataSourceConfig datasource, Map<String, String> properties) {
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_PASSWORD)) {
+            String password = datasource.getString(ConfigurationFileConstants.DATABASE_PASSWORD);
             properties.put(JDBC_PASSWORD, password);
         }
     }
 
-    private static String replaceHost(JSONObject datasource, String url) {
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_HOST)) {
-            String host = (String) datasource.get(ConfigurationFileConstants.DATABASE_HOST);
+    private static String replaceHost(DataSourceConfig datasource, String url) {
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_HOST)) {
+            String host = datasource.getString(ConfigurationFileConstants.DATABASE_HOST);
             return url.replace("?host", host);
         }
         return url;
     }
 
-    private static String replacePort(JSONObject datasource, String url) {
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_PORT)) {
-            String port = (String) datasource.get(ConfigurationFileConstants.DATABASE_PORT);
+    private static String replacePort(DataSourceConfig datasource, String url) {
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_PORT)) {
+            String port = datasource.getString(ConfigurationFileConstants.DATABASE_PORT);
             return url.replace("?port", port);
         }
         return url;
     }
 
-    private static String replaceDatabase(JSONObject datasource, String url) {
-        if (datasource.containsKey(ConfigurationFileConstants.DATABASE_NAME)) {
-            String database = (String) datasource.get(ConfigurationFileConstants.DATABASE_NAME);
+    private static String replaceDatabase(DataSourceConfig datasource, String url) {
+        if (datasource.contains(ConfigurationFileConstants.DATABASE_NAME)) {
+            String database = datasource.getString(ConfigurationFileConstants.DATABASE_NAME);
             return url.replace("?database", database);
         }
         return url;
     }
-}
\ No newline at end of file
+
+    /**
+     * Entity manager factories of a persistence unit, its replicas and the data sources they use. They are created
+     * on the first access, holding only the lock of the unit.
+     */
+    private static final class Deployment {
+
+        private final String persistenceUnit;
+        private final Map<DataSource, DataSourceConfig> dataSources = new LinkedHashMap<>();
+        private final List<EntityManagerFactory> replicaFactories = new ArrayList<>();
+        private volatile EntityManagerFactory factory;
+        private DataSourceConfig datasource;
+        private ReplicaSet replicas;
+
+        private Deployment(String persistenceUnit) {
+            this.persistenceUnit = persistenceUnit;
+        }
+
+        EntityManagerFactory getFactory() {
+            EntityManagerFactory current = factory;
+            if (Objects.isNull(current)) {
+                synchronized (this) {
+                    if (Objects.isNull(factory)) {
+                        deploy();
+                    }
+                    current = factory;
+                }
+            }
+            return current;
+        }
+
+        @Nullable
+        ReplicaSet getReplicas() {
+            // Reading the volatile factory first publishes the fields written before it
+            getFactory();
+            return replicas;
+        }
+
+        private void deploy() {
+            DataSourceConfig config = Properties.getDataSource(persistenceUnit);
+            List<EntityManagerFactory> created = new ArrayList<>();
+            try {
+                created.add(deploy(config, Collections.emptyMap()));
+                List<DataSourceConfig> replicaConfigs = config.getReplicas();
+                for (int i = 0; i < replicaConfigs.size(); i++) {
+                    Map<String, Object> overrides = new HashMap<>();
+                    // Each replica needs its own session
+                    overrides.put(SESSION_NAME, persistenceUnit + "-replica-" + i);
+                    // Replicas are read-only, and a cache of their own could serve rows older than the primary
+                    overrides.put(DDL_GENERATION, NONE);
+                    overrides.put(CACHE_SHARED_DEFAULT, "false");
+                    created.add(deploy(replicaConfigs.get(i), overrides));
+                }
+            } catch (RuntimeException e) {
+                created.forEach(EntityManagerFactory::close);
+                dataSources.keySet().forEach(Factory::closeDataSource);
+                dataSources.clear();
+                throw e;
+            }
+            replicaFactories.addAll(created.subList(1, created.size()));
+            replicas = replicaFactories.isEmpty() ? null
+                    : new ReplicaSet(replicaFactories, config.getReplicaBalancing());
+            datasource = config;
+            factory = created.get(0);
+        }
+
+        /**
+         * Creates an entity manager factory for the persistence unit connected to the data source.
+         * @param config data source configuration
+         * @param overrides properties that replace the ones resolved from the data source
+         * @return entity manager factory
+         */
+        private EntityManagerFactory deploy(DataSourceConfig config, Map<String, Object> overrides) {
+            Map<String, Object> properties = getProperties(config);
+            properties.putAll(overrides);
+            DataSource dataSource = (DataSource) properties.get(NON_JTA_DATASOURCE);
+            try {
+                EntityManagerFactory created = new PersistenceProvider()
+                        .createEntityManagerFactory(persistenceUnit, properties);
+                if (Objects.nonNull(dataSource)) {
+                    dataSources.put(dataSource, config);
+                }
+                return created;
+            } catch (RuntimeException e) {
+                closeDataSource(dataSource);
+                throw e;
+            }
+        }
+
+        /**
+         * Logs in the sessions of the primary and the replicas, which opens the initial connections of the internal
+         * pools, and opens the minimum connections of the external data sources.
+         */
+        void connect() {
+            List<EntityManagerFactory> factories = new ArrayList<>();
+            factories.add(getFactory());
+            factories.addAll(replicaFactories);
+            factories.forEach(created -> created.unwrap(JpaEntityManagerFactory.class).getServerSession());
+            Map<DataSource, DataSourceConfig> pools;
+            synchronized (this) {
+                pools = new LinkedHashMap<>(dataSources);
+            }
+            pools.forEach((dataSource, config) -> {
+                PoolConfig pool = config.getPool();
+                if (Objects.nonNull(pool) && Objects.nonNull(pool.getMin())) {
+                    open(dataSource, pool.getMin());
+                }
+            });
+        }
+
+        /**
+         * Resolves the metadata Rostrum keeps for each entity of {@code entity-package}, or of the whole persistence
+         * unit if it isn't configured, and parses the query that lists it.
+         */
+        void resolveMetadata() {
+            EntityManagerFactory current = getFactory();
+            List<String> packages = datasource.getEntityPackages();
+            EntityManager manager = current.createEntityManager();
+            try {
+                for (EntityType<?> entity : current.getMetamodel().getEntities()) {
+                    Class<?> clazz = entity.getJavaType();
+                    if (packages.isEmpty()
+                            || packages.stream().anyMatch(name -> clazz.getName().startsWith(name + "."))) {
+                        EntityMetadata.of(clazz);
+                        manager.createQuery("SELECT e FROM " + entity.getName() + " e", clazz);
+                    }
+                }
+            } finally {
+                manager.close();
+            }
+        }
+
+        /**
+         * Validates if the persistence unit was deployed with a data source that isn't in the new configuration.
+         * @param config new configuration
+         * @return validation result
+         */
+        synchronized boolean isChanged(RostrumConfig config) {
+            return Objects.nonNull(datasource) && config.getDataSources().stream().noneMatch(datasource::equals);
+        }
+
+        synchronized void close() {
+            if (Objects.nonNull(factory) && factory.isOpen()) {
+                factory.close();
+            }
+            if (Objects.nonNull(replicas)) {
+                replicas.close();
+            }
+            dataSources.keySet().forEach(Factory::closeDataSource);
+            dataSources.clear();
+        }
+
+        /**
+         * Opens and releases the connections at once, so that the pool keeps them open.
+         * @param dataSource pooled data source
+         * @param connections number of connections
+         */
+        private static void open(DataSource dataSource, int connections) {
+            List<Connection> opened = new ArrayList<>(connections);
+            try {
+                for (int i = 0; i < connections; i++) {
+                    opened.add(dataSource.getConnection());
+                }
+            } catch (SQLException e) {
+                throw new PersistenceException("The connections of the pool couldn't be opened.", e);
+            } finally {
+                for (Connection connection : opened) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.WARNING, "A connection of the pool couldn't be released.", e);
+                    }
+                }
+            }
+        }
+    }
+}
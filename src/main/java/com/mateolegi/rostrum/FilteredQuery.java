@@ -1,22 +1,72 @@
 package com.mateolegi.rostrum;
 
+import com.mateolegi.rostrum.exception.NoIdFoundException;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.config.ResultType;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.databaseaccess.BindCallCustomParameter;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.internal.databaseaccess.Platform;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.jpa.JpaCriteriaBuilder;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.platform.database.DB2Platform;
+import org.eclipse.persistence.platform.database.H2Platform;
+import org.eclipse.persistence.platform.database.MySQLPlatform;
+import org.eclipse.persistence.platform.database.OraclePlatform;
+import org.eclipse.persistence.platform.database.PostgreSQLPlatform;
+import org.eclipse.persistence.platform.database.SQLServerPlatform;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Predicate;
-import javax.persistence.criteria.Root;
-import java.util.Map;
-import java.util.Objects;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="https://mateolegi.github.io"> Mateo Leal </a>
  */
 public class FilteredQuery {
 
+    /**
+     * Key of the filters map with the attributes the results are sorted by, separated by commas or in a collection.
+     * An attribute preceded by {@code -} is sorted in descending order, as in {@code "lastName,-age"}.
+     */
+    public static final String SORT = "_sort";
+    /**
+     * Key of the filters map with the maximum number of results.
+     */
+    public static final String LIMIT = "_limit";
+
+    private static final ConcurrentMap<Class<?>, Map<String, Class<?>>> ATTRIBUTES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<Object>, FilterTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<Object>, CachedCount> COUNTS = new ConcurrentHashMap<>();
+    private static final long COUNT_TTL = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_CACHED_COUNTS = 1000;
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+
     @Contract(" -> fail")
     private FilteredQuery() {
         throw new AssertionError("There are no instances for you!");
@@ -25,26 +75,597 @@ public class FilteredQuery {
     /**
      * Create a {@code TypedQuery} filtered with the parameters sent in the {@code map}.
      * In the case that one of the parameters is not recognized, it will be omitted. <br>
+     * The query of each entity and set of filters is built once and registered as a named query, whose values are
+     * bound as parameters, so the SQL is only generated once and the database can reuse its plan. The values are
+     * converted to the type of their attribute, and a {@code null} value matches the rows where the attribute is
+     * null. <br>
      * The structure of the map is as follows:
      * <ul>
-     *     <li> key: name of the attribute as it is in the entity. </li>
-     *     <li> value: object with the value to be compared. </li>
+     *     <li> key: name of the attribute as it is in the entity, optionally followed by {@code __} and one of the
+     *     operators {@code eq}, {@code ne}, {@code gt}, {@code gte}, {@code lt}, {@code lte}, {@code in},
+     *     {@code notIn}, {@code startsWith}, {@code endsWith}, {@code contains} or {@code isNull}, as in
+     *     {@code age__gte}. </li>
+     *     <li> value: object with the value to be compared; a collection, an array or a text separated by commas
+     *     for {@code in} and {@code notIn}, and a boolean for {@code isNull}. </li>
      * </ul>
+     * The {@link #SORT} and {@link #LIMIT} keys sort the results and limit their number in the database.
      * @param <T> class of the consulted entity
      * @param clazz class of the consulted entity
      * @param entityManager entity manager
      * @param queryParams parameter to make the filter
      * @return query with applied filters
-     * @throws IllegalArgumentException if EntityManager is null
+     * @throws IllegalArgumentException if EntityManager is null, an operator doesn't exist, a value can't be
+     * converted to the type of its attribute, or a sort attribute or the limit are not valid
      */
     public static <T> TypedQuery<T> createFilteredQuery(Class<T> clazz,
                                                     @NotNull("EntityManager can't be null") EntityManager entityManager,
                                                         Map<String, Object> queryParams) {
+        Map<String, Class<?>> attributes = getAttributes(clazz, entityManager.getMetamodel().entity(clazz));
+        List<AttributeFilter> filters = AttributeFilter.parse(clazz, attributes, queryParams, false);
+        List<String> sort = getSort(clazz, attributes.keySet(), queryParams.get(SORT));
+        TypedQuery<T> query = getTemplate(clazz, filters, sort, false)
+                .createQuery(clazz, clazz, entityManager, filters);
+        Integer limit = getLimit(queryParams.get(LIMIT));
+        return Objects.isNull(limit) ? query : query.setMaxResults(limit);
+    }
+
+    /**
+     * Reads a page of the entities filtered and sorted as {@link #createFilteredQuery} does, skipping {@code offset}
+     * rows, together with the exact total number of rows of the filtered query.
+     * @param <T> class of the consulted entity
+     * @param clazz class of the consulted entity
+     * @param entityManager entity manager
+     * @param queryParams parameter to make the filter
+     * @param offset number of rows skipped
+     * @param size maximum number of entities in the page
+     * @return page of entities with the total
+     * @throws IllegalArgumentException if the offset is negative, the size is less than one or a filter is not valid
+     * @see #createPagedQuery(Class, EntityManager, Map, int, int, boolean)
+     */
+    public static <T> PagedResult<T> createPagedQuery(Class<T> clazz,
+                                                   @NotNull("EntityManager can't be null") EntityManager entityManager,
+                                                      Map<String, Object> queryParams, int offset, int size) {
+        return createPagedQuery(clazz, entityManager, queryParams, offset, size, true);
+    }
+
+    /**
+     * Reads a page of the entities filtered and sorted as {@link #createFilteredQuery} does, skipping {@code offset}
+     * rows, together with the total number of rows of the filtered query, so the filter is not run twice by hand.
+     * <br>
+     * On PostgreSQL, Oracle, SQL Server, DB2 and H2 the exact total is read in the same statement as the page with
+     * {@code COUNT(*) OVER()}. Elsewhere, or when the page is past the last row, the rows are counted by another
+     * query, whose result is reused for ten seconds by the requests with the same filters. The total of a page that
+     * isn't full is known without counting. <br>
+     * When {@code exactCount} is {@code false}, the total is estimated by PostgreSQL and MySQL from the statistics of
+     * the table or the plan of the query, and counted on the other databases.
+     * @param <T> class of the consulted entity
+     * @param clazz class of the consulted entity
+     * @param entityManager entity manager
+     * @param queryParams parameter to make the filter
+     * @param offset number of rows skipped
+     * @param size maximum number of entities in the page
+     * @param exactCount whether the total must be counted or can be estimated
+     * @return page of entities with the total
+     * @throws IllegalArgumentException if the offset is negative, the size is less than one or a filter is not valid
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PagedResult<T> createPagedQuery(Class<T> clazz,
+                                                   @NotNull("EntityManager can't be null") EntityManager entityManager,
+                                                      Map<String, Object> queryParams, int offset, int size,
+                                                      boolean exactCount) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset can't be negative.");
+        } else if (size < 1) {
+            throw new IllegalArgumentException("The page size must be greater than zero.");
+        }
+        Map<String, Class<?>> attributes = getAttributes(clazz, entityManager.getMetamodel().entity(clazz));
+        List<AttributeFilter> filters = AttributeFilter.parse(clazz, attributes, queryParams, false);
+        List<String> sort = getSort(clazz, attributes.keySet(), queryParams.get(SORT));
+        AbstractSession session = entityManager.unwrap(JpaEntityManager.class).getAbstractSession();
+        List<T> content;
+        Long total = null;
+        if (exactCount && supportsWindowFunctions(session.getPlatform())) {
+            List<Object[]> rows = getTemplate(clazz, filters, sort, true)
+                    .createQuery(Object[].class, clazz, entityManager, filters)
+                    .setFirstResult(offset).setMaxResults(size).getResultList();
+            content = rows.stream().map(row -> (T) row[0]).collect(Collectors.toList());
+            total = rows.isEmpty() ? null : ((Number) rows.get(0)[1]).longValue();
+        } else {
+            content = getTemplate(clazz, filters, sort, false).createQuery(clazz, clazz, entityManager, filters)
+                    .setFirstResult(offset).setMaxResults(size).getResultList();
+        }
+        if (Objects.isNull(total) && content.size() < size && (offset == 0 || !content.isEmpty())) {
+            total = (long) offset + content.size();
+        }
+        if (Objects.nonNull(total)) {
+            return new PagedResult<>(content, offset, total, true);
+        } else if (!exactCount) {
+            Long estimate = filters.isEmpty() ? getTableStatistics(clazz, entityManager) : null;
+            if (Objects.isNull(estimate) || estimate <= 0) {
+                estimate = getPlanEstimate(session, entityManager, getTemplate(clazz, filters, sort, false)
+                        .createQuery(clazz, clazz, entityManager, filters));
+            }
+            if (Objects.nonNull(estimate)) {
+                return new PagedResult<>(content, offset, Math.max(estimate, (long) offset + content.size()), false);
+            }
+        }
+        return new PagedResult<>(content, offset, countCached(clazz, entityManager, filters), true);
+    }
+
+    /**
+     * Create a {@code DELETE} query of the entities filtered with the parameters sent in the {@code map}, with the
+     * same structure used by {@link #createFilteredQuery}. Unlike it, an attribute that is not recognized is not
+     * omitted, because that would widen the rows affected by the statement, and the {@link #SORT} and
+     * {@link #LIMIT} keys are not supported; a {@code null} value matches the rows where the attribute is null.
+     * @param <T> class of the entity
+     * @param clazz class of the entity
+     * @param entityManager entity manager
+     * @param queryParams parameter to make the filter
+     * @return query to be executed with {@link Query#executeUpdate()}
+     * @throws IllegalArgumentException if one of the attributes or operators doesn't exist, or a value can't be
+     * converted to the type of its attribute
+     */
+    public static <T> Query createFilteredDelete(Class<T> clazz,
+                                                 @NotNull("EntityManager can't be null") EntityManager entityManager,
+                                                 @NotNull("Query params can't be null") Map<String, Object> queryParams) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<T> delete = builder.createCriteriaDelete(clazz);
+        Root<T> from = delete.from(clazz);
+        Map<ParameterExpression<?>, Object> bindings = new HashMap<>();
+        delete.where(strictFilter(from, builder, queryParams, bindings));
+        return withoutBatching(bind(entityManager.createQuery(delete), bindings));
+    }
+
+    /**
+     * Create an {@code UPDATE} query of the entities filtered with the parameters sent in the {@code map}, as
+     * {@link #createFilteredDelete} does, that assigns the values sent in the {@code values} map.
+     * @param <T> class of the entity
+     * @param clazz class of the entity
+     * @param entityManager entity manager
+     * @param queryParams parameter to make the filter
+     * @param values new values, by attribute name
+     * @return query to be executed with {@link Query#executeUpdate()}
+     * @throws IllegalArgumentException if one of the attributes or operators doesn't exist, or a value can't be
+     * converted to the type of its attribute
+     */
+    public static <T> Query createFilteredUpdate(Class<T> clazz,
+                                                 @NotNull("EntityManager can't be null") EntityManager entityManager,
+                                                 @NotNull("Query params can't be null") Map<String, Object> queryParams,
+                                                 @NotNull("Values can't be null") Map<String, Object> values) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(clazz);
+        Root<T> from = update.from(clazz);
+        values.forEach((attribute, value) -> update.set(getPath(from, attribute), value));
+        Map<ParameterExpression<?>, Object> bindings = new HashMap<>();
+        update.where(strictFilter(from, builder, queryParams, bindings));
+        return withoutBatching(bind(entityManager.createQuery(update), bindings));
+    }
+
+    /**
+     * Reads a page of the entities filtered with the parameters sent in the {@code map}, as
+     * {@link #createFilteredQuery} does, using keyset pagination: the rows are sorted by the requested attribute and
+     * the id, and the page starts right after the row where the previous page ended, so the {@link #SORT} and
+     * {@link #LIMIT} keys of the map are ignored. <br>
+     * One row more than the page size is fetched to know if there is a next page.
+     * @param <T> class of the consulted entity
+     * @param clazz class of the consulted entity
+     * @param entityManager entity manager
+     * @param queryParams parameter to make the filter
+     * @param pageRequest requested page
+     * @return page of entities
+     * @throws NoIdFoundException if the entity has no field or method with the {@code Id} annotation
+     * @throws IllegalArgumentException if the sort attribute doesn't exist or the continuation token doesn't belong
+     * to a query with the same sort
+     */
+    public static <T> Page<T> findPage(Class<T> clazz,
+                                       @NotNull("EntityManager can't be null") EntityManager entityManager,
+                                       Map<String, Object> queryParams,
+                                       @NotNull("Page request can't be null") PageRequest pageRequest) {
+        String idAttribute = EntityMetadata.of(clazz).getIdAttribute();
+        if (Objects.isNull(idAttribute)) {
+            throw new NoIdFoundException("The entity has no field or method with the Id annotation.");
+        }
+        String sortAttribute = getSortAttribute(idAttribute, pageRequest);
+        List<String> keys = getKeys(idAttribute, sortAttribute);
+        boolean descending = pageRequest.isDescending();
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<T> query = builder.createQuery(clazz);
         Root<T> from = query.from(clazz);
-        query.select(from).where(filter(from, builder, queryParams));
-        return entityManager.createQuery(query);
+        List<AttributeFilter> filters = AttributeFilter.parse(clazz, getAttributes(clazz, from.getModel()),
+                queryParams, false);
+        Map<ParameterExpression<?>, Object> bindings = new HashMap<>();
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(filter(from, builder, filters, bindings)));
+        if (Objects.nonNull(pageRequest.getToken())) {
+            ContinuationToken token = ContinuationToken.decode(pageRequest.getToken());
+            if (!token.getSortAttribute().equals(sortAttribute) || token.isDescending() != descending
+                    || token.size() != keys.size()) {
+                throw new IllegalArgumentException("The continuation token belongs to a query with another sort.");
+            }
+            predicates.add(seek(from, builder, keys, token, descending));
+        }
+        query.select(from)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(keys.stream()
+                        .map(key -> descending ? builder.desc(from.get(key)) : builder.asc(from.get(key)))
+                        .collect(Collectors.toList()));
+        int size = pageRequest.getSize();
+        List<T> rows = bind(entityManager.createQuery(query), bindings).setMaxResults(size + 1).getResultList();
+        String nextToken = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            ClassDescriptor descriptor = getDescriptor(clazz, entityManager);
+            T last = rows.get(size - 1);
+            nextToken = ContinuationToken.encode(sortAttribute, descending, keys.stream()
+                    .map(key -> descriptor.getMappingForAttributeName(key).getAttributeValueFromObject(last))
+                    .collect(Collectors.toList()));
+        }
+        Long countEstimate = pageRequest.isCountEstimated() ? estimateCount(clazz, entityManager, filters) : null;
+        return new Page<>(rows, nextToken, countEstimate);
+    }
+
+    /**
+     * Merges the pages read with the same request from each shard of the entity into the page that a single database
+     * would return: the rows of all the pages are sorted by the keys of the request and only the first ones are kept.
+     * The count estimate is the sum of the estimates of the shards.
+     * @param <T> class of the consulted entity
+     * @param clazz class of the consulted entity
+     * @param pages page of each shard
+     * @param pageRequest requested page
+     * @return merged page
+     * @throws NoIdFoundException if the entity has no field or method with the {@code Id} annotation
+     * @throws IllegalArgumentException if the sort attribute doesn't exist
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> Page<T> mergePages(Class<T> clazz, List<Page<T>> pages,
+                                  @NotNull("Page request can't be null") PageRequest pageRequest) {
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        String idAttribute = metadata.getIdAttribute();
+        if (Objects.isNull(idAttribute)) {
+            throw new NoIdFoundException("The entity has no field or method with the Id annotation.");
+        }
+        String sortAttribute = getSortAttribute(idAttribute, pageRequest);
+        List<PropertyAccessor> accessors = new ArrayList<>();
+        for (String key : getKeys(idAttribute, sortAttribute)) {
+            PropertyAccessor accessor = key.equals(idAttribute) ? metadata.getIdAccessor() : metadata.getAccessor(key);
+            if (Objects.isNull(accessor)) {
+                throw new IllegalArgumentException(String.format("The %s attribute doesn't exist in %s.", key,
+                        clazz.getSimpleName()));
+            }
+            accessors.add(accessor);
+        }
+        Comparator<T> comparator = null;
+        for (PropertyAccessor accessor : accessors) {
+            Comparator<T> byKey = Comparator.comparing(row -> (Comparable) accessor.get(row),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = Objects.isNull(comparator) ? byKey : comparator.thenComparing(byKey);
+        }
+        List<T> rows = pages.stream().flatMap(page -> page.getContent().stream()).collect(Collectors.toList());
+        rows.sort(pageRequest.isDescending() ? comparator.reversed() : comparator);
+        int size = pageRequest.getSize();
+        String nextToken = null;
+        if (rows.size() > size || pages.stream().anyMatch(Page::hasNext)) {
+            rows = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+            T last = rows.get(rows.size() - 1);
+            nextToken = ContinuationToken.encode(sortAttribute, pageRequest.isDescending(), accessors.stream()
+                    .map(accessor -> accessor.get(last))
+                    .collect(Collectors.toList()));
+        }
+        Long countEstimate = pages.stream().anyMatch(page -> Objects.nonNull(page.getCountEstimate()))
+                ? pages.stream().map(Page::getCountEstimate).filter(Objects::nonNull).mapToLong(Long::longValue).sum()
+                : null;
+        return new Page<>(rows, nextToken, countEstimate);
+    }
+
+    /**
+     * Merges the results read with the same filters from each shard of the entity into the results that a single
+     * database would return, applying the {@link #SORT} and {@link #LIMIT} keys of the filters to the rows of all
+     * the shards.
+     * @param <T> class of the consulted entity
+     * @param clazz class of the consulted entity
+     * @param results results of each shard
+     * @param queryParams parameter used to make the filter
+     * @return merged results
+     * @throws IllegalArgumentException if a sort attribute or the limit are not valid
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> List<T> mergeResults(Class<T> clazz, List<List<T>> results, Map<String, Object> queryParams) {
+        List<T> rows = results.stream().flatMap(List::stream).collect(Collectors.toList());
+        Comparator<T> comparator = null;
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        for (String key : getSort(clazz, null, queryParams.get(SORT))) {
+            boolean descending = key.startsWith("-");
+            PropertyAccessor accessor = metadata.getAccessor(descending ? key.substring(1) : key);
+            Comparator<T> byKey = Comparator.comparing(row -> (Comparable) accessor.get(row),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            byKey = descending ? byKey.reversed() : byKey;
+            comparator = Objects.isNull(comparator) ? byKey : comparator.thenComparing(byKey);
+        }
+        if (Objects.nonNull(comparator)) {
+            rows.sort(comparator);
+        }
+        Integer limit = getLimit(queryParams.get(LIMIT));
+        return Objects.isNull(limit) || rows.size() <= limit ? rows : new ArrayList<>(rows.subList(0, limit));
+    }
+
+    /**
+     * Gets the attributes of the {@link #SORT} key, preceded by {@code -} if they are sorted in descending order.
+     * @param clazz entity class
+     * @param attributes attribute names of the entity, or {@code null} if they were already validated
+     * @param value value of the key
+     * @return sort attributes
+     * @throws IllegalArgumentException if an attribute doesn't exist
+     */
+    private static List<String> getSort(Class<?> clazz, @Nullable Set<String> attributes, @Nullable Object value) {
+        if (Objects.isNull(value)) {
+            return Collections.emptyList();
+        }
+        List<String> sort = new ArrayList<>();
+        for (Object item : value instanceof Collection ? (Collection<?>) value
+                : Arrays.asList(value.toString().split(","))) {
+            String key = String.valueOf(item).trim();
+            boolean descending = key.startsWith("-");
+            String attribute = descending || key.startsWith("+") ? key.substring(1) : key;
+            if (attribute.isEmpty()) {
+                continue;
+            } else if (Objects.nonNull(attributes) && !attributes.contains(attribute)) {
+                throw new IllegalArgumentException(String.format("The %s attribute doesn't exist in %s.", attribute,
+                        clazz.getSimpleName()));
+            }
+            sort.add(descending ? '-' + attribute : attribute);
+        }
+        return sort;
+    }
+
+    /**
+     * Gets the maximum number of results of the {@link #LIMIT} key.
+     * @param value value of the key
+     * @return limit or {@code null} if there isn't one
+     * @throws IllegalArgumentException if the limit is not a number greater than or equal to zero
+     */
+    @Nullable
+    private static Integer getLimit(@Nullable Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        int limit;
+        try {
+            limit = Converters.toInt(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("The limit %s is not a number.", value), e);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException(String.format("The limit %d can't be negative.", limit));
+        }
+        return limit;
+    }
+
+    private static String getSortAttribute(String idAttribute, PageRequest pageRequest) {
+        return Objects.isNull(pageRequest.getSortAttribute()) ? idAttribute : pageRequest.getSortAttribute();
+    }
+
+    /**
+     * Gets the attributes the rows are sorted by: the sort attribute and the id, which makes the order unique.
+     */
+    private static List<String> getKeys(String idAttribute, String sortAttribute) {
+        return sortAttribute.equals(idAttribute)
+                ? Collections.singletonList(idAttribute) : Arrays.asList(sortAttribute, idAttribute);
+    }
+
+    /**
+     * Applies the filters sent to a statement, failing on the attributes that don't exist.
+     * @param <T> entity type
+     * @param from entity reference
+     * @param builder object used to build the query
+     * @param queryParams parameters for the filter
+     * @param bindings map where the values of the parameters of the filters are put
+     * @return filters
+     * @throws IllegalArgumentException if one of the attributes or operators doesn't exist
+     */
+    @NotNull
+    private static <T> Predicate[] strictFilter(Root<T> from, CriteriaBuilder builder, Map<String, Object> queryParams,
+                                                Map<ParameterExpression<?>, Object> bindings) {
+        return filter(from, builder, AttributeFilter.parse(from.getJavaType(),
+                getAttributes(from.getJavaType(), from.getModel()), queryParams, true), bindings);
+    }
+
+    /**
+     * Binds the values of the parameters of the filters to the query. Binding is forced because EclipseLink prints
+     * the values inline in statements with {@code LIKE ... ESCAPE}, which would make one statement for each value.
+     * @param <Q> query type
+     * @param query query
+     * @param bindings values by parameter
+     * @return the same query
+     */
+    @SuppressWarnings("unchecked")
+    private static <Q extends Query> Q bind(Q query, Map<ParameterExpression<?>, Object> bindings) {
+        bindings.forEach((parameter, value) -> query.setParameter((Parameter<Object>) parameter, value));
+        query.setHint(QueryHints.BIND_PARAMETERS, HintValues.TRUE);
+        return query;
+    }
+
+    /**
+     * Excludes the statement from JDBC batch writing, which would otherwise report one affected row for it.
+     * @param query update or delete query
+     * @return the same query
+     */
+    private static Query withoutBatching(Query query) {
+        DatabaseQuery databaseQuery = query.unwrap(JpaQuery.class).getDatabaseQuery();
+        if (databaseQuery instanceof ModifyQuery) {
+            ((ModifyQuery) databaseQuery).setIsBatchExecutionSupported(false);
+        }
+        return query;
+    }
+
+    private static <T> Path<Object> getPath(Root<T> from, String attribute) {
+        try {
+            return from.get(attribute);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("The %s attribute doesn't exist in %s.", attribute,
+                    from.getJavaType().getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Builds the condition that selects the rows after the position of the token:
+     * {@code k1 > v1 OR (k1 = v1 AND k2 > v2)}, with {@code <} for descending order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate seek(Root<T> from, CriteriaBuilder builder, List<String> keys,
+                                      ContinuationToken token, boolean descending) {
+        List<Predicate> alternatives = new ArrayList<>(keys.size());
+        List<Predicate> equalities = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Path<Comparable> path = from.get(keys.get(i));
+            Comparable value = (Comparable) token.getKey(i, path.getJavaType());
+            List<Predicate> alternative = new ArrayList<>(equalities);
+            alternative.add(descending ? builder.lessThan(path, value) : builder.greaterThan(path, value));
+            alternatives.add(builder.and(alternative.toArray(new Predicate[0])));
+            equalities.add(builder.equal(path, value));
+        }
+        return builder.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Estimates the number of rows of the filtered query. Unfiltered queries use the statistics of the table in
+     * PostgreSQL and MySQL, which don't require reading it; otherwise the rows are counted.
+     */
+    private static <T> long estimateCount(Class<T> clazz, EntityManager entityManager, List<AttributeFilter> filters) {
+        if (filters.isEmpty()) {
+            Long statistics = getTableStatistics(clazz, entityManager);
+            if (Objects.nonNull(statistics) && statistics > 0) {
+                return statistics;
+            }
+        }
+        return countRows(clazz, entityManager, filters);
+    }
+
+    private static <T> long countRows(Class<T> clazz, EntityManager entityManager, List<AttributeFilter> filters) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> from = query.from(clazz);
+        Map<ParameterExpression<?>, Object> bindings = new HashMap<>();
+        query.select(builder.count(from)).where(filter(from, builder, filters, bindings));
+        return bind(entityManager.createQuery(query), bindings).getSingleResult();
+    }
+
+    /**
+     * Counts the rows of the filtered query, reusing the count of the same filters on the same database while it's
+     * younger than ten seconds.
+     */
+    private static <T> long countCached(Class<T> clazz, EntityManager entityManager, List<AttributeFilter> filters) {
+        List<Object> key = new ArrayList<>(2 + 2 * filters.size());
+        key.add(entityManager.getEntityManagerFactory());
+        key.add(clazz);
+        filters.forEach(filter -> {
+            key.add(filter.getShape());
+            key.add(filter.getValue());
+        });
+        CachedCount cached = COUNTS.get(key);
+        if (Objects.nonNull(cached) && !cached.isExpired(System.nanoTime())) {
+            return cached.count;
+        }
+        long count = countRows(clazz, entityManager, filters);
+        long now = System.nanoTime();
+        if (COUNTS.size() >= MAX_CACHED_COUNTS) {
+            COUNTS.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (COUNTS.size() < MAX_CACHED_COUNTS) {
+            COUNTS.put(key, new CachedCount(count, now + COUNT_TTL));
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of rows that the planner of PostgreSQL or MySQL expects the query to return.
+     * @return estimate or {@code null} if the database can't provide it
+     */
+    @Nullable
+    private static Long getPlanEstimate(AbstractSession session, EntityManager entityManager, Query query) {
+        boolean postgres = session.getPlatform() instanceof PostgreSQLPlatform;
+        if (!postgres && !(session.getPlatform() instanceof MySQLPlatform)) {
+            return null;
+        }
+        try {
+            DatabaseQuery databaseQuery = query.unwrap(JpaQuery.class).getDatabaseQuery();
+            DatabaseRecord row = new DatabaseRecord();
+            databaseQuery.getArguments().forEach(argument -> row.put(argument, query.getParameterValue(argument)));
+            databaseQuery.checkPrepare(session, row);
+            if (!(databaseQuery.getCall() instanceof DatabaseCall)) {
+                return null;
+            }
+            // The call is translated as it would be executed: with the bound values or with them printed inline
+            DatabaseCall call = (DatabaseCall) databaseQuery.getCall().clone();
+            call.translate(row, null, session);
+            Query explain = entityManager.createNativeQuery((postgres ? "EXPLAIN (FORMAT JSON) " : "EXPLAIN ")
+                    + call.getSQLString());
+            if (call.usesBinding(session)) {
+                List<?> parameters = call.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    if (parameters.get(i) instanceof BindCallCustomParameter) {
+                        return null;
+                    }
+                    explain.setParameter(i + 1, parameters.get(i));
+                }
+            }
+            if (postgres) {
+                Matcher matcher = PLAN_ROWS.matcher(String.valueOf(explain.getSingleResult()));
+                return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+            }
+            List<?> plan = explain.setHint(QueryHints.RESULT_TYPE, ResultType.Map).getResultList();
+            return plan.isEmpty() ? null : getMySQLEstimate((Map<?, ?>) plan.get(0));
+        } catch (PersistenceException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Long getMySQLEstimate(Map<?, ?> plan) {
+        Object rows = null;
+        Object filtered = null;
+        for (Map.Entry<?, ?> entry : plan.entrySet()) {
+            if ("rows".equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+                rows = entry.getValue();
+            } else if ("filtered".equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+                filtered = entry.getValue();
+            }
+        }
+        if (!(rows instanceof Number)) {
+            return null;
+        }
+        double percentage = filtered instanceof Number ? ((Number) filtered).doubleValue() : 100;
+        return Math.round(((Number) rows).doubleValue() * percentage / 100);
+    }
+
+    private static boolean supportsWindowFunctions(Platform platform) {
+        return platform instanceof PostgreSQLPlatform || platform instanceof OraclePlatform
+                || platform instanceof SQLServerPlatform || platform instanceof DB2Platform
+                || platform instanceof H2Platform;
+    }
+
+    @Nullable
+    private static <T> Long getTableStatistics(Class<T> clazz, EntityManager entityManager) {
+        AbstractSession session = entityManager.unwrap(JpaEntityManager.class).getAbstractSession();
+        DatabaseTable table = getDescriptor(clazz, entityManager).getDefaultTable();
+        List<?> result;
+        if (session.getPlatform() instanceof PostgreSQLPlatform) {
+            result = entityManager
+                    .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)")
+                    .setParameter(1, table.getQualifiedName())
+                    .getResultList();
+        } else if (session.getPlatform() instanceof MySQLPlatform) {
+            result = entityManager.createNativeQuery("SELECT table_rows FROM information_schema.tables "
+                    + "WHERE table_schema = COALESCE(?, DATABASE()) AND table_name = ?")
+                    .setParameter(1, table.getTableQualifier().isEmpty() ? null : table.getTableQualifier())
+                    .setParameter(2, table.getName())
+                    .getResultList();
+        } else {
+            return null;
+        }
+        return result.isEmpty() || Objects.isNull(result.get(0)) ? null : ((Number) result.get(0)).longValue();
+    }
+
+    private static ClassDescriptor getDescriptor(Class<?> clazz, EntityManager entityManager) {
+        return entityManager.unwrap(JpaEntityManager.class).getAbstractSession().getDescriptor(clazz);
     }
 
     /*
@@ -60,26 +681,131 @@ public class FilteredQuery {
     }*/
 
     /**
-     * Applies the filters sent to the query.
+     * Applies the filters sent to the query. The values are taken from parameters, which must be bound to the query
+     * with {@link #bind}.
      * @param <T> entity type
      * @param from entity reference
      * @param builder object used to build the query
-     * @param queryParams parameters for the filter
+     * @param filters parsed filters
+     * @param bindings map where the values of the parameters of the filters are put
      * @return fix with filters
-     * @throws IllegalArgumentException if queryParams is null
      */
     @NotNull
-    private static <T> Predicate[] filter(Root<T> from, CriteriaBuilder builder,
-                                          @NotNull("Query params can't be null") Map<String, Object> queryParams) {
-        return queryParams.entrySet().parallelStream()
-                .map(entry -> {
-                    try {
-                        return builder.equal(from.get(entry.getKey()), entry.getValue());
-                    } catch (IllegalArgumentException e) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .toArray(Predicate[]::new);
+    private static <T> Predicate[] filter(Root<T> from, CriteriaBuilder builder, List<AttributeFilter> filters,
+                                          Map<ParameterExpression<?>, Object> bindings) {
+        Predicate[] predicates = new Predicate[filters.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            AttributeFilter filter = filters.get(i);
+            Path<Object> path = from.get(filter.getAttribute());
+            ParameterExpression<?> parameter = null;
+            if (filter.hasParameter()) {
+                parameter = builder.parameter(filter.getParameterType(path.getJavaType()));
+                bindings.put(parameter, filter.getValue());
+            }
+            predicates[i] = filter.toPredicate(builder, path, parameter);
+        }
+        return predicates;
+    }
+
+    private static FilterTemplate getTemplate(Class<?> clazz, List<AttributeFilter> filters, List<String> sort,
+                                              boolean windowCount) {
+        List<String> shapes = filters.stream().map(AttributeFilter::getShape).collect(Collectors.toList());
+        return TEMPLATES.computeIfAbsent(Arrays.asList(clazz, shapes, sort, windowCount),
+                key -> new FilterTemplate(clazz, shapes, sort, windowCount));
+    }
+
+    /**
+     * Gets the types of the attributes of the entity, read from the metamodel once per class.
+     * @param clazz entity class
+     * @param type metamodel type of the entity
+     * @return attribute types, by attribute name
+     */
+    private static Map<String, Class<?>> getAttributes(Class<?> clazz, ManagedType<?> type) {
+        return ATTRIBUTES.computeIfAbsent(clazz, key -> Collections.unmodifiableMap(type.getAttributes().stream()
+                .collect(Collectors.toMap(Attribute::getName, Attribute::getJavaType))));
+    }
+
+    /**
+     * Filtered query of an entity for a set of filter shapes and a sort. The criteria query is built with a parameter
+     * for each filter value and registered as a named query in the session of each entity manager factory the first
+     * time it is used there; each call only binds the values. A template with window count selects each entity
+     * together with {@code COUNT(*) OVER()}.
+     */
+    private static final class FilterTemplate {
+
+        private final String name;
+        private final List<String> sort;
+        private final boolean windowCount;
+
+        private FilterTemplate(Class<?> clazz, List<String> shapes, List<String> sort, boolean windowCount) {
+            this.name = "FilteredQuery." + clazz.getName() + shapes + (sort.isEmpty() ? "" : "sort" + sort)
+                    + (windowCount ? "count" : "");
+            this.sort = Collections.unmodifiableList(new ArrayList<>(sort));
+            this.windowCount = windowCount;
+        }
+
+        <R> TypedQuery<R> createQuery(Class<R> resultClass, Class<?> clazz, EntityManager entityManager,
+                                      List<AttributeFilter> filters) {
+            EntityManagerFactory factory = entityManager.getEntityManagerFactory();
+            if (Objects.isNull(factory.unwrap(JpaEntityManagerFactory.class).getServerSession().getQuery(name))) {
+                // Registering the same query twice from two threads only replaces it with an equal one. Binding is
+                // forced because LIKE ... ESCAPE would otherwise print the values inline
+                factory.addNamedQuery(name, entityManager.createQuery(build(clazz, entityManager, filters))
+                        .setHint(QueryHints.BIND_PARAMETERS, HintValues.TRUE));
+            }
+            TypedQuery<R> query = entityManager.createNamedQuery(name, resultClass);
+            int index = 0;
+            for (AttributeFilter filter : filters) {
+                if (filter.hasParameter()) {
+                    query.setParameter(parameterName(index++), filter.getValue());
+                }
+            }
+            return query;
+        }
+
+        private <T> CriteriaQuery<Object> build(Class<T> clazz, EntityManager entityManager,
+                                                List<AttributeFilter> filters) {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Object> query = builder.createQuery();
+            Root<T> from = query.from(clazz);
+            Predicate[] predicates = new Predicate[filters.size()];
+            int index = 0;
+            for (int i = 0; i < predicates.length; i++) {
+                AttributeFilter filter = filters.get(i);
+                Path<Object> path = from.get(filter.getAttribute());
+                ParameterExpression<?> parameter = filter.hasParameter() ? builder.parameter(
+                        filter.getParameterType(path.getJavaType()), parameterName(index++)) : null;
+                predicates[i] = filter.toPredicate(builder, path, parameter);
+            }
+            if (windowCount) {
+                query.multiselect(from, ((JpaCriteriaBuilder) builder).fromExpression(new ExpressionBuilder()
+                        .sql("COUNT(*) OVER()", new ArrayList<>()), Long.class));
+            } else {
+                query.select(from);
+            }
+            return query.where(predicates).orderBy(sort.stream()
+                    .map(key -> key.startsWith("-")
+                            ? builder.desc(from.get(key.substring(1))) : builder.asc(from.get(key)))
+                    .collect(Collectors.toList()));
+        }
+
+        private static String parameterName(int index) {
+            return "p" + index;
+        }
+    }
+
+    private static final class CachedCount {
+
+        private final long count;
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
     }
-}
\ No newline at end of file
+}
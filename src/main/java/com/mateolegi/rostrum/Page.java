@@ -0,0 +1,53 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Page of entities returned by a keyset paginated query.
+ * @param <T> entity type
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ * @see PageRequest
+ */
+public final class Page<T> {
+
+    private final List<T> content;
+    private final String nextToken;
+    private final Long countEstimate;
+
+    Page(List<T> content, @Nullable String nextToken, @Nullable Long countEstimate) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextToken = nextToken;
+        this.countEstimate = countEstimate;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the opaque token that must be sent with {@link PageRequest#after(String)} to read the next page.
+     * @return continuation token or {@code null} if this is the last page
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return Objects.nonNull(nextToken);
+    }
+
+    /**
+     * Gets the estimated number of rows of the query, without pagination.
+     * @return estimate or {@code null} if it wasn't requested
+     */
+    @Nullable
+    public Long getCountEstimate() {
+        return countEstimate;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Request of a page of entities read with keyset pagination. Instead of skipping rows with an offset, each page
+ * starts right after the last row of the previous one, identified by the continuation token of that page, so reading
+ * a deep page costs the same as reading the first one. <br>
+ * Rows are sorted by the attribute annotated with {@code Id} unless another attribute is chosen; in that case the id
+ * is used to break ties. The sort attribute can't be null in any row.
+ * <pre>{@code
+ * Page<User> page = Rostrum.findPage(User.class, PageRequest.of(50).sortBy("createdAt"));
+ * Page<User> next = Rostrum.findPage(User.class, PageRequest.of(50).sortBy("createdAt").after(page.getNextToken()));
+ * }</pre>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class PageRequest {
+
+    private final int size;
+    private final String sortAttribute;
+    private final boolean descending;
+    private final String token;
+    private final boolean countEstimated;
+
+    private PageRequest(int size, String sortAttribute, boolean descending, String token, boolean countEstimated) {
+        this.size = size;
+        this.sortAttribute = sortAttribute;
+        this.descending = descending;
+        this.token = token;
+        this.countEstimated = countEstimated;
+    }
+
+    /**
+     * Creates a request of the first page, sorted ascending by id.
+     * @param size maximum number of entities in the page
+     * @return page request
+     * @throws IllegalArgumentException if size is less than one
+     */
+    @NotNull
+    public static PageRequest of(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The page size must be greater than zero.");
+        }
+        return new PageRequest(size, null, false, null, false);
+    }
+
+    /**
+     * Sorts the rows by the attribute instead of the id.
+     * @param attribute name of the attribute as it is in the entity
+     * @return new page request
+     */
+    @NotNull
+    public PageRequest sortBy(@NotNull("Attribute can't be null") String attribute) {
+        return new PageRequest(size, attribute, descending, token, countEstimated);
+    }
+
+    /**
+     * Sorts the rows in descending order.
+     * @return new page request
+     */
+    @NotNull
+    public PageRequest descending() {
+        return new PageRequest(size, sortAttribute, true, token, countEstimated);
+    }
+
+    /**
+     * Requests the page that follows the one that returned the token.
+     * @param token continuation token of the previous page, {@code null} for the first page
+     * @return new page request
+     */
+    @NotNull
+    public PageRequest after(@Nullable String token) {
+        return new PageRequest(size, sortAttribute, descending, token, countEstimated);
+    }
+
+    /**
+     * Also requests an estimate of the total number of rows. For unfiltered requests it is taken from the table
+     * statistics when the database provides them, otherwise the rows are counted.
+     * @return new page request
+     */
+    @NotNull
+    public PageRequest withCountEstimate() {
+        return new PageRequest(size, sortAttribute, descending, token, true);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the sort attribute.
+     * @return attribute name or {@code null} if rows are sorted by id
+     */
+    @Nullable
+    public String getSortAttribute() {
+        return sortAttribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Nullable
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isCountEstimated() {
+        return countEstimated;
+    }
+}
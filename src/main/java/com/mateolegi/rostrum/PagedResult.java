@@ -0,0 +1,58 @@
+package com.mateolegi.rostrum;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of entities read with an offset, together with the total number of rows of the query without pagination.
+ * @param <T> entity type
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ * @see FilteredQuery#createPagedQuery
+ */
+public final class PagedResult<T> {
+
+    private final List<T> content;
+    private final int offset;
+    private final long total;
+    private final boolean totalExact;
+
+    PagedResult(List<T> content, int offset, long total, boolean totalExact) {
+        this.content = Collections.unmodifiableList(content);
+        this.offset = offset;
+        this.total = total;
+        this.totalExact = totalExact;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the number of rows skipped before the page.
+     * @return offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the number of rows of the query without pagination.
+     * @return total, which is only an estimate if {@link #isTotalExact()} is {@code false}
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Validates if the total was counted instead of estimated by the database.
+     * @return validation result
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public boolean hasNext() {
+        return offset + content.size() < total;
+    }
+}
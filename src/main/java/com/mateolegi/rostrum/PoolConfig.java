@@ -0,0 +1,137 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
+
+/**
+ * Immutable configuration of the connection pool of a data source, taken from its {@code pool} section. The
+ * {@code read} section configures the pool of the connections used for reads with the same attributes.
+ * <pre>{@code
+ * "pool": {
+ *   "min": 8, "max": 32, "wait": 5000,
+ *   "read": { "min": 4, "max": 16 },
+ *   "data-source-provider": "com.example.HikariDataSourceProvider"
+ * }
+ * }</pre>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class PoolConfig {
+
+    private final Map<String, Object> properties;
+    private final Integer initial;
+    private final Integer min;
+    private final Integer max;
+    private final Integer wait;
+    private final Boolean shared;
+    private final PoolConfig read;
+
+    @SuppressWarnings("unchecked")
+    PoolConfig(@NotNull("Properties can't be null") Map<String, Object> properties) {
+        this.properties = properties;
+        this.min = getInteger(POOL_MIN);
+        this.max = getInteger(POOL_MAX);
+        // The pool is filled up to its minimum size when it starts
+        this.initial = Objects.isNull(getInteger(POOL_INITIAL)) ? min : getInteger(POOL_INITIAL);
+        this.wait = getInteger(POOL_WAIT);
+        this.shared = properties.get(POOL_SHARED) instanceof Boolean ? (Boolean) properties.get(POOL_SHARED) : null;
+        Object read = properties.get(POOL_READ);
+        this.read = read instanceof Map ? new PoolConfig((Map<String, Object>) read) : null;
+    }
+
+    /**
+     * Gets the number of connections opened when the pool starts, the minimum size if it isn't configured.
+     * @return number of connections or {@code null} if neither is configured
+     */
+    @Nullable
+    public Integer getInitial() {
+        return initial;
+    }
+
+    @Nullable
+    public Integer getMin() {
+        return min;
+    }
+
+    @Nullable
+    public Integer getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the maximum time in milliseconds that a thread waits for a free connection.
+     * @return time or {@code null} if it isn't configured
+     */
+    @Nullable
+    public Integer getWait() {
+        return wait;
+    }
+
+    /**
+     * Indicates if the read connections are shared among threads. Only used in the {@code read} section.
+     * @return value or {@code null} if it isn't configured
+     */
+    @Nullable
+    public Boolean getShared() {
+        return shared;
+    }
+
+    /**
+     * Gets the configuration of the read connections pool.
+     * @return configuration or {@code null} if reads use the same pool
+     */
+    @Nullable
+    public PoolConfig getRead() {
+        return read;
+    }
+
+    /**
+     * Gets the SQL used to validate the connections, for the pools that support it.
+     * @return SQL or {@code null} if it isn't configured
+     */
+    @Nullable
+    public String getValidationQuery() {
+        return getString(POOL_VALIDATION_QUERY);
+    }
+
+    /**
+     * Gets the class name of the {@link DataSourceProvider} that creates the pool instead of EclipseLink.
+     * @return class name or {@code null} if the internal pool is used
+     */
+    @Nullable
+    public String getDataSourceProvider() {
+        return getString(POOL_DATA_SOURCE_PROVIDER);
+    }
+
+    /**
+     * Gets an attribute of the section, including the ones that only a data source provider understands.
+     * @param key attribute name
+     * @return value or {@code null} if it isn't defined
+     */
+    @Nullable
+    public Object get(String key) {
+        return properties.get(key);
+    }
+
+    @Nullable
+    private String getString(String key) {
+        Object value = properties.get(key);
+        return Objects.isNull(value) ? null : value.toString();
+    }
+
+    @Nullable
+    private Integer getInteger(String key) {
+        Object value = properties.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            return Integer.valueOf((String) value);
+        }
+        return null;
+    }
+}
@@ -1,65 +1,197 @@
 package com.mateolegi.rostrum;
 
 import com.mateolegi.rostrum.exception.PropertyNotFoundException;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
 
 /**
- * Represents access to the Rostrum properties file.
+ * Represents access to the Rostrum properties file. The file is read from the classpath once and kept as an
+ * immutable {@link RostrumConfig} snapshot, which is replaced when the file is reloaded.
  * @author <a href="mateolegi.github.io">Mateo Leal</a>
  * @version 1.0.0
  */
 class Properties {
 
+    private static final Logger LOGGER = Logger.getLogger(Properties.class.getSimpleName());
+    private static final List<Consumer<RostrumConfig>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static volatile RostrumConfig config;
+    private static Thread watcher;
+
+    /**
+     * Reads and parses the properties file from the classpath.
+     * @return parsed file or {@code null} if it doesn't exist or can't be parsed
+     */
     @Nullable
     public static JSONObject getJSONFile() {
-        URL jsonURL = Thread.currentThread().getContextClassLoader().getResource(JSON_FILENAME);
+        URL jsonURL = getJSONURL();
         if (Objects.isNull(jsonURL)) {
             return null;
         }
-        String jsonFile = jsonURL.getFile();
-        try (Reader reader = new FileReader(jsonFile)) {
+        try (InputStream stream = jsonURL.openStream();
+             Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
             JSONParser parser = new JSONParser();
             return (JSONObject) parser.parse(reader);
-        } catch (IOException | ParseException e) {
+        } catch (IOException | ParseException | ClassCastException e) {
             return null;
         }
     }
 
-    public static JSONArray getDataSources() {
-        JSONObject jsonObject = getJSONFile();
-        return (JSONArray) jsonObject.get(DATA_SOURCES);
+    /**
+     * Gets the current configuration, loading it on the first access.
+     * @return configuration
+     * @throws PropertyNotFoundException if the file doesn't exist or can't be parsed
+     */
+    @NotNull
+    static RostrumConfig getConfig() {
+        RostrumConfig current = config;
+        if (Objects.isNull(current)) {
+            synchronized (Properties.class) {
+                current = config;
+                if (Objects.isNull(current)) {
+                    current = load();
+                    config = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static DataSourceConfig getDataSource(String persistenceUnitName) {
+        return getConfig().getDataSource(persistenceUnitName);
+    }
+
+    /**
+     * Reads the file again and publishes the new configuration if it changed, notifying the listeners. If the file
+     * can't be read the current configuration is kept.
+     * @return {@code true} if the configuration changed
+     */
+    static boolean reload() {
+        RostrumConfig previous;
+        RostrumConfig current;
+        synchronized (Properties.class) {
+            try {
+                current = load();
+            } catch (PropertyNotFoundException e) {
+                LOGGER.log(Level.WARNING, "The configuration couldn't be reloaded, the current one is kept.", e);
+                return false;
+            }
+            previous = config;
+            if (current.equals(previous)) {
+                return false;
+            }
+            config = current;
+        }
+        if (Objects.nonNull(previous)) {
+            for (Consumer<RostrumConfig> listener : LISTENERS) {
+                try {
+                    listener.accept(current);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "A configuration listener failed.", e);
+                }
+            }
+        }
+        return true;
+    }
+
+    static void addListener(Consumer<RostrumConfig> listener) {
+        LISTENERS.add(listener);
+    }
+
+    static void removeListener(Consumer<RostrumConfig> listener) {
+        LISTENERS.remove(listener);
     }
 
-    public static JSONObject getDataSource(String persistenceUnitName) {
-        JSONArray dataSources = Properties.getDataSources();
-        if (dataSources.isEmpty()) {
-            throw new PropertyNotFoundException("No data sources found in the configuration file.");
+    /**
+     * Starts a daemon thread that reloads the configuration when the file changes.
+     * @return {@code true} if the file is being watched, {@code false} if it isn't in a directory
+     */
+    static synchronized boolean startWatching() {
+        if (Objects.nonNull(watcher)) {
+            return true;
         }
-        if (Objects.isNull(persistenceUnitName)) {
-            return (JSONObject) dataSources.get(0);
+        URL jsonURL = getJSONURL();
+        if (Objects.isNull(jsonURL) || !"file".equals(jsonURL.getProtocol())) {
+            return false;
         }
         try {
-            return (JSONObject) dataSources.stream()
-                    .filter(item -> ((JSONObject) item).get(PERSISTENCE_UNIT).equals(persistenceUnitName))
-                    .findFirst()
-                    .orElseThrow(() -> new PropertyNotFoundException(String
-                            .format("A data source with the name %s was not found", persistenceUnitName)));
-        } catch (Throwable throwable) {
-            throw new PropertyNotFoundException(throwable.getMessage());
+            Path file = Paths.get(jsonURL.toURI());
+            WatchService service = file.getFileSystem().newWatchService();
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = new Thread(() -> watch(service, file.getFileName()), "rostrum-config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            return true;
+        } catch (IOException | URISyntaxException e) {
+            LOGGER.log(Level.WARNING, "The configuration file can't be watched.", e);
+            return false;
+        }
+    }
+
+    static synchronized void stopWatching() {
+        if (Objects.nonNull(watcher)) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private static void watch(WatchService service, Path fileName) {
+        try (WatchService closeable = service) {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = closeable.take();
+                boolean changed = key.pollEvents().stream()
+                        .anyMatch(event -> fileName.equals(event.context()));
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException e) {
+            LOGGER.log(Level.WARNING, "The configuration file is no longer watched.", e);
+        }
+    }
+
+    @NotNull
+    private static RostrumConfig load() {
+        JSONObject json = getJSONFile();
+        if (Objects.isNull(json)) {
+            throw new PropertyNotFoundException(String.format("The %s file was not found in the classpath or "
+                    + "it isn't valid.", JSON_FILENAME));
+        }
+        return RostrumConfig.of(json);
+    }
+
+    @Nullable
+    private static URL getJSONURL() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (Objects.isNull(classLoader)) {
+            classLoader = Properties.class.getClassLoader();
         }
+        return classLoader.getResource(JSON_FILENAME);
     }
 
     private static boolean isJUnitTest() {
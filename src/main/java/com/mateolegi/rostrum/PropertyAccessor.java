@@ -0,0 +1,228 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads and writes a property of entities and DTOs through method handles instead of {@code Field.get} and
+ * {@code Field.set}, so the access checks are done once when the accessor is created and the primitive setters don't
+ * box the value. The handles are held in instance fields, so the JIT doesn't treat them as constants: each call still
+ * goes through the handle instead of being inlined into the caller. Accessors are created once per class and shared by
+ * {@code Rostrum} and {@code EntityFactory}.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class PropertyAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, PropertyAccessor>> FIELDS =
+            new ClassValue<Map<String, PropertyAccessor>>() {
+                @Override
+                protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+                    Map<String, PropertyAccessor> accessors = new LinkedHashMap<>();
+                    for (Field field : type.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            accessors.put(field.getName(), of(field));
+                        }
+                    }
+                    return Collections.unmodifiableMap(accessors);
+                }
+            };
+
+    private final String name;
+    private final Class<?> type;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle primitiveSetter;
+
+    private PropertyAccessor(String name, Class<?> type, MethodHandle getter, MethodHandle setter,
+                             MethodHandle primitiveSetter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+        this.primitiveSetter = primitiveSetter;
+    }
+
+    /**
+     * Gets the accessors of the fields declared by the class, in declaration order.
+     * @param clazz class
+     * @return accessors by field name
+     */
+    @NotNull
+    static Map<String, PropertyAccessor> fieldsOf(@NotNull("Class can't be null") Class<?> clazz) {
+        return FIELDS.get(clazz);
+    }
+
+    /**
+     * Creates an accessor over the field. Final fields can be read but not written.
+     * @param field field
+     * @return accessor
+     */
+    @NotNull
+    static PropertyAccessor of(@NotNull("Field can't be null") Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            MethodHandle setter = null;
+            MethodHandle primitiveSetter = null;
+            if (!Modifier.isFinal(field.getModifiers())) {
+                MethodHandle handle = LOOKUP.unreflectSetter(field);
+                setter = handle.asType(SETTER_TYPE);
+                if (field.getType().isPrimitive()) {
+                    primitiveSetter = handle.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+                }
+            }
+            return new PropertyAccessor(field.getName(), field.getType(), getter, setter, primitiveSetter);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(String.format("The %s field could not be accessed.", field.getName()), e);
+        }
+    }
+
+    /**
+     * Creates a read-only accessor over the getter method.
+     * @param method getter without parameters
+     * @return accessor
+     */
+    @NotNull
+    static PropertyAccessor ofGetter(@NotNull("Method can't be null") Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle getter = LOOKUP.unreflect(method).asType(GETTER_TYPE);
+            return new PropertyAccessor(method.getName(), method.getReturnType(), getter, null, null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(String.format("The %s method could not be accessed.", method.getName()),
+                    e);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the value of the property.
+     * @param target instance
+     * @return property value
+     * @throws UndeclaredThrowableException if the getter throws a checked exception
+     */
+    Object get(Object target) {
+        try {
+            return getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of the property.
+     * @param target instance
+     * @param value value to be assigned
+     * @throws ClassCastException if the value can't be assigned to the property type
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    void set(Object target, Object value) {
+        if (Objects.isNull(setter)) {
+            throw new UnsupportedOperationException(String.format("The %s property is read-only.", name));
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of a {@code long} property without boxing it.
+     * @param target instance
+     * @param value value to be assigned
+     * @throws UnsupportedOperationException if the property isn't a writable {@code long}
+     */
+    void setLong(Object target, long value) {
+        try {
+            requirePrimitiveSetter(long.class).invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of an {@code int} property without boxing it.
+     * @param target instance
+     * @param value value to be assigned
+     * @throws UnsupportedOperationException if the property isn't a writable {@code int}
+     */
+    void setInt(Object target, int value) {
+        try {
+            requirePrimitiveSetter(int.class).invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of a {@code double} property without boxing it.
+     * @param target instance
+     * @param value value to be assigned
+     * @throws UnsupportedOperationException if the property isn't a writable {@code double}
+     */
+    void setDouble(Object target, double value) {
+        try {
+            requirePrimitiveSetter(double.class).invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of a {@code boolean} property without boxing it.
+     * @param target instance
+     * @param value value to be assigned
+     * @throws UnsupportedOperationException if the property isn't a writable {@code boolean}
+     */
+    void setBoolean(Object target, boolean value) {
+        try {
+            requirePrimitiveSetter(boolean.class).invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    private MethodHandle requirePrimitiveSetter(Class<?> primitive) {
+        if (type != primitive || Objects.isNull(primitiveSetter)) {
+            throw new UnsupportedOperationException(String.format("The %s property is not a writable %s.", name,
+                    primitive.getName()));
+        }
+        return primitiveSetter;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mateolegi.rostrum;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Read-only factories of the replicas of a persistence unit and the policy used to pick one for each read:
+ * round-robin, or the replica with the fewest reads in progress.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class ReplicaSet {
+
+    /**
+     * Balancing policy that sends each read to the next replica.
+     */
+    static final String ROUND_ROBIN = "round-robin";
+
+    /**
+     * Balancing policy that sends each read to the replica with the fewest reads in progress.
+     */
+    static final String LEAST_LOADED = "least-loaded";
+
+    private final EntityManagerFactory[] factories;
+    private final AtomicInteger[] active;
+    private final boolean leastLoaded;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaSet(List<EntityManagerFactory> factories, String balancing) {
+        this.factories = factories.toArray(new EntityManagerFactory[0]);
+        this.active = new AtomicInteger[this.factories.length];
+        for (int i = 0; i < active.length; i++) {
+            active[i] = new AtomicInteger();
+        }
+        this.leastLoaded = LEAST_LOADED.equals(balancing);
+    }
+
+    /**
+     * Executes the read with a short-lived entity manager of one of the replicas.
+     * @param reader read to be executed
+     * @param <R> result type
+     * @return result of the read
+     */
+    <R> R read(Function<EntityManager, R> reader) {
+        int replica = select();
+        active[replica].incrementAndGet();
+        try {
+            EntityManager manager = factories[replica].createEntityManager();
+            try {
+                return reader.apply(manager);
+            } finally {
+                manager.close();
+            }
+        } finally {
+            active[replica].decrementAndGet();
+        }
+    }
+
+    /**
+     * Picks the factory of a replica following the balancing policy.
+     * @return entity manager factory
+     */
+    EntityManagerFactory next() {
+        return factories[select()];
+    }
+
+    void close() {
+        for (EntityManagerFactory factory : factories) {
+            if (factory.isOpen()) {
+                factory.close();
+            }
+        }
+    }
+
+    /**
+     * Picks a replica following the balancing policy.
+     * @return index of the replica
+     */
+    int select() {
+        // The starting point rotates so that ties are spread among the replicas
+        int start = Math.floorMod(next.getAndIncrement(), factories.length);
+        if (!leastLoaded) {
+            return start;
+        }
+        int selected = start;
+        for (int i = 1; i < factories.length; i++) {
+            int candidate = (start + i) % factories.length;
+            if (active[candidate].get() < active[selected].get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+}
@@ -1,32 +1,76 @@
 package com.mateolegi.rostrum;
 
-import com.mateolegi.rostrum.annotation.Crypt;
 import com.mateolegi.rostrum.annotation.Type;
 import com.mateolegi.rostrum.exception.*;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
-import javax.persistence.Id;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.Timestamp;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Gives the extended entities the functionalities of the ORM.
+ * Gives the extended entities the functionalities of the ORM. <br>
+ * Entities declared in the {@code shards} section of {@code rostrum.json} are routed to the persistence unit of their
+ * shard key; the operations that can't be routed run on every shard, the reads in parallel.
  * @author <a href="mateolegi.github.io">Mateo Leal</a>
  * @version 1.0.0
  */
 public class Rostrum {
 
     /**
-     * Gets all records of the entity in the persistence context.
+     * Executes the work inside a unit of work of the default persistence unit. If the current thread already has one,
+     * the work joins it, otherwise a new one is opened and committed when the work finishes. If the work throws an
+     * exception the unit of work is rolled back.
+     * @param <R> result type
+     * @param work work to be executed with the shared entity manager
+     * @return work result
+     * @see UnitOfWork
+     */
+    public static <R> R inUnitOfWork(@NotNull("Work can't be null") Function<EntityManager, R> work) {
+        return inUnitOfWork(Factory.getDefaultPersistenceUnit(), work);
+    }
+
+    /**
+     * Executes the work inside a unit of work of the persistence unit. If the current thread already has one, the
+     * work joins it, otherwise a new one is opened and committed when the work finishes. If the work throws an
+     * exception the unit of work is rolled back.
+     * @param <R> result type
+     * @param persistenceUnit persistence unit name
+     * @param work work to be executed with the shared entity manager
+     * @return work result
+     * @see UnitOfWork
+     */
+    public static <R> R inUnitOfWork(String persistenceUnit,
+                                     @NotNull("Work can't be null") Function<EntityManager, R> work) {
+        try (UnitOfWork unitOfWork = Factory.openUnitOfWork(persistenceUnit)) {
+            R result = work.apply(unitOfWork.getEntityManager());
+            unitOfWork.commit();
+            return result;
+        }
+    }
+
+    /**
+     * Gets all records of the entity in the persistence context. If the entity is sharded, the shards are queried in
+     * parallel.
      * @param <T> entity type
      * @param clazz entity class
      * @return all records
@@ -34,8 +78,160 @@ public class Rostrum {
      *         not be assignable to the specified type.
      */
     public static <T> List<T> findAll(Class<T> clazz) {
-        return getManager().createQuery("SELECT e FROM " + clazz.getSimpleName() + " e", clazz)
-                .getResultList();
+        return concat(readAll(Sharding.getPersistenceUnits(clazz), (persistenceUnit, manager) -> manager
+                .createQuery("SELECT e FROM " + clazz.getSimpleName() + " e", clazz)
+                .getResultList()));
+    }
+
+    /**
+     * Gets the records of the entity filtered as {@link FilteredQuery#createFilteredQuery} does. If the entity is
+     * sharded, the shards are queried in parallel and their results are sorted and limited again.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param filters values of the attributes to be compared, by attribute name and operator, and the
+     *                {@link FilteredQuery#SORT} and {@link FilteredQuery#LIMIT} options
+     * @return matching records
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> List<T> findWhere(Class<T> clazz, @NotNull("Filters can't be null") Map<String, Object> filters) {
+        requireEntityManager();
+        List<List<T>> results = readAll(Sharding.getPersistenceUnits(clazz), (persistenceUnit, manager) -> FilteredQuery
+                .createFilteredQuery(clazz, manager, filters)
+                .getResultList());
+        return results.size() == 1 ? results.get(0) : FilteredQuery.mergeResults(clazz, results, filters);
+    }
+
+    /**
+     * Gets a page of records of the entity using keyset pagination, so that deep pages are as fast as the first one.
+     * If the entity is sharded, each shard reads the page in parallel and the pages are merged in order.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param pageRequest requested page
+     * @return page of entities
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws NoIdFoundException if the entity has no field or method with the {@code Id} annotation.
+     * @see FilteredQuery#findPage
+     */
+    public static <T> Page<T> findPage(Class<T> clazz, @NotNull("Page request can't be null") PageRequest pageRequest) {
+        return findPage(clazz, Collections.emptyMap(), pageRequest);
+    }
+
+    /**
+     * Gets a page of the records of the entity filtered as {@link FilteredQuery#createFilteredQuery} does, using
+     * keyset pagination. If the entity is sharded, each shard reads the page in parallel and the pages are merged in
+     * order.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param filters values of the attributes to be compared, by attribute name
+     * @param pageRequest requested page
+     * @return page of entities
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws NoIdFoundException if the entity has no field or method with the {@code Id} annotation.
+     * @see FilteredQuery#findPage
+     */
+    public static <T> Page<T> findPage(Class<T> clazz, @NotNull("Filters can't be null") Map<String, Object> filters,
+                                       @NotNull("Page request can't be null") PageRequest pageRequest) {
+        requireEntityManager();
+        List<Page<T>> pages = readAll(Sharding.getPersistenceUnits(clazz),
+                (persistenceUnit, manager) -> FilteredQuery.findPage(clazz, manager, filters, pageRequest));
+        return pages.size() == 1 ? pages.get(0) : FilteredQuery.mergePages(clazz, pages, pageRequest);
+    }
+
+    /**
+     * Streams all records of the entity through a database cursor, fetching {@code fetch-size} rows per round trip.
+     * The processed entities are detached periodically, so the memory used doesn't depend on the size of the table.
+     * The stream uses its own entity manager and connection, which are released when the stream is closed, so it
+     * must be used in a try-with-resources block.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @return stream of entities
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> Stream<T> stream(Class<T> clazz) {
+        return stream(clazz, Factory.getFetchSize(Sharding.getPersistenceUnits(clazz).get(0)));
+    }
+
+    /**
+     * Streams all records of the entity through a database cursor, fetching {@code fetchSize} rows per round trip.
+     * The processed entities are detached every {@code fetchSize} rows, so the memory used doesn't depend on the size
+     * of the table. The stream uses its own entity manager and connection, which are released when the stream is
+     * closed, so it must be used in a try-with-resources block. If the entity is sharded, the shards are read one
+     * after the other.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param fetchSize number of rows fetched per round trip
+     * @return stream of entities
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> Stream<T> stream(Class<T> clazz, int fetchSize) {
+        requireEntityManager();
+        List<String> persistenceUnits = Sharding.getPersistenceUnits(clazz);
+        if (persistenceUnits.size() == 1) {
+            return stream(persistenceUnits.get(0), clazz, fetchSize);
+        }
+        // The cursor of each shard is opened when the previous one is exhausted and closed right after it
+        return ChainedSpliterator.stream(persistenceUnits,
+                persistenceUnit -> stream(persistenceUnit, clazz, fetchSize));
+    }
+
+    private static <T> Stream<T> stream(String persistenceUnit, Class<T> clazz, int fetchSize) {
+        EntityManager manager = Factory.getReadEntityManagerFactory(persistenceUnit).createEntityManager();
+        try {
+            // Some drivers, like PostgreSQL, only honor the fetch size when auto-commit is disabled
+            manager.getTransaction().begin();
+            manager.unwrap(JpaEntityManager.class).getUnitOfWork().beginEarlyTransaction();
+            ScrollableCursor cursor = (ScrollableCursor) manager
+                    .createQuery("SELECT e FROM " + manager.getMetamodel().entity(clazz).getName() + " e")
+                    .setHint(QueryHints.SCROLLABLE_CURSOR, HintValues.TRUE)
+                    .setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize)
+                    .getSingleResult();
+            return CursorSpliterator.stream(cursor, clazz::cast, fetchSize, manager::clear, () -> {
+                try {
+                    cursor.close();
+                } finally {
+                    if (manager.getTransaction().isActive()) {
+                        manager.getTransaction().rollback();
+                    }
+                    manager.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            if (manager.getTransaction().isActive()) {
+                manager.getTransaction().rollback();
+            }
+            manager.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Performs the action for each record of the entity, reading them through a database cursor as
+     * {@link #stream(Class)} does.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param action action to be performed on each entity
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> void forEach(Class<T> clazz, @NotNull("Action can't be null") Consumer<? super T> action) {
+        try (Stream<T> stream = stream(clazz)) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the action for each record of the entity, reading them through a database cursor as
+     * {@link #stream(Class, int)} does.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param fetchSize number of rows fetched per round trip
+     * @param action action to be performed on each entity
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> void forEach(Class<T> clazz, int fetchSize,
+                                   @NotNull("Action can't be null") Consumer<? super T> action) {
+        try (Stream<T> stream = stream(clazz, fetchSize)) {
+            stream.forEach(action);
+        }
     }
 
     /**
@@ -50,7 +246,11 @@ public class Rostrum {
      */
     public static <T> T find(Class<T> clazz, @NotNull("Primary key can not be null.") Object id) {
         requireEntityManager();
-        return getManager().find(clazz, id);
+        return readAll(Sharding.getPersistenceUnits(clazz, id), (persistenceUnit, manager) -> manager.find(clazz, id))
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
     }
 
     /**
@@ -63,22 +263,17 @@ public class Rostrum {
      */
     public static <T> T save(@NotNull("Entity can't be null") T entity) {
         requireEntityManager();
-        try {
+        return inUnitOfWork(Sharding.getPersistenceUnit(entity), manager -> {
             // if the entity does not exist, it is stored in persistence context, otherwise it is updated.
             if (!exists(entity)) {
-                Factory.beginTransaction();
                 setCreatedAt(entity);
                 compareEncryptedFields(entity, null);
-                getManager().persist(entity);
-                Factory.commitTransaction();
+                manager.persist(entity);
                 return entity;
             } else {
                 return update(entity);
             }
-        } catch (RuntimeException e) {
-            Factory.rollbackTransaction();
-            throw e;
-        }
+        });
     }
 
     /**
@@ -91,21 +286,97 @@ public class Rostrum {
      */
     public static <T> T update(@NotNull("Entity can't be null") T entity) {
         requireEntityManager();
-        try {
+        return inUnitOfWork(Sharding.getPersistenceUnit(entity), manager -> {
             if (exists(entity)) {
-                Factory.beginTransaction();
                 setUpdatedAt(entity);
-                compareEncryptedFields(entity, find(entity.getClass(), getId(entity)));
-                T updatedEntity = getManager().merge(entity);
-                Factory.commitTransaction();
-                return updatedEntity;
+                compareEncryptedFields(entity, getOriginal(manager, manager.find(entity.getClass(), getId(entity))));
+                return manager.merge(entity);
             } else {
                 return save(entity);
             }
-        } catch (RuntimeException e) {
-            Factory.rollbackTransaction();
-            throw e;
+        });
+    }
+
+    /**
+     * Persists or updates all the entities in a single unit of work. The existence of the entities is resolved with
+     * one query per chunk, and the statements are sent in JDBC batches. After each chunk the persistence context is
+     * flushed and cleared so the memory used doesn't depend on the number of entities; therefore, entities managed
+     * before the call in the same unit of work are detached. The chunk size is the {@code batch-size} of the data
+     * source.
+     * @param entities entities to be saved
+     * @param <T> entity type
+     * @return saved entities, in the same order
+     * @throws IllegalArgumentException if entities is null.
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> List<T> saveAll(@NotNull("Entities can't be null") Collection<T> entities) {
+        return writeAll(entities);
+    }
+
+    /**
+     * Updates all the entities in a single unit of work, persisting the ones that don't exist as {@link #update}
+     * does. The existence of the entities is resolved with one query per chunk, and the statements are sent in JDBC
+     * batches. After each chunk the persistence context is flushed and cleared so the memory used doesn't depend on
+     * the number of entities; therefore, entities managed before the call in the same unit of work are detached.
+     * @param entities entities to be updated
+     * @param <T> entity type
+     * @return updated entities, in the same order
+     * @throws IllegalArgumentException if entities is null.
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> List<T> updateAll(@NotNull("Entities can't be null") Collection<T> entities) {
+        return writeAll(entities);
+    }
+
+    /**
+     * Inserts the entity or updates it if a row with its id already exists, in a single statement written for the
+     * database provider: {@code INSERT ... ON CONFLICT} for PostgreSQL, {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * for MariaDB and MySQL and {@code MERGE} for H2, HSQLDB and Oracle. The updatedAt field is filled, and so is
+     * createdAt if it's null; the createdAt of the row is kept when it already exists. <br>
+     * Since the persisted row isn't read, all the fields annotated with {@code Crypt} are encrypted, so the entity
+     * must carry their plain values, and the createdAt of the returned entity only matches the stored one if the
+     * entity already carried it. If the id isn't assigned, the provider has no upsert syntax or the entity is
+     * mapped to more than one table, it behaves like {@link #save}. <br>
+     * The entity is evicted from the shared cache after the statement, but an instance of it already loaded in the
+     * current unit of work is not refreshed and keeps the values read before the upsert.
+     * @param entity entity
+     * @param <T> entity type
+     * @return saved entity
+     * @throws IllegalArgumentException if entity is null.
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     */
+    public static <T> T upsert(@NotNull("Entity can't be null") T entity) {
+        requireEntityManager();
+        Object id = getId(entity);
+        if (Objects.isNull(id)) {
+            return save(entity);
         }
+        String persistenceUnit = Sharding.getPersistenceUnit(entity);
+        return inUnitOfWork(persistenceUnit, manager -> {
+            AbstractSession session = manager.unwrap(JpaEntityManager.class).getAbstractSession();
+            ClassDescriptor descriptor = session.getDescriptor(entity.getClass());
+            UpsertStatement statement = UpsertStatement.of(Factory.getDatabaseProvider(persistenceUnit),
+                    descriptor, session);
+            if (Objects.isNull(statement) || manager.contains(entity)) {
+                return save(entity);
+            }
+            PropertyAccessor createdAt = EntityMetadata.of(entity.getClass()).getCreatedAtAccessor();
+            if (Objects.nonNull(createdAt) && Objects.isNull(createdAt.get(entity))) {
+                setCreatedAt(entity);
+            }
+            setUpdatedAt(entity);
+            compareEncryptedFields(entity, null);
+            AbstractRecord row = descriptor.getObjectBuilder()
+                    .buildRow(entity, session, DatabaseMapping.WriteType.INSERT);
+            Query query = manager.createNativeQuery(statement.getSql());
+            List<Object> parameters = statement.getParameters(row);
+            for (int i = 0; i < parameters.size(); i++) {
+                query.setParameter(i + 1, parameters.get(i));
+            }
+            query.executeUpdate();
+            manager.getEntityManagerFactory().getCache().evict(entity.getClass(), id);
+            return entity;
+        });
     }
 
     /**
@@ -116,8 +387,10 @@ public class Rostrum {
      * @throws NotExistsException if entity doesn't exists in persistence context.
      */
     public static <T> T updateIfExists(T entity) {
-        requireEntity(entity);
-        return update(entity);
+        return inUnitOfWork(Sharding.getPersistenceUnit(entity), manager -> {
+            requireEntity(entity);
+            return update(entity);
+        });
     }
 
     /**
@@ -127,15 +400,122 @@ public class Rostrum {
      * @throws NotExistsException if entity doesn't exists in persistence context.
      */
     public static <T> void delete(T entity) {
-        requireEntity(entity);
-        try {
-            Factory.beginTransaction();
-            getManager().remove(entity);
-            Factory.commitTransaction();
-        } catch (RuntimeException e) {
-            Factory.rollbackTransaction();
-            throw e;
+        inUnitOfWork(Sharding.getPersistenceUnit(entity), manager -> {
+            requireEntity(entity);
+            manager.remove(manager.contains(entity) ? entity : manager.find(entity.getClass(), getId(entity)));
+            return null;
+        });
+    }
+
+    /**
+     * Removes the entities with the ids using {@code DELETE} statements with chunked {@code IN} lists, without
+     * loading them. The ids are converted to the type of the id attribute as {@link #findAllById} does. The deleted
+     * entities are evicted from the shared cache; entities already loaded in the current unit of work are not
+     * detached.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param ids entity ids
+     * @return number of deleted rows
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation.
+     * @throws IllegalArgumentException if an id can't be converted to the type of the id attribute.
+     */
+    public static <T> int deleteAllById(Class<T> clazz, @NotNull("Ids can't be null") Collection<?> ids) {
+        requireEntityManager();
+        requireIdAttribute(clazz);
+        List<Object> distinct = convertIds(clazz, ids).stream().filter(Objects::nonNull).distinct()
+                .collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            return 0;
+        }
+        int deleted = 0;
+        for (Map.Entry<String, List<Object>> group : Sharding.groupById(clazz, distinct).entrySet()) {
+            deleted += deleteAllById(group.getKey(), clazz, group.getValue());
+        }
+        return deleted;
+    }
+
+    private static <T> int deleteAllById(String persistenceUnit, Class<T> clazz, List<Object> distinct) {
+        int chunkSize = Factory.getMaxParameters(persistenceUnit);
+        int deleted = inUnitOfWork(persistenceUnit, manager -> {
+            String query = "DELETE FROM " + manager.getMetamodel().entity(clazz).getName() + " e WHERE e."
+                    + EntityMetadata.of(clazz).getIdAttribute() + " IN :ids";
+            int count = 0;
+            for (int i = 0; i < distinct.size(); i += chunkSize) {
+                count += manager.createQuery(query)
+                        .setParameter("ids", distinct.subList(i, Math.min(i + chunkSize, distinct.size())))
+                        .executeUpdate();
+            }
+            return count;
+        });
+        Cache cache = Factory.getEntityManagerFactory(persistenceUnit).getCache();
+        distinct.forEach(id -> cache.evict(clazz, id));
+        return deleted;
+    }
+
+    /**
+     * Removes the entities that match the filters with a single {@code DELETE} statement. The filters follow the
+     * convention of {@link FilteredQuery}; an empty map removes all the records of the entity. The entity is evicted
+     * from the shared cache. If the entity is sharded, the statement is executed on each shard in its own unit of
+     * work.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param filters values of the attributes to be compared, by attribute name
+     * @return number of deleted rows
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws IllegalArgumentException if one of the attributes doesn't exist.
+     */
+    public static <T> int deleteWhere(Class<T> clazz, @NotNull("Filters can't be null") Map<String, Object> filters) {
+        requireEntityManager();
+        int deleted = 0;
+        for (String persistenceUnit : Sharding.getPersistenceUnits(clazz)) {
+            deleted += inUnitOfWork(persistenceUnit,
+                    manager -> FilteredQuery.createFilteredDelete(clazz, manager, filters).executeUpdate());
+            Factory.getEntityManagerFactory(persistenceUnit).getCache().evict(clazz);
+        }
+        return deleted;
+    }
+
+    /**
+     * Updates the entities that match the filters with a single {@code UPDATE} statement. The filters follow the
+     * convention of {@link FilteredQuery}. The {@code updatedAt} attribute is set to the actual date unless it is
+     * part of the values, and the values of the fields with the {@code Crypt} annotation are encrypted. The entity is
+     * evicted from the shared cache. If the entity is sharded, the statement is executed on each shard in its own unit
+     * of work.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param filters values of the attributes to be compared, by attribute name
+     * @param values new values of the attributes, by attribute name
+     * @return number of updated rows
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws IllegalArgumentException if there are no values or one of the attributes doesn't exist.
+     */
+    public static <T> int updateWhere(Class<T> clazz, @NotNull("Filters can't be null") Map<String, Object> filters,
+                                      @NotNull("Values can't be null") Map<String, Object> values) {
+        requireEntityManager();
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("There are no values to update.");
+        }
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        Map<String, Object> assignments = new LinkedHashMap<>(values);
+        for (EntityMetadata.CryptField cryptField : metadata.getCryptFields()) {
+            String name = cryptField.getAccessor().getName();
+            if (Objects.nonNull(assignments.get(name))) {
+                assignments.put(name, encrypt((String) assignments.get(name), cryptField.getType()));
+            }
+        }
+        PropertyAccessor updatedAt = metadata.getUpdatedAtAccessor();
+        if (Objects.nonNull(updatedAt) && !assignments.containsKey(updatedAt.getName())) {
+            assignments.put(updatedAt.getName(), currentDate(updatedAt.getType()));
+        }
+        int updated = 0;
+        for (String persistenceUnit : Sharding.getPersistenceUnits(clazz)) {
+            updated += inUnitOfWork(persistenceUnit, manager -> FilteredQuery
+                    .createFilteredUpdate(clazz, manager, filters, assignments)
+                    .executeUpdate());
+            Factory.getEntityManagerFactory(persistenceUnit).getCache().evict(clazz);
         }
+        return updated;
     }
 
     /**
@@ -152,171 +532,367 @@ public class Rostrum {
         if (Objects.isNull(id)) {
             return false;
         }
-        return Objects.nonNull(getManager().find(entity.getClass(), id));
+        return read(Sharding.getPersistenceUnit(entity),
+                manager -> Objects.nonNull(manager.find(entity.getClass(), id)));
     }
 
     /**
-     * Find the field or method that contains the entity Id and get the value.
-     * @param entity entity
+     * Gets the entities with the ids, in the order of the ids. Ids that don't belong to any entity are skipped and
+     * repeated ids get the same entity again. The ids are converted to the type of the id attribute, so an
+     * {@code Integer} or a text finds the entity with a {@code Long} id. Entities already in the persistence context
+     * or in the shared cache are not queried again and the rest are read with chunked {@code IN} queries, sized to
+     * the bind parameters limit of the database provider.
      * @param <T> entity type
-     * @return entity id or null if it's empty
-     * @throws IllegalArgumentException if entity is null.
-     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation. If the value of Id
-     *         field couldn't be accessed or an error occurred when calling method that gets the Id.
+     * @param clazz entity class
+     * @param ids entity ids
+     * @return found entities
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation.
+     * @throws IllegalArgumentException if an id can't be converted to the type of the id attribute.
      */
-    private static <T> Object getId(@NotNull("Entity can't be null") T entity) {
-        Field idField = getIdField(entity.getClass());
-        Method idMethod = getIdMethod(entity.getClass());
-        try {
-            if (Objects.isNull(idField)) {
-                if (Objects.isNull(idMethod)) {
-                    throw new NoIdFoundException(
-                            "No field or method was found with the javax.persistence.Id annotation.");
+    public static <T> List<T> findAllById(Class<T> clazz, @NotNull("Ids can't be null") Collection<?> ids) {
+        requireEntityManager();
+        requireIdAttribute(clazz);
+        List<Object> converted = convertIds(clazz, ids);
+        Map<String, List<Object>> groups = Sharding.groupById(clazz, converted);
+        Map<Object, T> found = new HashMap<>();
+        readAll(new ArrayList<>(groups.keySet()),
+                (persistenceUnit, manager) -> findById(manager, persistenceUnit, clazz, groups.get(persistenceUnit)))
+                .forEach(found::putAll);
+        List<T> entities = new ArrayList<>(converted.size());
+        for (Object id : converted) {
+            T entity = found.get(id);
+            if (Objects.nonNull(entity)) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Validates if there's an entity for every id, counting them with chunked {@code IN} queries. The ids are
+     * converted to the type of the id attribute as {@link #findAllById} does.
+     * @param <T> entity type
+     * @param clazz entity class
+     * @param ids entity ids
+     * @return {@code true} if all the entities exist
+     * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
+     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation.
+     * @throws IllegalArgumentException if an id can't be converted to the type of the id attribute.
+     */
+    public static <T> boolean existsAll(Class<T> clazz, @NotNull("Ids can't be null") Collection<?> ids) {
+        requireEntityManager();
+        requireIdAttribute(clazz);
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            return false;
+        }
+        Set<Object> distinct = new HashSet<>(convertIds(clazz, ids));
+        Map<String, List<Object>> groups = Sharding.groupById(clazz, distinct);
+        long count = readAll(new ArrayList<>(groups.keySet()), (persistenceUnit, manager) -> countById(manager,
+                persistenceUnit, clazz, new HashSet<>(groups.get(persistenceUnit))))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        return count == distinct.size();
+    }
+
+    /**
+     * Persists the new entities and merges the existing ones in chunks, in a unit of work per shard.
+     * @param entities entities to be written
+     * @param <T> entity type
+     * @return written entities
+     */
+    private static <T> List<T> writeAll(Collection<T> entities) {
+        requireEntityManager();
+        List<T> list = new ArrayList<>(entities);
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            positions.computeIfAbsent(Sharding.getPersistenceUnit(list.get(i)), key -> new ArrayList<>()).add(i);
+        }
+        if (positions.size() <= 1) {
+            return writeAll(positions.isEmpty() ? Factory.getDefaultPersistenceUnit()
+                    : positions.keySet().iterator().next(), list);
+        }
+        List<T> written = new ArrayList<>(Collections.nCopies(list.size(), null));
+        positions.forEach((persistenceUnit, indexes) -> {
+            List<T> shard = writeAll(persistenceUnit, indexes.stream().map(list::get).collect(Collectors.toList()));
+            for (int i = 0; i < indexes.size(); i++) {
+                written.set(indexes.get(i), shard.get(i));
+            }
+        });
+        return written;
+    }
+
+    private static <T> List<T> writeAll(String persistenceUnit, Collection<T> entities) {
+        int chunkSize = Factory.getBatchSize(persistenceUnit);
+        return inUnitOfWork(persistenceUnit, manager -> {
+            List<T> written = new ArrayList<>(entities.size());
+            List<T> chunk = new ArrayList<>(Math.min(chunkSize, entities.size()));
+            for (T entity : entities) {
+                chunk.add(entity);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(manager, persistenceUnit, chunk, written);
+                    chunk.clear();
                 }
-                idMethod.setAccessible(true);
-                return idMethod.invoke(entity);
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(manager, persistenceUnit, chunk, written);
+            }
+            return written;
+        });
+    }
+
+    /**
+     * Writes a chunk of entities and then flushes and clears the persistence context.
+     * @param manager entity manager of the unit of work
+     * @param persistenceUnit persistence unit of the unit of work
+     * @param chunk entities of the chunk
+     * @param written list where the written entities are added
+     * @param <T> entity type
+     */
+    private static <T> void writeChunk(EntityManager manager, String persistenceUnit, List<T> chunk,
+                                       List<T> written) {
+        Map<Class<?>, Map<Object, Object>> persisted = findPersisted(manager, persistenceUnit, chunk);
+        for (T entity : chunk) {
+            Object id = getId(entity);
+            Object current = Objects.isNull(id) ? null
+                    : persisted.getOrDefault(entity.getClass(), Collections.emptyMap()).get(id);
+            if (Objects.isNull(current)) {
+                setCreatedAt(entity);
+                compareEncryptedFields(entity, null);
+                manager.persist(entity);
+                written.add(entity);
             } else {
-                idField.setAccessible(true);
-                return idField.get(entity);
+                setUpdatedAt(entity);
+                compareEncryptedFields(entity, getOriginal(manager, current));
+                written.add(manager.merge(entity));
             }
-        } catch (IllegalAccessException e) {
-            String message = "The value of the field could not be accessed.";
-            if (Objects.nonNull(idField)) {
-                message = String.format("The value of the %s field could not be accessed.",
-                        idField.getName());
+        }
+        manager.flush();
+        manager.clear();
+    }
+
+    /**
+     * Loads the entities of the chunk that already exist, with chunked {@code IN} queries per entity class.
+     * @param manager entity manager
+     * @param persistenceUnit persistence unit of the entity manager
+     * @param chunk entities
+     * @param <T> entity type
+     * @return persisted entities by class and id
+     */
+    private static <T> Map<Class<?>, Map<Object, Object>> findPersisted(EntityManager manager, String persistenceUnit,
+                                                                        List<T> chunk) {
+        Map<Class<?>, List<Object>> idsByClass = new HashMap<>();
+        for (T entity : chunk) {
+            Object id = getId(entity);
+            if (Objects.nonNull(id)) {
+                idsByClass.computeIfAbsent(entity.getClass(), clazz -> new ArrayList<>()).add(id);
             }
-            throw new NoIdFoundException(message, e);
-        } catch (InvocationTargetException e) {
-            throw new NoIdFoundException(String.format("There was an error invoking the method %s.",
-                    idMethod.getName()), e);
         }
+        Map<Class<?>, Map<Object, Object>> persisted = new HashMap<>();
+        idsByClass.forEach((clazz, ids) ->
+                persisted.put(clazz, new HashMap<>(findById(manager, persistenceUnit, clazz, ids))));
+        return persisted;
     }
 
     /**
-     * Get field with {@code Id} annotation.
+     * Loads the entities with the ids. Entities that are in the persistence context or in the shared cache are taken
+     * from there, the rest are read with {@code IN} queries of at most as many ids as the provider can bind.
+     * @param manager entity manager
+     * @param persistenceUnit persistence unit of the entity manager
      * @param clazz entity class
+     * @param ids entity ids
      * @param <T> entity type
-     * @return {@code Id} annotated field
-     * @throws IllegalArgumentException if class is empty.
-     * @throws MultipleIdException if there's multiple fields with {@code Id} annotation.
+     * @return found entities by id
      */
-    @Nullable
-    private static <T> Field getIdField(@NotNull("Class can't be null") Class<T> clazz) {
-        List<Field> idFields = Arrays.stream(clazz.getDeclaredFields())
-                .filter(Rostrum::hasIdAnnotation)
-                .collect(Collectors.toList());
-        if (idFields.isEmpty()) {
-            return null;
-        } else if (idFields.size() > 1) {
-            throw new MultipleIdException("There is more than one field with the Id annotation.");
+    private static <T> Map<Object, T> findById(EntityManager manager, String persistenceUnit, Class<T> clazz,
+                                               Collection<?> ids) {
+        Map<Object, T> found = new HashMap<>();
+        List<Object> pending = new ArrayList<>();
+        for (Object id : new LinkedHashSet<>(ids)) {
+            T entity = isCached(manager, clazz, id) ? manager.find(clazz, id) : null;
+            if (Objects.nonNull(entity)) {
+                found.put(id, entity);
+            } else if (Objects.nonNull(id)) {
+                pending.add(id);
+            }
+        }
+        String query = "SELECT e FROM " + manager.getMetamodel().entity(clazz).getName() + " e WHERE e."
+                + EntityMetadata.of(clazz).getIdAttribute() + " IN :ids";
+        int chunkSize = Factory.getMaxParameters(persistenceUnit);
+        for (int i = 0; i < pending.size(); i += chunkSize) {
+            manager.createQuery(query, clazz)
+                    .setParameter("ids", pending.subList(i, Math.min(i + chunkSize, pending.size())))
+                    .getResultList()
+                    .forEach(entity -> found.put(getId(entity), entity));
         }
-        return idFields.get(0);
+        return found;
     }
 
     /**
-     * Get method with {@code Id} annotation.
+     * Counts how many of the ids belong to existing entities, without querying the cached ones.
+     * @param manager entity manager
+     * @param persistenceUnit persistence unit of the entity manager
      * @param clazz entity class
+     * @param ids distinct entity ids
      * @param <T> entity type
-     * @return {@code Id} annotated method
-     * @throws IllegalArgumentException if class is null.
-     * @throws MultipleIdException if there's multiple methods with {@code Id} annotation.
+     * @return number of existing entities
      */
-    @Nullable
-    private static <T> Method getIdMethod(@NotNull("Class can't be null") Class<T> clazz) {
-        List<Method> idMethods = Arrays.stream(clazz.getDeclaredMethods())
-                .filter(Rostrum::hasIdAnnotation)
-                .collect(Collectors.toList());
-        if (idMethods.isEmpty()) {
-            return null;
-        } else if (idMethods.size() > 1) {
-            throw new MultipleIdException("There is more than one method with the Id annotation.");
+    private static <T> long countById(EntityManager manager, String persistenceUnit, Class<T> clazz, Set<?> ids) {
+        long count = 0;
+        List<Object> pending = new ArrayList<>();
+        for (Object id : ids) {
+            if (isCached(manager, clazz, id)) {
+                count++;
+            } else {
+                pending.add(id);
+            }
         }
-        return idMethods.get(0);
+        String query = "SELECT COUNT(e) FROM " + manager.getMetamodel().entity(clazz).getName() + " e WHERE e."
+                + EntityMetadata.of(clazz).getIdAttribute() + " IN :ids";
+        int chunkSize = Factory.getMaxParameters(persistenceUnit);
+        for (int i = 0; i < pending.size(); i += chunkSize) {
+            count += manager.createQuery(query, Long.class)
+                    .setParameter("ids", pending.subList(i, Math.min(i + chunkSize, pending.size())))
+                    .getSingleResult();
+        }
+        return count;
     }
 
     /**
-     * Set actual date in createdAt field.
-     * @param entity entity
-     * @param <T> entity type
+     * Validates if the entity is in the persistence context of the manager or in the shared cache, so it can be
+     * found without querying the database. Only the identity map of the unit of work itself is checked for the
+     * persistence context, since looking it up through the unit of work falls back to the shared cache and also
+     * finds the entries invalidated by an eviction or a bulk statement.
+     * @param manager entity manager
+     * @param clazz entity class
+     * @param id entity id
+     * @return validation result
      */
-    private static <T> void setCreatedAt(T entity) {
-        setDateField(entity, getCreatedAtField(entity));
+    private static boolean isCached(EntityManager manager, Class<?> clazz, Object id) {
+        if (Objects.isNull(id)) {
+            return false;
+        } else if (manager.getEntityManagerFactory().getCache().contains(clazz, id)) {
+            return true;
+        }
+        UnitOfWorkImpl unitOfWork = manager.unwrap(UnitOfWorkImpl.class);
+        return unitOfWork.getIdentityMapAccessorInstance().getIdentityMapManager()
+                .containsKey(id, clazz, unitOfWork.getDescriptor(clazz));
     }
 
     /**
-     * Sets actual date in the field specified.
+     * Find the field or method that contains the entity Id and get the value.
      * @param entity entity
-     * @param dateField field
      * @param <T> entity type
+     * @return entity id or null if it's empty
+     * @throws IllegalArgumentException if entity is null.
+     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation. If the value of Id
+     *         field couldn't be accessed or an error occurred when calling method that gets the Id.
+     * @throws MultipleIdException if there's multiple fields or methods with {@code Id} annotation.
      */
-    private static <T> void setDateField(T entity, Field dateField) {
+    private static <T> Object getId(@NotNull("Entity can't be null") T entity) {
+        PropertyAccessor idAccessor = EntityMetadata.of(entity.getClass()).getIdAccessor();
+        if (Objects.isNull(idAccessor)) {
+            throw new NoIdFoundException("No field or method was found with the javax.persistence.Id annotation.");
+        }
         try {
-            if (Objects.nonNull(dateField)) {
-                Date actualDate = new Date();
-                Class clazz = dateField.getType();
-                if (clazz == Date.class) {
-                    dateField.set(entity, actualDate);
-                } else if (clazz == Timestamp.class) {
-                    dateField.set(entity, new Timestamp(actualDate.getTime()));
-                } else if (clazz == java.sql.Date.class) {
-                    dateField.set(entity, new java.sql.Date(actualDate.getTime()));
-                } else {
-                    throw new NotSupportedDateClassException(String.format("Can't cast to %s", clazz.getName()));
-                }
+            return idAccessor.get(entity);
+        } catch (UndeclaredThrowableException e) {
+            throw new NoIdFoundException(String.format("There was an error invoking the method %s.",
+                    idAccessor.getName()), e.getUndeclaredThrowable());
+        }
+    }
+
+    /**
+     * Converts the ids to the type of the id attribute of the entity, so that equal ids of different types are
+     * grouped, bound and looked up as the same id. Null ids are kept.
+     * @param clazz entity class
+     * @param ids entity ids
+     * @return converted ids, in the same order
+     * @throws IllegalArgumentException if an id can't be converted to the type of the id attribute.
+     */
+    private static List<Object> convertIds(Class<?> clazz, Collection<?> ids) {
+        Class<?> type = EntityMetadata.of(clazz).getIdAccessor().getType();
+        Function<Object, Object> converter = Converters.of(type);
+        List<Object> converted = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            try {
+                converted.add(Objects.isNull(id) ? null : converter.apply(id));
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException(String.format("The id %s can't be converted to %s.", id,
+                        type.getSimpleName()), e);
             }
-        } catch (IllegalAccessException e) {
-            throw new NotSupportedDateClassException(String.format("The value of the %s field could not be accessed",
-                    dateField.getName()), e);
         }
+        return converted;
     }
 
     /**
-     * Set the actual date in updatedAt field.
+     * Set actual date in createdAt field.
      * @param entity entity
      * @param <T> entity type
      */
-    private static <T> void setUpdatedAt(T entity) {
-        setDateField(entity, getUpdatedAtField(entity));
+    private static <T> void setCreatedAt(T entity) {
+        setDateField(entity, EntityMetadata.of(entity.getClass()).getCreatedAtAccessor());
     }
 
     /**
-     * Gets the entity create date field.
+     * Sets actual date in the field specified.
      * @param entity entity
+     * @param dateAccessor accessor of the date field
      * @param <T> entity type
-     * @return createdAt field
      */
-    private static <T> Field getCreatedAtField(T entity) {
-        return getField(entity, "createdAt");
+    private static <T> void setDateField(T entity, PropertyAccessor dateAccessor) {
+        if (Objects.nonNull(dateAccessor)) {
+            dateAccessor.set(entity, currentDate(dateAccessor.getType()));
+        }
+    }
+
+    /**
+     * Creates the actual date as an instance of the date class.
+     * @param clazz date class
+     * @return actual date
+     * @throws NotSupportedDateClassException if the class is not a supported date class.
+     */
+    private static Date currentDate(Class<?> clazz) {
+        Date actualDate = new Date();
+        if (clazz == Date.class) {
+            return actualDate;
+        } else if (clazz == Timestamp.class) {
+            return new Timestamp(actualDate.getTime());
+        } else if (clazz == java.sql.Date.class) {
+            return new java.sql.Date(actualDate.getTime());
+        }
+        throw new NotSupportedDateClassException(String.format("Can't cast to %s", clazz.getName()));
     }
 
     /**
-     * Gets the entity update date field.
+     * Set the actual date in updatedAt field.
      * @param entity entity
      * @param <T> entity type
-     * @return updatedAt field
      */
-    private static <T> Field getUpdatedAtField(T entity) {
-        return getField(entity, "updatedAt");
+    private static <T> void setUpdatedAt(T entity) {
+        setDateField(entity, EntityMetadata.of(entity.getClass()).getUpdatedAtAccessor());
     }
 
     /**
-     * Get an entity field by its name.
-     * @param entity entity
-     * @param name field name
+     * Gets the state of a managed entity as it was read from the database or last flushed, to tell which encrypted
+     * fields were changed. The managed instance can't be used for that, since it may be the same instance that holds
+     * the new values, so the backup clone of the unit of work is returned instead. Entities persisted in the unit of
+     * work and not flushed yet have no backup, so they are returned as they are; their fields were encrypted when
+     * they were persisted.
+     * @param manager entity manager of the unit of work
+     * @param managed managed entity
      * @param <T> entity type
-     * @return field
-     * @throws IllegalArgumentException if entity is null.
+     * @return original state of the entity or {@code null} if managed is {@code null}
      */
-    @Nullable
-    private static <T> Field getField(@NotNull("Entity can't be null") T entity, String name) {
-        try {
-            Class clazz = entity.getClass();
-            Field field = clazz.getDeclaredField(name);
-            field.setAccessible(true);
-            return field;
-        } catch (NoSuchFieldException e) {
-            return null;
+    @SuppressWarnings("unchecked")
+    private static <T> T getOriginal(EntityManager manager, T managed) {
+        UnitOfWorkImpl unitOfWork = manager.unwrap(UnitOfWorkImpl.class);
+        if (Objects.isNull(managed) || !unitOfWork.isObjectRegistered(managed)
+                || unitOfWork.isCloneNewObject(managed)) {
+            return managed;
         }
+        return (T) unitOfWork.getBackupClone(managed, unitOfWork.getDescriptor(managed));
     }
 
     /**
@@ -328,109 +904,113 @@ public class Rostrum {
      * @throws IllegalArgumentException if entity is null.
      */
     private static <T> void compareEncryptedFields(@NotNull("Entity can't be null") T entity, T persisted) {
-        List<Field> fields = getCryptFields(entity.getClass());
-        fields.forEach(field -> {
-            try {
-                field.setAccessible(true);
-                String oActual = (String) field.get(entity);
-                if (Objects.nonNull(persisted)) {
-                    String oPersisted = (String) field.get(persisted);
-                    if (!oActual.equals(oPersisted)) {
-                        encryptField(entity, field);
-                    }
-                } else {
-                    encryptField(entity, field);
+        for (EntityMetadata.CryptField cryptField : EntityMetadata.of(entity.getClass()).getCryptFields()) {
+            PropertyAccessor accessor = cryptField.getAccessor();
+            String oActual = (String) accessor.get(entity);
+            if (Objects.nonNull(persisted)) {
+                String oPersisted = (String) accessor.get(persisted);
+                if (!oActual.equals(oPersisted)) {
+                    encryptField(entity, cryptField);
                 }
-            } catch (IllegalAccessException e) {
-                // ignored because it can not go through here.
+            } else {
+                encryptField(entity, cryptField);
             }
-        });
+        }
     }
 
     /**
      * It encrypts the field in the entity before it is persisted. If the encryption type is one-way proceeds to use
      * the BCrypt method, otherwise AES256 two-way method.
      * @param entity entity
-     * @param field field with Crypt annotation
+     * @param cryptField field with Crypt annotation
      * @param <T> entity type
      * @throws IllegalArgumentException if field is null.
      */
-    private static <T> void encryptField(T entity, @NotNull("Field can't be null") Field field) {
-        try {
-            Crypt crypt = field.getDeclaredAnnotation(Crypt.class);
-            Method method = Crypt.class.getMethod("type");
-            Type type = (Type) method.invoke(crypt);
-            String original = (String) field.get(entity);
-            if (type == Type.ONE_WAY) {
-                String encrypted = BCrypt.hash(original);
-                field.set(entity, encrypted);
-            } else {
-                String encrypted = AES256.encrypt(original);
-                field.set(entity, encrypted);
-            }
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new EncryptionException("There was an error encrypting text.", e);
-        }
+    private static <T> void encryptField(T entity,
+                                         @NotNull("Field can't be null") EntityMetadata.CryptField cryptField) {
+        PropertyAccessor accessor = cryptField.getAccessor();
+        accessor.set(entity, encrypt((String) accessor.get(entity), cryptField.getType()));
     }
 
     /**
-     * Get all the fields with Crypt annotation.
-     * @param clazz entity class
-     * @param <T> entity type
-     * @return fields with Crypt annotation
-     * @throws IllegalArgumentException if class is null.
+     * Encrypts the value with BCrypt if the encryption type is one-way, otherwise with AES256 two-way method.
+     * @param value original value
+     * @param type encryption type
+     * @return encrypted value
      */
-    private static <T> List<Field> getCryptFields(@NotNull("Class can't be null") Class<T> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(Rostrum::hasCryptAnnotation)
-                .collect(Collectors.toList());
+    private static String encrypt(String value, Type type) {
+        return type == Type.ONE_WAY ? BCrypt.hash(value) : AES256.encrypt(value);
     }
 
     /**
-     * Validates if field has {@code Crypt} annotation.
-     * @param f field
-     * @return validation result
+     * Executes a read with the entity manager of the unit of work bound to the current thread. If there is none, a
+     * short-lived entity manager of a replica, or of the primary when the thread wrote recently, is used and closed
+     * afterwards.
+     * @param <R> result type
+     * @param persistenceUnit persistence unit name
+     * @param reader read to be executed
+     * @return read result
      */
-    private static boolean hasCryptAnnotation(Field f) {
-        try {
-            return Objects.nonNull(f.getDeclaredAnnotation(Crypt.class));
-        } catch (NullPointerException e) {
-            return false;
+    private static <R> R read(String persistenceUnit, Function<EntityManager, R> reader) {
+        if (UnitOfWork.isActive(persistenceUnit)) {
+            return reader.apply(Factory.getEntityManager(persistenceUnit));
         }
+        return Factory.read(persistenceUnit, reader);
     }
 
     /**
-     * Validates if field has {@code Id} annotation.
-     * @param f field
-     * @return validation result
+     * Executes the read on each persistence unit, in parallel when there is more than one. The units with a unit of
+     * work open in the current thread are read with its entity manager in the current thread; the rest with a
+     * short-lived entity manager of the factory that serves the reads of the current thread.
+     * @param <R> result type
+     * @param persistenceUnits persistence unit names
+     * @param reader read to be executed with each persistence unit and its entity manager
+     * @return result of each persistence unit, in the same order
      */
-    private static boolean hasIdAnnotation(Field f) {
-        try {
-            return Objects.nonNull(f.getDeclaredAnnotation(Id.class));
-        } catch (NullPointerException e) {
-            return false;
+    private static <R> List<R> readAll(List<String> persistenceUnits, BiFunction<String, EntityManager, R> reader) {
+        if (persistenceUnits.size() == 1) {
+            String persistenceUnit = persistenceUnits.get(0);
+            return Collections.singletonList(read(persistenceUnit, manager -> reader.apply(persistenceUnit, manager)));
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(persistenceUnits.size());
+        for (String persistenceUnit : persistenceUnits) {
+            if (UnitOfWork.isActive(persistenceUnit)) {
+                futures.add(CompletableFuture.completedFuture(
+                        reader.apply(persistenceUnit, Factory.getEntityManager(persistenceUnit))));
+                continue;
+            }
+            // The factory is chosen here, where the read-after-write window of the thread is known
+            EntityManagerFactory factory = Factory.getReadEntityManagerFactory(persistenceUnit);
+            futures.add(Sharding.supplyAsync(() -> {
+                EntityManager manager = factory.createEntityManager();
+                try {
+                    return reader.apply(persistenceUnit, manager);
+                } finally {
+                    manager.close();
+                }
+            }));
         }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(Sharding.join(future));
+        }
+        return results;
     }
 
-    /**
-     * Validates if method has {@code Id} annotation.
-     * @param m method
-     * @return validation result
-     */
-    private static boolean hasIdAnnotation(Method m) {
-        try {
-            return Objects.nonNull(m.getDeclaredAnnotation(Id.class));
-        } catch (NullPointerException e) {
-            return false;
-        }
+    private static <T> List<T> concat(List<List<T>> results) {
+        return results.size() == 1 ? results.get(0)
+                : results.stream().flatMap(List::stream).collect(Collectors.toList());
     }
 
     /**
-     * Gets or create an entity manager to interact with persistence context.
-     * @return entity manager
+     * Validates the entity class has an attribute annotated with {@code Id}.
+     * @param clazz entity class
+     * @throws NoIdFoundException if there's no field or method with the {@code Id} annotation.
      */
-    private static EntityManager getManager() {
-        return Factory.getEntityManager();
+    private static void requireIdAttribute(Class<?> clazz) {
+        if (Objects.isNull(EntityMetadata.of(clazz).getIdAttribute())) {
+            throw new NoIdFoundException("No field or method was found with the javax.persistence.Id annotation.");
+        }
     }
 
     /**
@@ -450,7 +1030,7 @@ public class Rostrum {
      * @throws EntityManagerNotInitializedException if entity manager can not be initialized.
      */
     private static void requireEntityManager() {
-        if (Objects.isNull(getManager())) {
+        if (Objects.isNull(Factory.getEntityManagerFactory(Factory.getDefaultPersistenceUnit()))) {
             throw new EntityManagerNotInitializedException(
                     "EntityManager hasn't been initialized. Check properties file.");
         }
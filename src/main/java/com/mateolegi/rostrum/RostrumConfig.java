@@ -0,0 +1,242 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.exception.PropertyNotFoundException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
+
+/**
+ * Immutable snapshot of {@code rostrum.json}. The file is parsed once and the snapshot is shared by every operation,
+ * so reading the configuration requires no I/O. When the file is watched, a new snapshot replaces the current one
+ * each time the file changes and the listeners are notified.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class RostrumConfig {
+
+    private static final int DEFAULT_BCRYPT_ITERATIONS = 10;
+
+    private final Map<String, Object> properties;
+    private final List<DataSourceConfig> dataSources;
+    private final Map<String, DataSourceConfig> dataSourcesByUnit;
+    private final List<ShardConfig> shards;
+    private final Map<String, ShardConfig> shardsByEntity;
+    private final int bcryptIterations;
+    private final String aesSecretKey;
+    private final String aesSalt;
+
+    private RostrumConfig(Map<String, Object> properties) {
+        this.properties = properties;
+        List<DataSourceConfig> dataSources = new ArrayList<>();
+        Map<String, DataSourceConfig> dataSourcesByUnit = new HashMap<>();
+        Object array = properties.get(DATA_SOURCES);
+        if (array instanceof List) {
+            for (Object item : (List<?>) array) {
+                DataSourceConfig dataSource = new DataSourceConfig(asMap(item));
+                dataSources.add(dataSource);
+                dataSourcesByUnit.putIfAbsent(dataSource.getPersistenceUnit(), dataSource);
+            }
+        }
+        this.dataSources = Collections.unmodifiableList(dataSources);
+        this.dataSourcesByUnit = Collections.unmodifiableMap(dataSourcesByUnit);
+        List<ShardConfig> shards = new ArrayList<>();
+        Map<String, ShardConfig> shardsByEntity = new HashMap<>();
+        Object shardArray = properties.get(SHARDS);
+        if (shardArray instanceof List) {
+            for (Object item : (List<?>) shardArray) {
+                ShardConfig shard = new ShardConfig(asMap(item));
+                shards.add(shard);
+                shardsByEntity.putIfAbsent(shard.getEntity(), shard);
+            }
+        }
+        this.shards = Collections.unmodifiableList(shards);
+        this.shardsByEntity = Collections.unmodifiableMap(shardsByEntity);
+        Map<String, Object> bcrypt = asMap(properties.get(BCRYPT));
+        this.bcryptIterations = bcrypt.get(ITERATIONS) instanceof Number
+                ? ((Number) bcrypt.get(ITERATIONS)).intValue() : DEFAULT_BCRYPT_ITERATIONS;
+        Map<String, Object> aes256 = asMap(properties.get(AES256));
+        this.aesSecretKey = (String) aes256.get(SECRET_KEY);
+        this.aesSalt = (String) aes256.get(SALT);
+    }
+
+    /**
+     * Creates a snapshot of the parsed JSON file. The objects and arrays are copied into unmodifiable collections.
+     * @param json parsed file
+     * @return configuration
+     */
+    @NotNull
+    static RostrumConfig of(@NotNull("JSON can't be null") Map<?, ?> json) {
+        return new RostrumConfig(asMap(json));
+    }
+
+    /**
+     * Gets the configuration currently in use, loading it if it's the first access.
+     * @return configuration
+     * @throws PropertyNotFoundException if {@code rostrum.json} isn't in the classpath or can't be parsed
+     */
+    @NotNull
+    public static RostrumConfig current() {
+        return Properties.getConfig();
+    }
+
+    /**
+     * Reads {@code rostrum.json} again and replaces the current configuration if it changed.
+     * @return {@code true} if the configuration changed
+     */
+    public static boolean reload() {
+        return Properties.reload();
+    }
+
+    /**
+     * Watches {@code rostrum.json} and reloads the configuration each time it changes. It's only possible when the
+     * file is in a directory of the classpath, not inside a jar.
+     * @return {@code true} if the file is being watched
+     */
+    public static boolean watch() {
+        return Properties.startWatching();
+    }
+
+    /**
+     * Stops watching {@code rostrum.json}.
+     */
+    public static void stopWatching() {
+        Properties.stopWatching();
+    }
+
+    /**
+     * Registers a listener that receives the new configuration each time it changes.
+     * @param listener listener
+     */
+    public static void addListener(@NotNull("Listener can't be null") Consumer<RostrumConfig> listener) {
+        Properties.addListener(listener);
+    }
+
+    public static void removeListener(Consumer<RostrumConfig> listener) {
+        Properties.removeListener(listener);
+    }
+
+    public List<DataSourceConfig> getDataSources() {
+        return dataSources;
+    }
+
+    /**
+     * Gets the configuration of the persistence unit.
+     * @param persistenceUnit persistence unit name, {@code null} for the first data source
+     * @return data source configuration
+     * @throws PropertyNotFoundException if there are no data sources or none has the persistence unit name
+     */
+    @NotNull
+    public DataSourceConfig getDataSource(@Nullable String persistenceUnit) {
+        if (dataSources.isEmpty()) {
+            throw new PropertyNotFoundException("No data sources found in the configuration file.");
+        }
+        if (Objects.isNull(persistenceUnit)) {
+            return dataSources.get(0);
+        }
+        DataSourceConfig dataSource = dataSourcesByUnit.get(persistenceUnit);
+        if (Objects.isNull(dataSource)) {
+            throw new PropertyNotFoundException(String
+                    .format("A data source with the name %s was not found", persistenceUnit));
+        }
+        return dataSource;
+    }
+
+    /**
+     * Gets the persistence unit of the first data source.
+     * @return persistence unit name
+     * @throws PropertyNotFoundException if there are no data sources
+     */
+    @NotNull
+    public String getDefaultPersistenceUnit() {
+        if (dataSources.isEmpty()) {
+            throw new PropertyNotFoundException("There is no persistence unit defined in rostrum.json.");
+        }
+        return dataSources.get(0).getPersistenceUnit();
+    }
+
+    public List<ShardConfig> getShards() {
+        return shards;
+    }
+
+    /**
+     * Gets the shard configuration of the entity class or, if it isn't declared, of its nearest sharded superclass.
+     * @param clazz entity class
+     * @return shard configuration or {@code null} if the entity isn't sharded
+     */
+    @Nullable
+    public ShardConfig getShard(@NotNull("Class can't be null") Class<?> clazz) {
+        if (shardsByEntity.isEmpty()) {
+            return null;
+        }
+        for (Class<?> type = clazz; Objects.nonNull(type) && type != Object.class; type = type.getSuperclass()) {
+            ShardConfig shard = shardsByEntity.get(type.getName());
+            if (Objects.nonNull(shard)) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    public int getBcryptIterations() {
+        return bcryptIterations;
+    }
+
+    @Nullable
+    public String getAesSecretKey() {
+        return aesSecretKey;
+    }
+
+    @Nullable
+    public String getAesSalt() {
+        return aesSalt;
+    }
+
+    /**
+     * Gets a top-level attribute of the file. Nested objects and arrays are returned as unmodifiable maps and lists.
+     * @param key attribute name
+     * @return value or {@code null} if it isn't defined
+     */
+    @Nullable
+    public Object get(String key) {
+        return properties.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        Object copy = immutableCopy(value);
+        return copy instanceof Map ? (Map<String, Object>) copy : Collections.emptyMap();
+    }
+
+    private static Object immutableCopy(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, item) -> map.put(String.valueOf(key), immutableCopy(item)));
+            return Collections.unmodifiableMap(map);
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            ((List<?>) value).forEach(item -> list.add(immutableCopy(item)));
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return properties.equals(((RostrumConfig) o).properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return properties.hashCode();
+    }
+}
@@ -0,0 +1,108 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.exception.PropertyNotFoundException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.mateolegi.rostrum.constant.ConfigurationFileConstants.*;
+
+/**
+ * Immutable configuration of a sharded entity, taken from an item of the {@code shards} array. The rows of the entity
+ * are distributed across the persistence units by the hash of the shard key, so the list of units must not change
+ * without moving the rows.
+ * <pre>{@code
+ * "shards": [
+ *   { "entity": "com.example.User", "persistence-units": ["users-0", "users-1"], "shard-key": "tenantId" }
+ * ]
+ * }</pre>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class ShardConfig {
+
+    private final Map<String, Object> properties;
+    private final String entity;
+    private final List<String> persistenceUnits;
+    private final String shardKey;
+
+    ShardConfig(@NotNull("Properties can't be null") Map<String, Object> properties) {
+        this.properties = properties;
+        this.entity = Objects.isNull(properties.get(SHARD_ENTITY)) ? null : properties.get(SHARD_ENTITY).toString();
+        List<String> persistenceUnits = new ArrayList<>();
+        Object units = properties.get(SHARD_PERSISTENCE_UNITS);
+        if (units instanceof List) {
+            ((List<?>) units).forEach(unit -> persistenceUnits.add(String.valueOf(unit)));
+        }
+        if (Objects.isNull(entity) || persistenceUnits.isEmpty()) {
+            throw new PropertyNotFoundException(String.format("The shard of %s must define the entity and its "
+                    + "persistence units.", entity));
+        }
+        this.persistenceUnits = Collections.unmodifiableList(persistenceUnits);
+        this.shardKey = Objects.isNull(properties.get(SHARD_KEY)) ? null : properties.get(SHARD_KEY).toString();
+    }
+
+    /**
+     * Gets the fully qualified class name of the sharded entity.
+     * @return class name
+     */
+    @NotNull
+    public String getEntity() {
+        return entity;
+    }
+
+    /**
+     * Gets the persistence units that hold the shards, in shard order.
+     * @return persistence unit names
+     */
+    @NotNull
+    public List<String> getPersistenceUnits() {
+        return persistenceUnits;
+    }
+
+    /**
+     * Gets the attribute whose value selects the shard of each entity.
+     * @return attribute name or {@code null} if the id is used
+     */
+    @Nullable
+    public String getShardKey() {
+        return shardKey;
+    }
+
+    /**
+     * Gets the persistence unit of the shard that holds the entities with the shard key value. Integral numbers are
+     * hashed by their value, so an {@code Integer} and a {@code Long} select the same shard, and enums by their name;
+     * any other value by its {@code hashCode}, which must not change between executions, as it happens with
+     * {@code String} and {@code UUID}.
+     * @param key shard key value
+     * @return persistence unit name
+     */
+    @NotNull
+    public String getPersistenceUnit(@NotNull("Shard key can't be null") Object key) {
+        return persistenceUnits.get(Math.floorMod(hash(key), persistenceUnits.size()));
+    }
+
+    /**
+     * Gets an attribute of the item.
+     * @param key attribute name
+     * @return value or {@code null} if it isn't defined
+     */
+    @Nullable
+    public Object get(String key) {
+        return properties.get(key);
+    }
+
+    private static int hash(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return Long.hashCode(((Number) key).longValue());
+        } else if (key instanceof Enum) {
+            return ((Enum<?>) key).name().hashCode();
+        }
+        return key.hashCode();
+    }
+}
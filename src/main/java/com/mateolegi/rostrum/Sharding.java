@@ -0,0 +1,147 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Routes the operations on an entity to the persistence units that hold it. Entities that aren't declared in the
+ * {@code shards} section of {@code rostrum.json} live in the default persistence unit; sharded entities live in the
+ * unit selected by their shard key, and the queries that can't be routed are run on every shard in parallel.
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ * @see ShardConfig
+ */
+final class Sharding {
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "rostrum-shard-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Sharding() {
+    }
+
+    /**
+     * Gets all the persistence units that hold entities of the class.
+     * @param clazz entity class
+     * @return persistence unit names
+     */
+    @NotNull
+    static List<String> getPersistenceUnits(Class<?> clazz) {
+        ShardConfig shard = Properties.getConfig().getShard(clazz);
+        return Objects.isNull(shard) ? Collections.singletonList(Factory.getDefaultPersistenceUnit())
+                : shard.getPersistenceUnits();
+    }
+
+    /**
+     * Gets the persistence unit that holds the entity.
+     * @param entity entity
+     * @return persistence unit name
+     * @throws IllegalArgumentException if the entity is sharded and its shard key is null
+     */
+    @NotNull
+    static String getPersistenceUnit(@NotNull("Entity can't be null") Object entity) {
+        ShardConfig shard = Properties.getConfig().getShard(entity.getClass());
+        if (Objects.isNull(shard)) {
+            return Factory.getDefaultPersistenceUnit();
+        }
+        PropertyAccessor accessor = getShardKeyAccessor(entity.getClass(), shard);
+        Object key = accessor.get(entity);
+        if (Objects.isNull(key)) {
+            throw new IllegalArgumentException(String.format("The shard key %s of %s can't be null.",
+                    accessor.getName(), entity.getClass().getSimpleName()));
+        }
+        return shard.getPersistenceUnit(key);
+    }
+
+    /**
+     * Gets the persistence units that may hold the entity with the id: the shard of the id, or all the shards if the
+     * entity is sharded by another attribute.
+     * @param clazz entity class
+     * @param id entity id
+     * @return persistence unit names
+     */
+    @NotNull
+    static List<String> getPersistenceUnits(Class<?> clazz, @NotNull("Id can't be null") Object id) {
+        return new ArrayList<>(groupById(clazz, Collections.singletonList(id)).keySet());
+    }
+
+    /**
+     * Groups the ids by the persistence unit that holds their entities. If the entity is sharded by an attribute other
+     * than the id, every shard receives all the ids.
+     * @param clazz entity class
+     * @param ids entity ids
+     * @return ids by persistence unit name, in shard order
+     */
+    @NotNull
+    static Map<String, List<Object>> groupById(Class<?> clazz, Collection<?> ids) {
+        ShardConfig shard = Properties.getConfig().getShard(clazz);
+        Map<String, List<Object>> groups = new LinkedHashMap<>();
+        if (Objects.isNull(shard)) {
+            groups.put(Factory.getDefaultPersistenceUnit(), new ArrayList<>(ids));
+        } else if (isShardedById(clazz, shard)) {
+            shard.getPersistenceUnits().forEach(persistenceUnit -> groups.put(persistenceUnit, new ArrayList<>()));
+            for (Object id : ids) {
+                if (Objects.nonNull(id)) {
+                    groups.get(shard.getPersistenceUnit(id)).add(id);
+                }
+            }
+            groups.values().removeIf(List::isEmpty);
+        } else {
+            shard.getPersistenceUnits().forEach(persistenceUnit -> groups.put(persistenceUnit, new ArrayList<>(ids)));
+        }
+        return groups;
+    }
+
+    /**
+     * Runs the task in the thread pool of the shard queries.
+     * @param <R> result type
+     * @param task task
+     * @return future result
+     */
+    static <R> CompletableFuture<R> supplyAsync(Supplier<R> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Waits for the result of a shard query, rethrowing the exception it failed with.
+     * @param <R> result type
+     * @param future future result
+     * @return result
+     */
+    static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isShardedById(Class<?> clazz, ShardConfig shard) {
+        return Objects.isNull(shard.getShardKey())
+                || shard.getShardKey().equals(EntityMetadata.of(clazz).getIdAttribute());
+    }
+
+    private static PropertyAccessor getShardKeyAccessor(Class<?> clazz, ShardConfig shard) {
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        PropertyAccessor accessor = Objects.isNull(shard.getShardKey())
+                ? metadata.getIdAccessor() : metadata.getAccessor(shard.getShardKey());
+        if (Objects.isNull(accessor)) {
+            throw new IllegalArgumentException(String.format("The shard key %s doesn't exist in %s.",
+                    Objects.isNull(shard.getShardKey()) ? "id" : shard.getShardKey(), clazz.getSimpleName()));
+        }
+        return accessor;
+    }
+}
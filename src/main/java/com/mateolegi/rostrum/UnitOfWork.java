@@ -0,0 +1,179 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Scope of work bound to the current thread. All the operations executed while the scope is open share the same
+ * {@code EntityManager} and the same resource-local transaction of the persistence unit. <br>
+ * Scopes can be nested: an inner scope joins the unit of work opened by the outer one, and only the outermost
+ * scope commits or rolls back the transaction and closes the {@code EntityManager}. If a scope is closed without
+ * calling {@link #commit()} the whole unit of work is marked for rollback.
+ * <pre>{@code
+ * try (UnitOfWork unitOfWork = Factory.openUnitOfWork()) {
+ *     Rostrum.save(user);
+ *     Rostrum.save(post);
+ *     unitOfWork.commit();
+ * }
+ * }</pre>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<Map<String, Context>> CONTEXTS = ThreadLocal.withInitial(HashMap::new);
+
+    private final Context context;
+    private final boolean outermost;
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(Context context, boolean outermost) {
+        this.context = context;
+        this.outermost = outermost;
+    }
+
+    /**
+     * Opens a scope for the persistence unit. If the current thread already has a unit of work for it, the scope
+     * joins it; otherwise a new {@code EntityManager} is created and its transaction is started.
+     * @param persistenceUnit persistence unit name
+     * @return opened scope
+     */
+    @NotNull
+    static UnitOfWork open(@NotNull("Persistence unit can't be null") String persistenceUnit) {
+        Map<String, Context> contexts = CONTEXTS.get();
+        Context context = contexts.get(persistenceUnit);
+        if (Objects.nonNull(context)) {
+            return new UnitOfWork(context, false);
+        }
+        EntityManager manager = Factory.getEntityManagerFactory(persistenceUnit).createEntityManager();
+        try {
+            manager.getTransaction().begin();
+        } catch (RuntimeException e) {
+            manager.close();
+            throw e;
+        }
+        context = new Context(persistenceUnit, manager);
+        contexts.put(persistenceUnit, context);
+        return new UnitOfWork(context, true);
+    }
+
+    /**
+     * Gets the {@code EntityManager} of the unit of work bound to the current thread.
+     * @param persistenceUnit persistence unit name
+     * @return entity manager or {@code null} if there is no unit of work for the persistence unit
+     */
+    @Nullable
+    static EntityManager currentEntityManager(String persistenceUnit) {
+        Context context = CONTEXTS.get().get(persistenceUnit);
+        return Objects.isNull(context) ? null : context.manager;
+    }
+
+    /**
+     * Validates if the current thread has a unit of work open for the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return validation result
+     */
+    static boolean isActive(String persistenceUnit) {
+        return CONTEXTS.get().containsKey(persistenceUnit);
+    }
+
+    /**
+     * Gets the entity manager shared by every operation of this unit of work.
+     * @return entity manager
+     */
+    public EntityManager getEntityManager() {
+        return context.manager;
+    }
+
+    /**
+     * Gets the persistence unit name of this unit of work.
+     * @return persistence unit name
+     */
+    public String getPersistenceUnit() {
+        return context.persistenceUnit;
+    }
+
+    /**
+     * Marks this scope as successfully completed. The outermost scope commits the transaction; inner scopes leave
+     * the decision to it.
+     * @throws IllegalStateException if the scope is already closed
+     * @throws javax.persistence.RollbackException if an inner scope failed or the commit fails
+     */
+    public void commit() {
+        requireOpen();
+        committed = true;
+        if (outermost) {
+            EntityTransaction transaction = context.manager.getTransaction();
+            if (transaction.isActive()) {
+                transaction.commit();
+                Factory.recordWrite(context.persistenceUnit);
+            }
+        }
+    }
+
+    /**
+     * Marks the whole unit of work so that it can only be rolled back.
+     * @throws IllegalStateException if the scope is already closed
+     */
+    public void setRollbackOnly() {
+        requireOpen();
+        EntityTransaction transaction = context.manager.getTransaction();
+        if (transaction.isActive()) {
+            transaction.setRollbackOnly();
+        }
+    }
+
+    /**
+     * Closes the scope. If it wasn't committed the transaction is rolled back, or marked for rollback in the case of
+     * an inner scope. The outermost scope also closes the {@code EntityManager} and unbinds it from the thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        EntityTransaction transaction = context.manager.getTransaction();
+        try {
+            if (!committed && transaction.isActive()) {
+                if (outermost) {
+                    transaction.rollback();
+                } else {
+                    transaction.setRollbackOnly();
+                }
+            }
+        } finally {
+            if (outermost) {
+                CONTEXTS.get().remove(context.persistenceUnit);
+                context.manager.close();
+            }
+        }
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new IllegalStateException("The unit of work is already closed.");
+        }
+    }
+
+    /**
+     * State shared by all the scopes of the same unit of work.
+     */
+    private static class Context {
+
+        private final String persistenceUnit;
+        private final EntityManager manager;
+
+        private Context(String persistenceUnit, EntityManager manager) {
+            this.persistenceUnit = persistenceUnit;
+            this.manager = manager;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.constant.DatabaseProvider;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Insert-or-update statement of an entity table that is executed in a single round trip, written in the syntax of
+ * each database provider:
+ * <ul>
+ *     <li> PostgreSQL: {@code INSERT ... ON CONFLICT (id) DO UPDATE} </li>
+ *     <li> MariaDB and MySQL: {@code INSERT ... ON DUPLICATE KEY UPDATE} </li>
+ *     <li> H2 and Oracle: {@code MERGE INTO ... USING DUAL} </li>
+ *     <li> HSQLDB: {@code MERGE INTO ... USING (VALUES ...)} </li>
+ * </ul>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+final class UpsertStatement {
+
+    private static final Map<List<Object>, Optional<UpsertStatement>> STATEMENTS = new ConcurrentHashMap<>();
+
+    private final String sql;
+    private final List<DatabaseField> parameters;
+
+    private UpsertStatement(String sql, List<DatabaseField> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Gets the statement for the entity described by the descriptor. Statements are built once per provider and
+     * entity class.
+     * @param provider database provider name
+     * @param descriptor descriptor of the entity
+     * @param session session used to build the entity rows
+     * @return statement or {@code null} if the provider or the mapping of the entity is not supported
+     */
+    @Nullable
+    static UpsertStatement of(@Nullable String provider,
+                              @NotNull("Descriptor can't be null") ClassDescriptor descriptor,
+                              @NotNull("Session can't be null") AbstractSession session) {
+        if (Objects.isNull(provider)) {
+            return null;
+        }
+        return STATEMENTS.computeIfAbsent(Arrays.asList(provider, descriptor.getJavaClass()),
+                key -> Optional.ofNullable(build(provider, descriptor, session))).orElse(null);
+    }
+
+    /**
+     * Gets the SQL of the statement, with positional parameters in the order of {@link #getParameters}.
+     * @return SQL statement
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets the values to be bound, in order, taken from the row built for the entity.
+     * @param row row with the values of the entity
+     * @return values to be bound
+     */
+    List<Object> getParameters(AbstractRecord row) {
+        List<Object> values = new ArrayList<>(parameters.size());
+        for (DatabaseField parameter : parameters) {
+            values.add(row.get(parameter));
+        }
+        return values;
+    }
+
+    @Nullable
+    private static UpsertStatement build(String provider, ClassDescriptor descriptor, AbstractSession session) {
+        if (descriptor.getTables().size() != 1 || descriptor.getPrimaryKeyFields().isEmpty()) {
+            return null;
+        }
+        DatasourcePlatform platform = (DatasourcePlatform) session.getDatasourcePlatform();
+        List<DatabaseField> fields = new ArrayList<>(descriptor.getObjectBuilder()
+                .buildRow(descriptor.getObjectBuilder().buildNewInstance(), session,
+                        DatabaseMapping.WriteType.INSERT).getFields());
+        List<String> columns = fields.stream()
+                .map(field -> field.getNameDelimited(platform))
+                .collect(Collectors.toList());
+        List<String> keys = descriptor.getPrimaryKeyFields().stream()
+                .map(field -> field.getNameDelimited(platform))
+                .collect(Collectors.toList());
+        Set<String> insertOnly = new HashSet<>(keys);
+        DatabaseMapping createdAt = descriptor.getMappingForAttributeName("createdAt");
+        if (Objects.nonNull(createdAt) && Objects.nonNull(createdAt.getField())) {
+            insertOnly.add(createdAt.getField().getNameDelimited(platform));
+        }
+        String table = descriptor.getDefaultTable().getQualifiedNameDelimited(platform);
+        String sql = sql(provider, table, columns, keys, insertOnly);
+        if (Objects.isNull(sql)) {
+            return null;
+        }
+        List<DatabaseField> parameters = parameters(provider, columns, keys, insertOnly).stream()
+                .map(column -> fields.get(columns.indexOf(column)))
+                .collect(Collectors.toList());
+        return new UpsertStatement(sql, parameters);
+    }
+
+    /**
+     * Writes the upsert statement in the syntax of the provider.
+     * @param provider database provider name
+     * @param table table name
+     * @param columns all the columns that are inserted
+     * @param keys primary key columns
+     * @param insertOnly columns that are not modified when the row already exists
+     * @return SQL statement or {@code null} if the provider has no single-statement upsert
+     */
+    @Nullable
+    static String sql(String provider, String table, List<String> columns, List<String> keys,
+                      Set<String> insertOnly) {
+        List<String> updated = updated(columns, insertOnly);
+        String columnList = String.join(", ", columns);
+        String parameters = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        if (DatabaseProvider.POSTGRES.equals(provider)) {
+            return "INSERT INTO " + table + " (" + columnList + ") VALUES (" + parameters + ") ON CONFLICT ("
+                    + String.join(", ", keys) + ") DO " + (updated.isEmpty() ? "NOTHING" : "UPDATE SET "
+                    + join(updated, column -> column + " = EXCLUDED." + column));
+        } else if (DatabaseProvider.MYSQL.equals(provider) || DatabaseProvider.MARIADB.equals(provider)) {
+            return "INSERT INTO " + table + " (" + columnList + ") VALUES (" + parameters
+                    + ") ON DUPLICATE KEY UPDATE " + (updated.isEmpty() ? keys.get(0) + " = " + keys.get(0)
+                    : join(updated, column -> column + " = VALUES(" + column + ")"));
+        } else if (DatabaseProvider.H2.equals(provider) || DatabaseProvider.ORACLE.equals(provider)) {
+            // The values are bound directly because the parameters of a derived table have no type
+            return "MERGE INTO " + table + " t USING DUAL ON (" + join(keys, column -> "t." + column + " = ?") + ")"
+                    + (updated.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET "
+                    + join(updated, column -> "t." + column + " = ?"))
+                    + " WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + parameters + ")";
+        } else if (DatabaseProvider.HSQLDB.equals(provider)) {
+            return "MERGE INTO " + table + " t USING (VALUES (" + parameters + ")) AS s (" + columnList + ") ON ("
+                    + join(keys, column -> "t." + column + " = s." + column) + ")"
+                    + (updated.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET "
+                    + join(updated, column -> "t." + column + " = s." + column))
+                    + " WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES ("
+                    + join(columns, column -> "s." + column) + ")";
+        }
+        return null;
+    }
+
+    /**
+     * Gets the columns whose values are bound to the statement, in the order of its positional parameters.
+     * @param provider database provider name
+     * @param columns all the columns that are inserted
+     * @param keys primary key columns
+     * @param insertOnly columns that are not modified when the row already exists
+     * @return columns of each parameter
+     */
+    static List<String> parameters(String provider, List<String> columns, List<String> keys,
+                                   Set<String> insertOnly) {
+        if (DatabaseProvider.H2.equals(provider) || DatabaseProvider.ORACLE.equals(provider)) {
+            List<String> parameters = new ArrayList<>(keys);
+            parameters.addAll(updated(columns, insertOnly));
+            parameters.addAll(columns);
+            return parameters;
+        }
+        return columns;
+    }
+
+    private static List<String> updated(List<String> columns, Set<String> insertOnly) {
+        return columns.stream()
+                .filter(column -> !insertOnly.contains(column))
+                .collect(Collectors.toList());
+    }
+
+    private static String join(List<String> columns, Function<String, String> mapper) {
+        return columns.stream().map(mapper).collect(Collectors.joining(", "));
+    }
+}
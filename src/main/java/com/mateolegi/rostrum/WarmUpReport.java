@@ -0,0 +1,131 @@
+package com.mateolegi.rostrum;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Result of {@link Factory#warmUp()}: the time that each phase took for every persistence unit and the units that
+ * couldn't be warmed up. The phases are:
+ * <ul>
+ *     <li> {@link #DEPLOY}: creation of the entity manager factories of the unit and its replicas. </li>
+ *     <li> {@link #CONNECT}: login of the sessions and opening of the minimum connections of each pool. </li>
+ *     <li> {@link #METADATA}: resolution of the metadata of each entity and parsing of its queries. </li>
+ * </ul>
+ * @author <a href="mateolegi.github.io">Mateo Leal</a>
+ * @version 1.0.0
+ */
+public final class WarmUpReport {
+
+    /**
+     * Phase in which the entity manager factories are created.
+     */
+    public static final String DEPLOY = "deploy";
+
+    /**
+     * Phase in which the sessions log in and the pools open their minimum connections.
+     */
+    public static final String CONNECT = "connect";
+
+    /**
+     * Phase in which the metadata of the entities is resolved.
+     */
+    public static final String METADATA = "metadata";
+
+    private final Map<String, Map<String, Long>> durations;
+    private final Map<String, Throwable> failures;
+    private final long totalTime;
+
+    WarmUpReport(Map<String, Map<String, Long>> durations, Map<String, Throwable> failures, long totalTime) {
+        Map<String, Map<String, Long>> copy = new LinkedHashMap<>();
+        durations.forEach((persistenceUnit, phases) ->
+                copy.put(persistenceUnit, Collections.unmodifiableMap(new LinkedHashMap<>(phases))));
+        this.durations = Collections.unmodifiableMap(copy);
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        this.totalTime = totalTime;
+    }
+
+    /**
+     * Gets the persistence units that were warmed up, including the ones that failed.
+     * @return persistence unit names
+     */
+    @NotNull
+    public Set<String> getPersistenceUnits() {
+        return durations.keySet();
+    }
+
+    /**
+     * Gets the time in milliseconds of each completed phase of the persistence unit, in execution order.
+     * @param persistenceUnit persistence unit name
+     * @return milliseconds by phase, empty if the unit wasn't warmed up
+     */
+    @NotNull
+    public Map<String, Long> getDurations(String persistenceUnit) {
+        return durations.getOrDefault(persistenceUnit, Collections.emptyMap());
+    }
+
+    /**
+     * Gets the time in milliseconds that a phase took for the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @param phase phase name
+     * @return milliseconds or {@code -1} if the phase wasn't completed
+     */
+    public long getDuration(String persistenceUnit, String phase) {
+        return getDurations(persistenceUnit).getOrDefault(phase, -1L);
+    }
+
+    /**
+     * Gets the wall-clock time in milliseconds of the whole warm-up. As the units are warmed up in parallel it is
+     * close to the time of the slowest one.
+     * @return milliseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Gets the error of each persistence unit that couldn't be warmed up.
+     * @return errors by persistence unit name
+     */
+    @NotNull
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the error of the persistence unit.
+     * @param persistenceUnit persistence unit name
+     * @return error or {@code null} if the unit was warmed up
+     */
+    @Nullable
+    public Throwable getFailure(String persistenceUnit) {
+        return failures.get(persistenceUnit);
+    }
+
+    /**
+     * Validates that every persistence unit was warmed up.
+     * @return validation result
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Warm-up finished in ").append(totalTime).append(" ms");
+        durations.forEach((persistenceUnit, phases) -> {
+            builder.append(System.lineSeparator()).append(persistenceUnit).append(':');
+            phases.forEach((phase, time) -> builder.append(' ').append(phase).append(' ').append(time).append(" ms"));
+            Throwable failure = failures.get(persistenceUnit);
+            if (Objects.nonNull(failure)) {
+                builder.append(" failed: ").append(failure);
+            }
+        });
+        return builder.toString();
+    }
+}
@@ -58,6 +58,11 @@ public class ConfigurationFileConstants {
      */
     public static final String DATABASE_URL = "url";
 
+    /**
+     * Driver parameters added to the url, a null value removes a default of the provider and false removes all
+     */
+    public static final String URL_PARAMETERS = "url-parameters";
+
 
     /**
      * Driver class name
@@ -69,6 +74,116 @@ public class ConfigurationFileConstants {
      */
     public static final String ENTITY_PACKAGE = "entity-package";
 
+    /**
+     * Number of statements sent to the database in one JDBC batch, also used as the chunk size of bulk operations
+     */
+    public static final String BATCH_SIZE = "batch-size";
+
+    /**
+     * Number of rows fetched from the database in each round trip when streaming results
+     */
+    public static final String FETCH_SIZE = "fetch-size";
+
+    /**
+     * Prepared statements cached per connection of the internal pool, 0 to disable the cache
+     */
+    public static final String STATEMENT_CACHE_SIZE = "statement-cache-size";
+
+    /**
+     * Batch writing mode: JDBC, Oracle-JDBC, Buffered or None
+     */
+    public static final String BATCH_WRITING = "batch-writing";
+
+    /**
+     * Whether the values of the statements are sent as bind parameters
+     */
+    public static final String BIND_PARAMETERS = "bind-parameters";
+
+    /**
+     * Whether the values are bound even where the database platform would write them as literals
+     */
+    public static final String FORCE_BIND_PARAMETERS = "force-bind-parameters";
+
+    /**
+     * Connection pool configurations of the data source
+     */
+    public static final String POOL = "pool";
+
+    /**
+     * Connections opened when the pool starts
+     */
+    public static final String POOL_INITIAL = "initial";
+
+    /**
+     * Minimum connections of the pool
+     */
+    public static final String POOL_MIN = "min";
+
+    /**
+     * Maximum connections of the pool
+     */
+    public static final String POOL_MAX = "max";
+
+    /**
+     * Milliseconds to wait for a free connection
+     */
+    public static final String POOL_WAIT = "wait";
+
+    /**
+     * Whether read connections are shared among threads
+     */
+    public static final String POOL_SHARED = "shared";
+
+    /**
+     * Pool configurations of the read connections
+     */
+    public static final String POOL_READ = "read";
+
+    /**
+     * SQL used to validate the connections
+     */
+    public static final String POOL_VALIDATION_QUERY = "validation-query";
+
+    /**
+     * Class that creates the pooled data source instead of the internal pool
+     */
+    public static final String POOL_DATA_SOURCE_PROVIDER = "data-source-provider";
+
+    /**
+     * Array of read replicas of the data source, each one overrides the connection attributes of the primary
+     */
+    public static final String REPLICAS = "replicas";
+
+    /**
+     * Policy used to pick a replica for each read: round-robin or least-loaded
+     */
+    public static final String REPLICA_BALANCING = "replica-balancing";
+
+    /**
+     * Milliseconds after a write during which the reads of the same thread go to the primary
+     */
+    public static final String READ_AFTER_WRITE_WINDOW = "read-after-write-window";
+
+    /**
+     * Array of entities whose rows are distributed across several persistence units
+     */
+    public static final String SHARDS = "shards";
+
+    /**
+     * Fully qualified class name of the sharded entity
+     */
+    public static final String SHARD_ENTITY = "entity";
+
+    /**
+     * Persistence units that hold the shards of the entity, in shard order
+     */
+    public static final String SHARD_PERSISTENCE_UNITS = "persistence-units";
+
+    /**
+     * Attribute whose value selects the shard of each entity, the id if it isn't defined
+     */
+    public static final String SHARD_KEY = "shard-key";
+
     /**
      * Bcrypt configurations
      */
@@ -3,8 +3,10 @@ package com.mateolegi.rostrum.constant;
 import com.mateolegi.rostrum.DBProvider;
 import com.mateolegi.rostrum.exception.DatabaseNotSupportedException;
 import com.mateolegi.rostrum.exception.DriverNotFoundException;
+import org.eclipse.persistence.config.BatchWriting;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -23,18 +25,48 @@ public class DatabaseProvider {
             { DERBY, new DBProvider(DERBY, "org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:?database") },
             { H2, new DBProvider(H2, "org.h2.Driver", "jdbc:h2:?database") },
             { HSQLDB, new DBProvider(HSQLDB, "org.hsqldb.jdbcDriver", "jdbc:hsqldb:?database") },
+            // Without the rewrite the driver sends the statements of a batch one by one
             { MARIADB, new DBProvider(MARIADB, "org.mariadb.jdbc.Driver",
-                    "jdbc:mariadb://?host:?port/?database") },
-            { MYSQL, new DBProvider(MYSQL, "com.mysql.jdbc.Driver", "jdbc:mysql://?host:?port/?database") },
+                    "jdbc:mariadb://?host:?port/?database", 65535, DBProvider.DEFAULT_STATEMENT_CACHE_SIZE,
+                    BatchWriting.JDBC, DBProvider.QUERY_STRING, parameters(
+                    "rewriteBatchedStatements", "true",
+                    "cachePrepStmts", "true",
+                    "prepStmtCacheSize", "250",
+                    "prepStmtCacheSqlLimit", "2048")) },
+            { MYSQL, new DBProvider(MYSQL, "com.mysql.jdbc.Driver",
+                    "jdbc:mysql://?host:?port/?database", 65535, DBProvider.DEFAULT_STATEMENT_CACHE_SIZE,
+                    BatchWriting.JDBC, DBProvider.QUERY_STRING, parameters(
+                    "rewriteBatchedStatements", "true",
+                    "useServerPrepStmts", "true",
+                    "cachePrepStmts", "true",
+                    "prepStmtCacheSize", "250",
+                    "prepStmtCacheSqlLimit", "2048",
+                    "useLocalSessionState", "true",
+                    "cacheServerConfiguration", "true")) },
+            // The statements are reused through the statement cache, so they are prepared on the server from the
+            // first execution; set prepareThreshold to 0 behind poolers that don't keep the server session
             { POSTGRES, new DBProvider(POSTGRES, "org.postgresql.Driver",
-                    "jdbc:postgresql://?host:?port/?database") },
+                    "jdbc:postgresql://?host:?port/?database", 32767, DBProvider.DEFAULT_STATEMENT_CACHE_SIZE,
+                    BatchWriting.JDBC, DBProvider.QUERY_STRING, parameters(
+                    "reWriteBatchedInserts", "true",
+                    "prepareThreshold", "1")) },
+            // Every cached statement keeps a cursor open, and Oracle allows 300 per session by default
             { ORACLE, new DBProvider(ORACLE, "oracle.jdbc.driver.OracleDriver",
-                    "jdbc:oracle:thin:@?host:?port:?database") }
+                    "jdbc:oracle:thin:@?host:?port:?database", 1000, 50, BatchWriting.JDBC, DBProvider.SEMICOLON,
+                    Collections.emptyMap()) }
     }).collect(Collectors.collectingAndThen(
             Collectors.toMap(data -> (String) data[0], data -> (DBProvider) data[1]),
             Collections::unmodifiableMap
     ));
 
+    private static Map<String, String> parameters(String... namesAndValues) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            parameters.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
     public static DBProvider getDatabaseProvider(String databaseProvider) {
         if (!PROVIDERS.containsKey(databaseProvider)) {
             throw new DatabaseNotSupportedException(databaseProvider + " is not supported.");
@@ -0,0 +1,12 @@
+package com.mateolegi.rostrum.exception;
+
+public class DataSourceNotCreatedException extends RuntimeException {
+
+    public DataSourceNotCreatedException(String message) {
+        super(message);
+    }
+
+    public DataSourceNotCreatedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,9 @@
 package com.mateolegi.rostrum.number_cast;
 
+/**
+ * @deprecated see {@link NumberCast}.
+ */
+@Deprecated
 public class FloatCast implements NumberCast {
 
     @Override
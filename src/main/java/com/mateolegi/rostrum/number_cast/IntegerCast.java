@@ -1,5 +1,9 @@
 package com.mateolegi.rostrum.number_cast;
 
+/**
+ * @deprecated see {@link NumberCast}.
+ */
+@Deprecated
 public class IntegerCast implements NumberCast {
 
     @Override
@@ -1,11 +1,15 @@
 package com.mateolegi.rostrum.number_cast;
 
+/**
+ * @deprecated see {@link NumberCast}.
+ */
+@Deprecated
 public class LongCast implements NumberCast {
 
     @Override
     public Number cast(Object o) {
         if (o instanceof String) {
-            Long.parseLong((String) o);
+            return Long.parseLong((String) o);
         }
         return ((Number) o).longValue();
     }
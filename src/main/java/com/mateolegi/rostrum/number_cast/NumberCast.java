@@ -2,7 +2,10 @@ package com.mateolegi.rostrum.number_cast;
 
 /**
  * @author <a href="https://mateolegi.github.io"> Mateo Leal </a>
+ * @deprecated {@code EntityFactory} no longer uses these casts; it converts the values with its own converters, which
+ * also support primitive fields, {@code BigDecimal}, {@code BigInteger}, {@code Short} and {@code Byte}.
  */
+@Deprecated
 public interface NumberCast {
 
     /**
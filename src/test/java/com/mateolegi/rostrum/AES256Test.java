@@ -1,10 +1,13 @@
 package com.mateolegi.rostrum;
 
+import com.mateolegi.rostrum.exception.DecryptionException;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AES256Test {
 
@@ -61,4 +64,12 @@ class AES256Test {
         String encrypted = AES256.encrypt(original);
         assertEquals(original, AES256.decrypt(encrypted));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("AES256 recovers after a failed decryption")
+    void decryptAfterFailure() {
+        String encrypted = AES256.encrypt("abc");
+        assertThrows(DecryptionException.class, () -> AES256.decrypt(encrypted.substring(4)));
+        assertEquals("abc", AES256.decrypt(encrypted));
+    }
+}
@@ -0,0 +1,46 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainedSpliteratorTest {
+
+    @Test
+    void sourcesAreOpenedLazily() {
+        List<String> opened = new ArrayList<>();
+        List<String> closed = new ArrayList<>();
+        Function<String, Stream<String>> opener = source -> {
+            opened.add(source);
+            return (source.equals("empty") ? Stream.<String>empty() : Stream.of(source + 1, source + 2))
+                    .onClose(() -> closed.add(source));
+        };
+        List<String> sources = Arrays.asList("a", "empty", "b", "c");
+        try (Stream<String> stream = ChainedSpliterator.stream(sources, opener)) {
+            assertEquals(Arrays.asList("a1", "a2", "b1"), stream.limit(3).collect(Collectors.toList()));
+            // The exhausted sources are closed as soon as they end, the last one is still open
+            assertEquals(Arrays.asList("a", "empty", "b"), opened);
+            assertEquals(Arrays.asList("a", "empty"), closed);
+        }
+        assertEquals(Arrays.asList("a", "empty", "b"), closed);
+        opened.clear();
+        closed.clear();
+        try (Stream<String> stream = ChainedSpliterator.stream(sources, opener)) {
+            assertEquals("a1", stream.findFirst().orElse(null));
+        }
+        assertEquals(Arrays.asList("a"), opened);
+        assertEquals(Arrays.asList("a"), closed);
+        closed.clear();
+        try (Stream<String> stream = ChainedSpliterator.stream(sources, opener)) {
+            assertEquals(Arrays.asList("a1", "a2", "b1", "b2", "c1", "c2"), stream.collect(Collectors.toList()));
+        }
+        assertEquals(sources, closed);
+    }
+}
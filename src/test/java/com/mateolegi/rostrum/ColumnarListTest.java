@@ -0,0 +1,37 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarListTest {
+
+    @Test
+    void columns() {
+        ColumnarList<List<?>> list = new ColumnarList<>(Arrays.asList("ID", "NAME", "SCORE", "RANK", "EXTRA"),
+                ArrayList::new);
+        for (long id = 1; id <= 200; id++) {
+            list.addRow(Arrays.asList(id, id % 2 == 0 ? "even" : "odd", id == 100 ? null : id / 2.0,
+                    id <= 150 ? null : (short) id, id == 200 ? "text" : (Object) (int) id));
+        }
+        list.complete();
+        assertEquals(200, list.size());
+        assertEquals(Arrays.asList(7L, "odd", 3.5, null, 7), list.get(6));
+        assertEquals(Arrays.asList(200L, "even", 100.0, (short) 200, "text"), list.get(199));
+        assertEquals(20100L, list.longs("id").sum());
+        assertEquals(199, list.doubles("score").count());
+        assertTrue(list.isNull(99, "score"));
+        assertEquals(0D, list.getDouble(99, "score"));
+        assertEquals(175L, list.getLong(174, "rank"));
+        assertEquals(Short.valueOf((short) 175), list.getValue(174, "RANK"));
+        assertEquals(Integer.valueOf(42), list.getValue(41, "extra"));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(200));
+        assertThrows(IllegalArgumentException.class, () -> list.getLong(0, "missing"));
+        assertThrows(ClassCastException.class, () -> list.getLong(0, "name"));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    }
+}
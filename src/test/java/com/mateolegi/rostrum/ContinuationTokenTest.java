@@ -0,0 +1,43 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContinuationTokenTest {
+
+    @Test
+    void roundTrip() {
+        Timestamp timestamp = new Timestamp(1_560_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        UUID uuid = UUID.randomUUID();
+        String encoded = ContinuationToken.encode("createdAt", true,
+                Arrays.asList(timestamp, 42L, uuid, LocalDate.of(2019, 6, 8)));
+        assertFalse(encoded.contains("="));
+        ContinuationToken token = ContinuationToken.decode(encoded);
+        assertEquals("createdAt", token.getSortAttribute());
+        assertTrue(token.isDescending());
+        assertEquals(4, token.size());
+        assertEquals(timestamp, token.getKey(0, Timestamp.class));
+        assertEquals(42L, token.getKey(1, Long.class));
+        assertEquals(uuid, token.getKey(2, UUID.class));
+        assertEquals(LocalDate.of(2019, 6, 8), token.getKey(3, LocalDate.class));
+    }
+
+    @Test
+    void invalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token"));
+        String encoded = ContinuationToken.encode("id", false, Arrays.asList("abc"));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(encoded).getKey(0, Long.class));
+    }
+
+    @Test
+    void invalidPageSize() {
+        assertThrows(IllegalArgumentException.class, () -> PageRequest.of(0));
+    }
+}
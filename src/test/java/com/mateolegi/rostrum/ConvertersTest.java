@@ -0,0 +1,99 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.number_cast.LongCast;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvertersTest {
+
+    @Test
+    void numbers() {
+        assertEquals(42L, Converters.of(Long.class).apply(42));
+        assertEquals(42L, Converters.of(long.class).apply(" 42 "));
+        assertEquals((short) 7, Converters.of(Short.class).apply(7L));
+        assertEquals((byte) 7, Converters.of(byte.class).apply(new BigDecimal("7")));
+        assertEquals(2.5F, Converters.of(Float.class).apply(2.5D));
+        assertEquals(new BigDecimal("12.50"), Converters.of(BigDecimal.class).apply("12.50"));
+        assertEquals(BigDecimal.valueOf(12), Converters.of(BigDecimal.class).apply(12));
+        assertEquals(BigInteger.valueOf(12), Converters.of(BigInteger.class).apply(new BigDecimal("12.9")));
+        assertEquals(true, Converters.of(boolean.class).apply(1));
+        assertEquals("12", Converters.of(String.class).apply(12));
+        assertTrue(Converters.isNumeric(int.class));
+        assertTrue(Converters.isNumeric(BigDecimal.class));
+        assertFalse(Converters.isNumeric(Number.class));
+        assertThrows(NumberFormatException.class, () -> Converters.of(Integer.class).apply("twelve"));
+        assertThrows(ClassCastException.class, () -> Converters.of(Long.class).apply(new Object()));
+        assertEquals(12L, new LongCast().cast("12"));
+    }
+
+    @Test
+    void dates() {
+        LocalDateTime dateTime = LocalDateTime.of(2019, 5, 20, 13, 45, 30);
+        Timestamp timestamp = Timestamp.valueOf(dateTime);
+        assertEquals(dateTime, Converters.of(LocalDateTime.class).apply(timestamp));
+        assertEquals(dateTime.toLocalDate(), Converters.of(LocalDate.class).apply(timestamp));
+        assertEquals(dateTime.toLocalDate(), Converters.of(LocalDate.class)
+                .apply(java.sql.Date.valueOf(dateTime.toLocalDate())));
+        assertEquals(LocalTime.of(13, 45, 30), Converters.of(LocalTime.class)
+                .apply(java.sql.Time.valueOf("13:45:30")));
+        assertEquals(timestamp.toInstant(), Converters.of(Instant.class).apply(timestamp));
+        assertEquals(timestamp.toInstant(), ((OffsetDateTime) Converters.of(OffsetDateTime.class)
+                .apply(timestamp)).toInstant());
+        assertEquals(dateTime.atZone(ZoneId.systemDefault()), Converters.of(ZonedDateTime.class).apply(timestamp));
+        assertEquals(LocalDate.of(2019, 5, 20), Converters.of(LocalDate.class).apply("2019-05-20"));
+        Date date = (Date) Converters.of(Date.class).apply(timestamp);
+        assertEquals(Date.class, date.getClass());
+        assertEquals(timestamp.getTime(), date.getTime());
+        assertEquals(TimeUnit.DAYS.toMillis(1), ((Date) Converters.of(Date.class)
+                .apply(Instant.ofEpochMilli(TimeUnit.DAYS.toMillis(1)))).getTime());
+    }
+
+    @Test
+    void enums() {
+        assertEquals(DayOfWeek.MONDAY, Converters.of(DayOfWeek.class).apply("MONDAY"));
+        assertEquals(DayOfWeek.TUESDAY, Converters.of(DayOfWeek.class).apply(1));
+        assertThrows(IllegalArgumentException.class, () -> Converters.of(DayOfWeek.class).apply(7));
+    }
+
+    @Test
+    void primitiveWriters() {
+        Map<String, PropertyAccessor> fields = PropertyAccessor.fieldsOf(Totals.class);
+        Totals totals = new Totals();
+        Converters.writerOf(fields.get("count")).accept(totals, 12);
+        Converters.writerOf(fields.get("sum")).accept(totals, new BigDecimal("1234567890123"));
+        Converters.writerOf(fields.get("average")).accept(totals, "2.5");
+        Converters.writerOf(fields.get("closed")).accept(totals, "true");
+        Converters.writerOf(fields.get("scale")).accept(totals, 3L);
+        Converters.writerOf(fields.get("total")).accept(totals, 99);
+        assertEquals(12, totals.count);
+        assertEquals(1234567890123L, totals.sum);
+        assertEquals(2.5, totals.average);
+        assertTrue(totals.closed);
+        assertEquals((short) 3, totals.scale);
+        assertEquals(new BigDecimal(99), totals.total);
+        Converters.writerOf(fields.get("total")).accept(totals, null);
+        assertNull(totals.total);
+        assertThrows(IllegalArgumentException.class,
+                () -> Converters.writerOf(fields.get("count")).accept(totals, null));
+        assertThrows(UnsupportedOperationException.class, () -> fields.get("count").setLong(totals, 1L));
+    }
+
+    private static class Totals {
+
+        private int count;
+        private long sum;
+        private double average;
+        private boolean closed;
+        private short scale;
+        private BigDecimal total;
+    }
+}
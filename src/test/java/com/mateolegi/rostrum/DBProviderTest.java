@@ -0,0 +1,52 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.constant.DatabaseProvider;
+import org.eclipse.persistence.config.BatchWriting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DBProviderTest {
+
+    @Test
+    void queryStringParameters() {
+        DBProvider postgres = DatabaseProvider.getDatabaseProvider(DatabaseProvider.POSTGRES);
+        assertEquals("jdbc:postgresql://localhost:5432/db?reWriteBatchedInserts=true&prepareThreshold=1",
+                postgres.appendUrlParameters("jdbc:postgresql://localhost:5432/db", postgres.getUrlParameters()));
+        assertEquals("jdbc:postgresql://localhost:5432/db?prepareThreshold=0&reWriteBatchedInserts=true",
+                postgres.appendUrlParameters("jdbc:postgresql://localhost:5432/db?prepareThreshold=0",
+                        postgres.getUrlParameters()));
+        assertEquals("jdbc:postgresql://localhost:5432/db",
+                postgres.appendUrlParameters("jdbc:postgresql://localhost:5432/db", Collections.emptyMap()));
+    }
+
+    @Test
+    void semicolonParameters() {
+        DBProvider h2 = DatabaseProvider.getDatabaseProvider(DatabaseProvider.H2);
+        assertTrue(h2.getUrlParameters().isEmpty());
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("DB_CLOSE_DELAY", "0");
+        parameters.put("LOCK_TIMEOUT", "5000");
+        assertEquals("jdbc:h2:mem:test;db_close_delay=-1;LOCK_TIMEOUT=5000",
+                h2.appendUrlParameters("jdbc:h2:mem:test;db_close_delay=-1", parameters));
+    }
+
+    @Test
+    void defaults() {
+        DBProvider h2 = DatabaseProvider.getDatabaseProvider(DatabaseProvider.H2);
+        assertEquals(DBProvider.DEFAULT_MAX_PARAMETERS, h2.getMaxParameters());
+        assertEquals(DBProvider.DEFAULT_STATEMENT_CACHE_SIZE, h2.getStatementCacheSize());
+        assertEquals(BatchWriting.JDBC, h2.getBatchWriting());
+        assertEquals(DBProvider.SEMICOLON, h2.getUrlParameterSeparator());
+        DBProvider oracle = DatabaseProvider.getDatabaseProvider(DatabaseProvider.ORACLE);
+        assertEquals(1000, oracle.getMaxParameters());
+        assertEquals(50, oracle.getStatementCacheSize());
+        assertTrue(oracle.getUrlParameters().isEmpty());
+        assertEquals(DBProvider.QUERY_STRING,
+                DatabaseProvider.getDatabaseProvider(DatabaseProvider.MYSQL).getUrlParameterSeparator());
+    }
+}
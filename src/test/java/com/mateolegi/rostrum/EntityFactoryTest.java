@@ -0,0 +1,126 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityFactoryTest {
+
+    @Test
+    void reflectList() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            List<Score> scores = EntityFactory.reflectList(manager.createNativeQuery("SELECT X AS ID, "
+                    + "'user-' || X AS USER_NAME, X * 2 AS POINTS, 'ignored' AS EXTRA FROM SYSTEM_RANGE(1, 1000)"),
+                    Score.class);
+            assertEquals(1000, scores.size());
+            Score last = scores.get(999);
+            assertEquals(Long.valueOf(1000), last.id);
+            assertEquals("user-1000", last.userName);
+            assertEquals(Integer.valueOf(2000), last.points);
+            // Another shape of the same class gets its own plan
+            Score single = EntityFactory.reflect(manager.createNativeQuery("SELECT 'user-7' AS user_name, 7 AS id"),
+                    Score.class);
+            assertEquals(Long.valueOf(7), single.id);
+            assertEquals("user-7", single.userName);
+            assertNull(single.points);
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void stream() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            String sql = "SELECT X AS ID, 'user-' || X AS USER_NAME, X AS POINTS FROM SYSTEM_RANGE(1, 5000)";
+            try (Stream<Score> scores = EntityFactory.stream(manager.createNativeQuery(sql), Score.class, 100)) {
+                assertEquals(12502500L, scores.mapToLong(score -> score.id).sum());
+            }
+            AtomicInteger count = new AtomicInteger();
+            EntityFactory.forEach(manager.createNativeQuery(sql), Score.class, score -> {
+                assertEquals("user-" + score.id, score.userName);
+                count.incrementAndGet();
+            });
+            assertEquals(5000, count.get());
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void reflectColumnar() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            ColumnarList<Score> scores = EntityFactory.reflectColumnar(manager.createNativeQuery("SELECT X AS ID, "
+                    + "'user-' || MOD(X, 10) AS USER_NAME, CAST(X AS INT) AS POINTS FROM SYSTEM_RANGE(1, 5000)"),
+                    Score.class, 100);
+            assertEquals(5000, scores.size());
+            assertEquals(12502500L, scores.longs("points").sum());
+            Score score = scores.get(1233);
+            assertEquals(Long.valueOf(1234), score.id);
+            assertEquals("user-4", score.userName);
+            assertEquals(Integer.valueOf(1234), score.points);
+            ColumnarList<Score> empty = EntityFactory.reflectColumnar(
+                    manager.createNativeQuery("SELECT X AS ID FROM SYSTEM_RANGE(1, 0)"), Score.class);
+            assertTrue(empty.isEmpty());
+            assertEquals(0, empty.longs("id").count());
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void reflectRows() {
+        List<Object[]> rows = Arrays.asList(new Object[]{"ana", 10L}, new Object[]{"bob", null},
+                new Object[]{7, 3.5});
+        List<Summary> summaries = EntityFactory.reflectList(rows, Summary.class);
+        assertEquals("ana:name", summaries.get(0).toString());
+        assertEquals(Integer.valueOf(10), summaries.get(0).total);
+        assertEquals("bob:name", summaries.get(1).toString());
+        assertNull(summaries.get(1).total);
+        // A number in the first column picks the constructor with the primitive id
+        assertEquals("7:id", summaries.get(2).toString());
+        assertEquals(Integer.valueOf(3), summaries.get(2).total);
+        assertEquals(Arrays.asList(1L, 2L), EntityFactory.reflectList(Arrays.asList(1, 2L), Long.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> EntityFactory.reflect(new Object[]{1, 2, 3}, Summary.class));
+    }
+
+    public static class Summary {
+
+        private final String key;
+        private final Integer total;
+
+        public Summary(String name, Integer total) {
+            this.key = name + ":name";
+            this.total = total;
+        }
+
+        public Summary(long id, Integer total) {
+            this.key = id + ":id";
+            this.total = total;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    public static class Score {
+
+        private Long id;
+        private String userName;
+        private Integer points;
+
+        public Score() {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.annotation.Type;
+import com.mateolegi.rostrum.entities.Note;
+import com.mateolegi.rostrum.entities.Post;
+import com.mateolegi.rostrum.entities.User;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityMetadataTest {
+
+    @Test
+    void fieldAnnotatedEntity() {
+        EntityMetadata metadata = EntityMetadata.of(User.class);
+        assertNotNull(metadata.getIdAccessor());
+        assertEquals("id", metadata.getIdAttribute());
+        assertEquals(Timestamp.class, metadata.getCreatedAtAccessor().getType());
+        assertEquals(Timestamp.class, metadata.getUpdatedAtAccessor().getType());
+        assertEquals(1, metadata.getCryptFields().size());
+        assertEquals(Type.ONE_WAY, metadata.getCryptFields().get(0).getType());
+        assertSame(metadata, EntityMetadata.of(User.class));
+    }
+
+    @Test
+    void propertyAnnotatedEntity() {
+        EntityMetadata metadata = EntityMetadata.of(Post.class);
+        Post post = new Post();
+        post.setId(7L);
+        assertEquals(7L, metadata.getIdAccessor().get(post));
+        assertEquals("id", metadata.getIdAttribute());
+        assertTrue(metadata.getCryptFields().isEmpty());
+    }
+
+    @Test
+    void inheritedAttributes() {
+        EntityMetadata metadata = EntityMetadata.of(Note.class);
+        Note note = new Note(3L, "title", "secret");
+        assertEquals(3L, metadata.getIdAccessor().get(note));
+        assertEquals("id", metadata.getIdAttribute());
+        assertEquals(Long.class, metadata.getAccessor("id").getType());
+        assertEquals(Timestamp.class, metadata.getAccessor("createdAt").getType());
+        assertEquals(Timestamp.class, metadata.getCreatedAtAccessor().getType());
+        assertEquals(Timestamp.class, metadata.getUpdatedAtAccessor().getType());
+        assertEquals("title", metadata.getAccessor("title").get(note));
+        assertEquals(1, metadata.getCryptFields().size());
+        assertEquals("secret", metadata.getCryptFields().get(0).getAccessor().getName());
+        assertEquals(Type.TWO_WAY, metadata.getCryptFields().get(0).getType());
+    }
+}
@@ -1,9 +1,24 @@
 package com.mateolegi.rostrum;
 
+import com.mateolegi.rostrum.entities.Tag;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.sessions.server.ConnectionPool;
+import org.eclipse.persistence.sessions.server.ReadConnectionPool;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.Test;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,4 +36,80 @@ class FactoryTest {
         assertNotNull(factory);
         assertTrue(factory::isOpen);
     }
-}
\ No newline at end of file
+
+    @Test
+    void batchWriting() {
+        Map<String, Integer> calls = new ConcurrentHashMap<>();
+        Factory.setDataSourceProvider("batch", (config, connection) -> {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL(connection.get(PersistenceUnitProperties.JDBC_URL));
+            dataSource.setUser(connection.get(PersistenceUnitProperties.JDBC_USER));
+            return countInserts(dataSource, calls);
+        });
+        try (UnitOfWork unitOfWork = Factory.openUnitOfWork("batch")) {
+            for (long id = 1; id <= 12; id++) {
+                unitOfWork.getEntityManager().persist(new Tag(id, "tag-" + id));
+            }
+            unitOfWork.commit();
+        }
+        // 12 inserts with a batch size of 5
+        assertEquals(Integer.valueOf(12), calls.get("addBatch"));
+        assertEquals(Integer.valueOf(3), calls.get("executeBatch"));
+        assertNull(calls.get("executeUpdate"));
+    }
+
+    @Test
+    void internalPool() {
+        ServerSession session = Factory.getEntityManagerFactory("pooled").unwrap(JpaEntityManagerFactory.class)
+                .getServerSession();
+        ConnectionPool write = session.getDefaultConnectionPool();
+        assertEquals(2, write.getMinNumberOfConnections());
+        assertEquals(4, write.getMaxNumberOfConnections());
+        assertEquals(1000, write.getWaitTimeout());
+        // The read pool takes the wait of the pool section when it doesn't define its own
+        ConnectionPool read = session.getReadConnectionPool();
+        assertTrue(read instanceof ReadConnectionPool);
+        assertEquals(3, read.getMaxNumberOfConnections());
+        assertEquals(1000, read.getWaitTimeout());
+    }
+
+    /**
+     * Wraps the data source so that the calls to the statements that insert rows are counted by method name.
+     */
+    private static DataSource countInserts(DataSource dataSource, Map<String, Integer> calls) {
+        return proxy(DataSource.class, (method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            if (!(result instanceof Connection)) {
+                return result;
+            }
+            Connection connection = (Connection) result;
+            return proxy(Connection.class, (connectionMethod, sql) -> {
+                Object statement = invoke(connection, connectionMethod, sql);
+                if (!(statement instanceof PreparedStatement) || !sql[0].toString().startsWith("INSERT")) {
+                    return statement;
+                }
+                return proxy(PreparedStatement.class, (statementMethod, values) -> {
+                    calls.merge(statementMethod.getName(), 1, Integer::sum);
+                    return invoke(statement, statementMethod, values);
+                });
+            });
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(FactoryTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method, args)));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
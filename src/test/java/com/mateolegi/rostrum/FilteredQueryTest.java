@@ -0,0 +1,213 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.entities.Tag;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilteredQueryTest {
+
+    @BeforeAll
+    static void insertTags() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            manager.getTransaction().begin();
+            for (long id = 1001; id <= 1010; id++) {
+                manager.persist(new Tag(id, id % 2 == 0 ? "even" : null));
+            }
+            manager.getTransaction().commit();
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void createFilteredQuery() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", "even");
+            params.put("unknown", "ignored");
+            assertEquals(5, FilteredQuery.createFilteredQuery(Tag.class, manager, params).getResultList().size());
+            assertNotNull(manager.getEntityManagerFactory().unwrap(JpaEntityManagerFactory.class).getServerSession()
+                    .getQuery("FilteredQuery." + Tag.class.getName() + "[name__eq]"));
+            // The same template binds other values, converted to the type of the attribute
+            params.put("id", "1004");
+            List<Tag> tags = FilteredQuery.createFilteredQuery(Tag.class, manager, params).getResultList();
+            assertEquals(1, tags.size());
+            assertEquals(Long.valueOf(1004), tags.get(0).getId());
+            params.put("id", 1003L);
+            assertTrue(FilteredQuery.createFilteredQuery(Tag.class, manager, params).getResultList().isEmpty());
+            params.put("name", null);
+            assertEquals(1, FilteredQuery.createFilteredQuery(Tag.class, manager, params).getResultList().size());
+            params.put("id", "one");
+            assertThrows(IllegalArgumentException.class,
+                    () -> FilteredQuery.createFilteredQuery(Tag.class, manager, params));
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void operators() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            Function<Map<String, Object>, List<Long>> ids = params -> FilteredQuery
+                    .createFilteredQuery(Tag.class, manager, params).getResultList().stream()
+                    .map(Tag::getId).sorted().collect(Collectors.toList());
+            Map<String, Object> params = new HashMap<>();
+            params.put("id__gte", 1005);
+            params.put("id__lt", "1008");
+            assertEquals(Arrays.asList(1005L, 1006L, 1007L), ids.apply(params));
+            params.clear();
+            params.put("id__in", "1001, 1002,1010");
+            params.put("name__isNull", false);
+            assertEquals(Arrays.asList(1002L, 1010L), ids.apply(params));
+            params.put("id__in", Collections.emptyList());
+            assertTrue(ids.apply(params).isEmpty());
+            params.clear();
+            params.put("name__startsWith", "ev");
+            params.put("id__notIn", new long[]{1002, 1004});
+            assertEquals(Arrays.asList(1006L, 1008L, 1010L), ids.apply(params));
+            params.clear();
+            params.put("name__contains", "%");
+            assertTrue(ids.apply(params).isEmpty());
+            params.clear();
+            params.put("id__gt", 1000);
+            params.put(FilteredQuery.SORT, "-id");
+            params.put(FilteredQuery.LIMIT, 2);
+            assertEquals(Arrays.asList(1010L, 1009L), FilteredQuery.createFilteredQuery(Tag.class, manager, params)
+                    .getResultList().stream().map(Tag::getId).collect(Collectors.toList()));
+            params.put(FilteredQuery.SORT, "name,-id");
+            params.put(FilteredQuery.LIMIT, "3");
+            assertEquals(3, ids.apply(params).size());
+            params.put(FilteredQuery.SORT, "missing");
+            assertThrows(IllegalArgumentException.class, () -> ids.apply(params));
+            params.clear();
+            params.put("id__between", 1);
+            assertThrows(IllegalArgumentException.class, () -> ids.apply(params));
+            params.clear();
+            params.put("id__startsWith", "10");
+            assertThrows(IllegalArgumentException.class, () -> ids.apply(params));
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void createFilteredDelete() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            manager.getTransaction().begin();
+            for (long id = 2001; id <= 2004; id++) {
+                manager.persist(new Tag(id, "deleted"));
+            }
+            manager.flush();
+            Map<String, Object> params = new HashMap<>();
+            params.put("id__gte", 2002);
+            params.put("name", "deleted");
+            assertEquals(3, FilteredQuery.createFilteredDelete(Tag.class, manager, params).executeUpdate());
+            params.put(FilteredQuery.LIMIT, 1);
+            assertThrows(IllegalArgumentException.class,
+                    () -> FilteredQuery.createFilteredDelete(Tag.class, manager, params));
+            manager.getTransaction().rollback();
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void mergeResults() {
+        Map<String, Object> params = new HashMap<>();
+        params.put(FilteredQuery.SORT, "-id");
+        params.put(FilteredQuery.LIMIT, 3);
+        List<Tag> tags = FilteredQuery.mergeResults(Tag.class, Arrays.asList(
+                Arrays.asList(new Tag(1L, "a"), new Tag(4L, "d")),
+                Arrays.asList(new Tag(2L, "b"), new Tag(5L, "e"), new Tag(3L, "c"))), params);
+        assertEquals(Arrays.asList(5L, 4L, 3L), tags.stream().map(Tag::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void createPagedQuery() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("id__lte", 1010);
+            params.put("name", "even");
+            params.put(FilteredQuery.SORT, "-id");
+            PagedResult<Tag> page = FilteredQuery.createPagedQuery(Tag.class, manager, params, 1, 2);
+            assertEquals(Arrays.asList(1008L, 1006L), page.getContent().stream().map(Tag::getId)
+                    .collect(Collectors.toList()));
+            assertEquals(5, page.getTotal());
+            assertTrue(page.isTotalExact());
+            assertTrue(page.hasNext());
+            PagedResult<Tag> last = FilteredQuery.createPagedQuery(Tag.class, manager, params, 4, 2, false);
+            assertEquals(1, last.getContent().size());
+            assertEquals(5, last.getTotal());
+            assertFalse(last.hasNext());
+            manager.getTransaction().begin();
+            manager.persist(new Tag(1000L, "even"));
+            manager.flush();
+            // Past the last row the total is counted, and the count is reused for a while
+            PagedResult<Tag> beyond = FilteredQuery.createPagedQuery(Tag.class, manager, params, 10, 2);
+            assertTrue(beyond.getContent().isEmpty());
+            assertEquals(6, beyond.getTotal());
+            manager.remove(manager.find(Tag.class, 1000L));
+            manager.flush();
+            assertEquals(6, FilteredQuery.createPagedQuery(Tag.class, manager, params, 10, 2).getTotal());
+            assertEquals(5, FilteredQuery.createPagedQuery(Tag.class, manager, params, 0, 2).getTotal());
+            manager.getTransaction().rollback();
+            assertThrows(IllegalArgumentException.class,
+                    () -> FilteredQuery.createPagedQuery(Tag.class, manager, params, -1, 2));
+            assertThrows(IllegalArgumentException.class,
+                    () -> FilteredQuery.createPagedQuery(Tag.class, manager, params, 0, 0));
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void patternsAreBound() {
+        EntityManager manager = Factory.getEntityManager("mapping");
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name__contains", "odd_value");
+            params.put("id__notIn", "1002,1004");
+            String sql = getExecutedSql(manager, FilteredQuery.createFilteredQuery(Tag.class, manager, params));
+            assertTrue(sql.contains("LIKE ?"), sql);
+            assertFalse(sql.contains("odd"), sql);
+            assertFalse(sql.contains("1002"), sql);
+        } finally {
+            manager.close();
+        }
+    }
+
+    /**
+     * Gets the SQL of the query as EclipseLink executes it: with placeholders, or with the values printed inline if
+     * binding is turned off.
+     */
+    private static String getExecutedSql(EntityManager manager, Query query) {
+        AbstractSession session = manager.unwrap(JpaEntityManager.class).getAbstractSession();
+        DatabaseQuery databaseQuery = query.unwrap(JpaQuery.class).getDatabaseQuery();
+        DatabaseRecord row = new DatabaseRecord();
+        databaseQuery.getArguments().forEach(argument -> row.put(argument, query.getParameterValue(argument)));
+        databaseQuery.checkPrepare(session, row);
+        DatabaseCall call = (DatabaseCall) databaseQuery.getCall().clone();
+        call.translate(row, null, session);
+        return call.getSQLString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolConfigTest {
+
+    @Test
+    void pool() {
+        Map<String, Object> read = new HashMap<>();
+        read.put("max", "16");
+        read.put("shared", true);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("min", 8L);
+        properties.put("max", 32L);
+        properties.put("wait", 5000L);
+        properties.put("read", read);
+        PoolConfig pool = new PoolConfig(properties);
+        assertEquals(Integer.valueOf(8), pool.getInitial());
+        assertEquals(Integer.valueOf(8), pool.getMin());
+        assertEquals(Integer.valueOf(32), pool.getMax());
+        assertEquals(Integer.valueOf(5000), pool.getWait());
+        assertNull(pool.getDataSourceProvider());
+        assertNotNull(pool.getRead());
+        assertEquals(Integer.valueOf(16), pool.getRead().getMax());
+        assertNull(pool.getRead().getMin());
+        assertTrue(pool.getRead().getShared());
+    }
+
+    @Test
+    void withoutPool() {
+        assertNull(RostrumConfig.current().getDataSource(null).getPool());
+    }
+}
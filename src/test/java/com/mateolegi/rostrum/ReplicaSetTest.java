@@ -0,0 +1,129 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.entities.Setting;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaSetTest {
+
+    private static final String REPLICATED = "replicated";
+
+    @BeforeAll
+    static void insertSettings() throws SQLException {
+        // Replicas are deployed without DDL generation, each one holds a row that tells which database served it
+        for (String replica : Arrays.asList("replica-a", "replica-b")) {
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + replica + ";DB_CLOSE_DELAY=-1",
+                    "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE settings (id BIGINT PRIMARY KEY, setting_value VARCHAR(255))");
+                statement.execute("INSERT INTO settings VALUES (1, '" + replica + "')");
+            }
+        }
+        EntityManager manager = Factory.getEntityManagerFactory(REPLICATED).createEntityManager();
+        try {
+            manager.getTransaction().begin();
+            manager.persist(new Setting(1L, "primary"));
+            manager.getTransaction().commit();
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void roundRobin() {
+        ReplicaSet replicas = new ReplicaSet(factories(3, new IdentityHashMap<>()), ReplicaSet.ROUND_ROBIN);
+        int[] selected = new int[6];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = replicas.select();
+        }
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2}, selected);
+    }
+
+    @Test
+    void leastLoaded() {
+        Map<EntityManager, Integer> managers = new IdentityHashMap<>();
+        ReplicaSet replicas = new ReplicaSet(factories(3, managers), ReplicaSet.LEAST_LOADED);
+        replicas.read(first -> replicas.read(second -> {
+            // Two replicas have a read in progress, every selection goes to the idle one
+            int idle = 3 - managers.get(first) - managers.get(second);
+            assertNotEquals(managers.get(first), managers.get(second));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(idle, replicas.select());
+            }
+            return null;
+        }));
+        // Without reads in progress the ties are spread among all the replicas
+        Set<Integer> selected = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            selected.add(replicas.select());
+        }
+        assertEquals(3, selected.size());
+    }
+
+    @Test
+    void readsAreServedByReplicas() {
+        String first = Rostrum.find(Setting.class, 1L).getValue();
+        String second = Rostrum.find(Setting.class, 1L).getValue();
+        assertTrue(first.startsWith("replica-"), first);
+        assertTrue(second.startsWith("replica-"), second);
+        assertNotEquals(first, second);
+        assertEquals(first, Rostrum.find(Setting.class, 1L).getValue());
+    }
+
+    @Test
+    void unitOfWorkReadsFromPrimary() {
+        try (UnitOfWork ignored = Factory.openUnitOfWork(REPLICATED)) {
+            assertEquals("primary", Rostrum.find(Setting.class, 1L).getValue());
+            assertEquals("primary", Rostrum.find(Setting.class, 1L).getValue());
+        }
+        assertTrue(Rostrum.find(Setting.class, 1L).getValue().startsWith("replica-"));
+    }
+
+    @Test
+    void readAfterWriteWindow() throws InterruptedException {
+        Rostrum.save(new Setting(2L, "written"));
+        // The thread reads its own writes from the primary during the window
+        assertEquals("primary", Rostrum.find(Setting.class, 1L).getValue());
+        assertEquals("written", Rostrum.find(Setting.class, 2L).getValue());
+        Thread.sleep(Properties.getDataSource(REPLICATED).getReadAfterWriteWindow() + 100);
+        assertTrue(Rostrum.find(Setting.class, 1L).getValue().startsWith("replica-"));
+        assertNull(Rostrum.find(Setting.class, 2L));
+    }
+
+    /**
+     * Creates factories whose entity managers are registered with the index of the factory that created them.
+     */
+    private static List<EntityManagerFactory> factories(int count, Map<EntityManager, Integer> managers) {
+        List<EntityManagerFactory> factories = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            factories.add(proxy(EntityManagerFactory.class, method -> {
+                if (!method.equals("createEntityManager")) {
+                    return null;
+                }
+                EntityManager manager = proxy(EntityManager.class, managerMethod -> null);
+                managers.put(manager, index);
+                return manager;
+            }));
+        }
+        return factories;
+    }
+
+    private static <T> T proxy(Class<T> type, Function<String, Object> handler) {
+        return type.cast(Proxy.newProxyInstance(ReplicaSetTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                        : method.getName().equals("equals") ? proxy == args[0] : handler.apply(method.getName())));
+    }
+}
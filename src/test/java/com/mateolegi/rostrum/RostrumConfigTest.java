@@ -0,0 +1,137 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.constant.DatabaseProvider;
+import com.mateolegi.rostrum.entities.Post;
+import com.mateolegi.rostrum.entities.User;
+import com.mateolegi.rostrum.exception.PropertyNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RostrumConfigTest {
+
+    @Test
+    void current() {
+        RostrumConfig config = RostrumConfig.current();
+        assertSame(config, RostrumConfig.current());
+        assertEquals("rostrum", config.getDefaultPersistenceUnit());
+        assertEquals(10, config.getBcryptIterations());
+        assertEquals("cipher-key", config.getAesSecretKey());
+        DataSourceConfig dataSource = config.getDataSource("rostrum");
+        assertEquals(DatabaseProvider.POSTGRES, dataSource.getDatabaseProvider());
+        assertEquals("5432", dataSource.getString("port"));
+        assertEquals(Collections.singletonList("com.mateolegi.rostrum.entities"), dataSource.getEntityPackages());
+        assertEquals(Factory.DEFAULT_BATCH_SIZE, dataSource.getBatchSize());
+        assertThrows(PropertyNotFoundException.class, () -> config.getDataSource("unknown"));
+    }
+
+    @Test
+    void immutable() {
+        RostrumConfig config = RostrumConfig.current();
+        assertThrows(UnsupportedOperationException.class, () -> config.getDataSources().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> config.getDataSource(null).getEntityPackages().add("com.example"));
+    }
+
+    @Test
+    void reloadWithoutChanges() {
+        RostrumConfig config = RostrumConfig.current();
+        assertFalse(RostrumConfig.reload());
+        assertSame(config, RostrumConfig.current());
+    }
+
+    @Test
+    void replicas() {
+        Map<String, Object> replica = new HashMap<>();
+        replica.put("host", "replica-1");
+        Map<String, Object> dataSource = new HashMap<>();
+        dataSource.put("persistence-unit", "primary");
+        dataSource.put("db-connection", "postgres");
+        dataSource.put("url", "jdbc:postgresql://primary:5432/app");
+        dataSource.put("user", "app");
+        dataSource.put("replicas", Collections.singletonList(replica));
+        Map<String, Object> json = new HashMap<>();
+        json.put("data-sources", Arrays.asList(dataSource));
+        DataSourceConfig primary = RostrumConfig.of(json).getDataSource("primary");
+        assertEquals(1, primary.getReplicas().size());
+        DataSourceConfig config = primary.getReplicas().get(0);
+        assertEquals("primary", config.getPersistenceUnit());
+        assertEquals("replica-1", config.getString("host"));
+        assertEquals("app", config.getString("user"));
+        assertFalse(config.contains("url"));
+        assertTrue(config.getReplicas().isEmpty());
+        assertEquals("round-robin", primary.getReplicaBalancing());
+        assertEquals(DataSourceConfig.DEFAULT_READ_AFTER_WRITE_WINDOW, primary.getReadAfterWriteWindow());
+    }
+
+    @Test
+    void shards() {
+        Map<String, Object> users = new HashMap<>();
+        users.put("entity", User.class.getName());
+        users.put("persistence-units", Arrays.asList("users-0", "users-1", "users-2"));
+        Map<String, Object> json = new HashMap<>();
+        json.put("shards", Collections.singletonList(users));
+        RostrumConfig config = RostrumConfig.of(json);
+        ShardConfig shard = config.getShard(User.class);
+        assertNotNull(shard);
+        assertNull(shard.getShardKey());
+        assertNull(config.getShard(Post.class));
+        assertNull(RostrumConfig.current().getShard(User.class));
+        assertEquals("users-1", shard.getPersistenceUnit(4L));
+        assertEquals(shard.getPersistenceUnit(4L), shard.getPersistenceUnit(4));
+        assertEquals(shard.getPersistenceUnit(-7L), shard.getPersistenceUnit(-7));
+        assertEquals(shard.getPersistenceUnit("tenant"), shard.getPersistenceUnit("tenant"));
+        users.remove("persistence-units");
+        assertThrows(PropertyNotFoundException.class, () -> RostrumConfig.of(json));
+    }
+
+    @Test
+    void statements() {
+        DataSourceConfig postgres = RostrumConfig.current().getDataSource("rostrum");
+        assertEquals(DBProvider.DEFAULT_STATEMENT_CACHE_SIZE, postgres.getStatementCacheSize());
+        assertEquals("JDBC", postgres.getBatchWriting());
+        assertTrue(postgres.isBindParameters());
+        assertFalse(postgres.isForceBindParameters());
+        Map<String, Object> dataSource = new HashMap<>();
+        dataSource.put("persistence-unit", "oracle");
+        dataSource.put("db-connection", "oracle");
+        dataSource.put("batch-writing", "Oracle-JDBC");
+        dataSource.put("force-bind-parameters", "true");
+        Map<String, Object> json = new HashMap<>();
+        json.put("data-sources", Collections.singletonList(dataSource));
+        DataSourceConfig oracle = RostrumConfig.of(json).getDataSource("oracle");
+        assertEquals(50, oracle.getStatementCacheSize());
+        assertEquals("Oracle-JDBC", oracle.getBatchWriting());
+        assertTrue(oracle.isForceBindParameters());
+    }
+
+    @Test
+    void urlParameters() {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("prepareThreshold", null);
+        overrides.put("ApplicationName", "rostrum");
+        Map<String, Object> tuned = new HashMap<>();
+        tuned.put("persistence-unit", "tuned");
+        tuned.put("db-connection", "postgres");
+        tuned.put("url-parameters", overrides);
+        Map<String, Object> plain = new HashMap<>();
+        plain.put("persistence-unit", "plain");
+        plain.put("db-connection", "mysql");
+        plain.put("url-parameters", false);
+        Map<String, Object> json = new HashMap<>();
+        json.put("data-sources", Arrays.asList(tuned, plain));
+        RostrumConfig config = RostrumConfig.of(json);
+        Map<String, String> parameters = config.getDataSource("tuned").getUrlParameters();
+        assertEquals("true", parameters.get("reWriteBatchedInserts"));
+        assertEquals("rostrum", parameters.get("ApplicationName"));
+        assertFalse(parameters.containsKey("prepareThreshold"));
+        assertTrue(config.getDataSource("plain").getUrlParameters().isEmpty());
+        assertEquals("true", RostrumConfig.current().getDataSource("rostrum").getUrlParameters()
+                .get("reWriteBatchedInserts"));
+    }
+}
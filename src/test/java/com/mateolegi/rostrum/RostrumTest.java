@@ -1,15 +1,39 @@
 package com.mateolegi.rostrum;
 
+import com.mateolegi.rostrum.entities.Note;
 import com.mateolegi.rostrum.entities.User;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.queries.DeleteAllQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.queries.ScrollableCursor;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class RostrumTest {
 
+    private static final String STORE = "store";
+
+    @BeforeEach
+    void deleteNotes() {
+        Rostrum.inUnitOfWork(STORE, manager -> manager.createQuery("DELETE FROM Note").executeUpdate());
+        Factory.getEntityManagerFactory(STORE).getCache().evictAll();
+    }
+
     @Test
     void findAll() {
         List<User> userList = Rostrum.findAll(User.class);
@@ -63,4 +87,359 @@ class RostrumTest {
         notExistingUser.setId(Long.MAX_VALUE);
         assertFalse(Rostrum.exists(notExistingUser));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllById() {
+        Rostrum.saveAll(Arrays.asList(new Note(1L, "one", "s"), new Note(2L, "two", "s"), new Note(3L, "three", "s")));
+        for (int i = 0; i < 2; i++) {
+            // First from the shared cache, then with queries
+            // Missing ids are skipped and repeated ones get the entity again
+            assertEquals(Arrays.asList(3L, 1L, 3L),
+                    ids(Rostrum.findAllById(Note.class, Arrays.asList(3L, 9L, 1L, 3L))));
+            // Ids of other types are converted to the type of the id attribute
+            assertEquals(Arrays.asList(2L, 1L, 3L), ids(Rostrum.findAllById(Note.class, Arrays.asList(2, "1", 3L))));
+            Factory.getEntityManagerFactory(STORE).getCache().evictAll();
+        }
+        assertTrue(Rostrum.findAllById(Note.class, Collections.singletonList(9)).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> Rostrum.findAllById(Note.class, Collections.singletonList("one")));
+    }
+
+    @Test
+    void existsAll() {
+        Rostrum.saveAll(Arrays.asList(new Note(1L, "one", "s"), new Note(2L, "two", "s")));
+        assertTrue(Rostrum.existsAll(Note.class, Arrays.asList(1, 2L, "2", 1L)));
+        Factory.getEntityManagerFactory(STORE).getCache().evictAll();
+        assertTrue(Rostrum.existsAll(Note.class, Arrays.asList(1, 2L, "2", 1L)));
+        assertFalse(Rostrum.existsAll(Note.class, Arrays.asList(1, 9)));
+        assertFalse(Rostrum.existsAll(Note.class, Arrays.asList(1L, null)));
+    }
+
+    @Test
+    void saveAllAndUpdateAll() {
+        Rostrum.saveAll(Arrays.asList(new Note(4L, "old", "s4"), new Note(5L, "old", "s5"), new Note(6L, "old", "s6")));
+        Map<Long, Note> existing = Rostrum.findAllById(Note.class, Arrays.asList(4L, 5L, 6L)).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+        existing.get(5L).setSecret("changed");
+        // With a batch size of 5 both chunks mix new and existing notes
+        List<Note> notes = new ArrayList<>();
+        List<Long> ids = Arrays.asList(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        for (Long id : ids) {
+            Note note = existing.containsKey(id) ? existing.get(id) : new Note(id, "new", "s" + id);
+            note.setTitle(note.getTitle() + "-" + id);
+            notes.add(note);
+        }
+        assertEquals(ids, ids(Rostrum.updateAll(notes)));
+        for (Long id : ids) {
+            Note note = findInStore(id);
+            assertEquals((existing.containsKey(id) ? "old-" : "new-") + id, note.getTitle());
+            assertNotNull(note.getCreatedAt());
+            if (existing.containsKey(id)) {
+                assertEquals(existing.get(id).getCreatedAt().getTime(), note.getCreatedAt().getTime());
+                assertNotNull(note.getUpdatedAt());
+            } else {
+                assertNull(note.getUpdatedAt());
+            }
+            // Every secret is encrypted exactly once, also the changed one
+            assertEquals(id == 5L ? "changed" : "s" + id, AES256.decrypt(note.getSecret()));
+        }
+        // Saving them again only updates them, the encrypted values are kept as they are
+        List<Note> saved = Rostrum.saveAll(ids.stream().map(RostrumTest::findInStore).collect(Collectors.toList()));
+        assertEquals(ids, ids(saved));
+        for (Long id : ids) {
+            Note note = findInStore(id);
+            assertNotNull(note.getUpdatedAt());
+            assertEquals(id == 5L ? "changed" : "s" + id, AES256.decrypt(note.getSecret()));
+        }
+    }
+
+    @Test
+    void updateAllManagedEntities() {
+        Rostrum.saveAll(Arrays.asList(new Note(1L, "one", "first"), new Note(2L, "two", "second"),
+                new Note(3L, "three", "third")));
+        try (UnitOfWork unitOfWork = Factory.openUnitOfWork(STORE)) {
+            List<Note> notes = Rostrum.findAllById(Note.class, Arrays.asList(1L, 2L, 3L));
+            assertTrue(notes.stream().allMatch(unitOfWork.getEntityManager()::contains));
+            notes.get(0).setSecret("changed");
+            notes.get(1).setTitle("retitled");
+            Rostrum.updateAll(notes);
+            unitOfWork.commit();
+        }
+        Note changed = findInStore(1L);
+        assertNotEquals("changed", changed.getSecret());
+        assertEquals("changed", AES256.decrypt(changed.getSecret()));
+        // The unchanged secrets aren't encrypted again
+        assertEquals("retitled", findInStore(2L).getTitle());
+        assertEquals("second", AES256.decrypt(findInStore(2L).getSecret()));
+        assertEquals("third", AES256.decrypt(findInStore(3L).getSecret()));
+    }
+
+    @Test
+    void deleteAllByIdInChunks() {
+        insertNotes(1, 2500);
+        List<Object> ids = new ArrayList<>();
+        for (long id = 0; id <= 2600; id++) {
+            ids.add(id);
+        }
+        // 2601 ids with the 1000 values per statement of H2
+        AtomicInteger deletes = new AtomicInteger();
+        SessionEventAdapter listener = new SessionEventAdapter() {
+            @Override
+            public void postExecuteQuery(SessionEvent event) {
+                if (event.getQuery() instanceof DeleteAllQuery) {
+                    deletes.incrementAndGet();
+                }
+            }
+        };
+        SessionEventManager events = Factory.getEntityManagerFactory(STORE).unwrap(JpaEntityManagerFactory.class)
+                .getServerSession().getEventManager();
+        events.addListener(listener);
+        try {
+            assertEquals(2500, Rostrum.deleteAllById(Note.class, ids));
+        } finally {
+            events.removeListener(listener);
+        }
+        assertEquals(3, deletes.get());
+        assertTrue(Rostrum.findAll(Note.class).isEmpty());
+    }
+
+    @Test
+    void bulkStatementsEvictTheSharedCache() {
+        Cache cache = Factory.getEntityManagerFactory(STORE).getCache();
+        insertNotes(1, 3);
+        assertEquals("bulk", Rostrum.find(Note.class, 1L).getTitle());
+        assertTrue(cache.contains(Note.class, 1L));
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", "updated");
+        assertEquals(1, Rostrum.updateWhere(Note.class, Collections.singletonMap("id", 1L), values));
+        assertFalse(cache.contains(Note.class, 1L));
+        assertEquals("updated", Rostrum.find(Note.class, 1L).getTitle());
+        assertEquals(1, Rostrum.deleteWhere(Note.class, Collections.singletonMap("title", "updated")));
+        assertFalse(cache.contains(Note.class, 1L));
+        assertNull(Rostrum.find(Note.class, 1L));
+        assertNotNull(Rostrum.find(Note.class, 2L));
+        assertEquals(1, Rostrum.deleteAllById(Note.class, Collections.singletonList(2L)));
+        assertFalse(cache.contains(Note.class, 2L));
+        assertNull(Rostrum.find(Note.class, 2L));
+    }
+
+    @Test
+    void updateWhere() {
+        insertNotes(1, 4);
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("id__lte", 2);
+        Map<String, Object> values = new HashMap<>();
+        values.put("secret", "plain");
+        assertEquals(2, Rostrum.updateWhere(Note.class, filters, values));
+        for (long id = 1; id <= 4; id++) {
+            Note note = findInStore(id);
+            if (id <= 2) {
+                assertNotNull(note.getUpdatedAt());
+                assertEquals("plain", AES256.decrypt(note.getSecret()));
+            } else {
+                assertNull(note.getUpdatedAt());
+                assertNull(note.getSecret());
+            }
+        }
+        // An updatedAt among the values is kept
+        Timestamp updatedAt = Timestamp.valueOf("2020-01-01 00:00:00");
+        values.put("updatedAt", updatedAt);
+        assertEquals(2, Rostrum.updateWhere(Note.class, filters, values));
+        assertEquals(updatedAt, findInStore(1L).getUpdatedAt());
+    }
+
+    @Test
+    void strictFilters() {
+        insertNotes(1, 2);
+        Map<String, Object> unknown = Collections.singletonMap("unknown", 1);
+        Map<String, Object> values = Collections.singletonMap("title", "changed");
+        assertThrows(IllegalArgumentException.class, () -> Rostrum.deleteWhere(Note.class, unknown));
+        assertThrows(IllegalArgumentException.class, () -> Rostrum.updateWhere(Note.class, unknown, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> Rostrum.updateWhere(Note.class, Collections.singletonMap("id", 1L), unknown));
+        assertThrows(IllegalArgumentException.class,
+                () -> Rostrum.deleteWhere(Note.class, Collections.singletonMap(FilteredQuery.LIMIT, 1)));
+        // Nothing was removed or changed
+        assertEquals(Arrays.asList("bulk", "bulk"), Rostrum.findAll(Note.class).stream().map(Note::getTitle)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void upsert() throws InterruptedException {
+        Note inserted = Rostrum.upsert(new Note(1L, "first", "secret"));
+        Note stored = findInStore(1L);
+        assertEquals("first", stored.getTitle());
+        assertEquals("secret", AES256.decrypt(stored.getSecret()));
+        assertEquals(inserted.getCreatedAt(), stored.getCreatedAt());
+        assertNotNull(stored.getUpdatedAt());
+        // The row is loaded into the shared cache, the upsert must evict it
+        Cache cache = Factory.getEntityManagerFactory(STORE).getCache();
+        assertEquals("first", Rostrum.find(Note.class, 1L).getTitle());
+        assertTrue(cache.contains(Note.class, 1L));
+        Thread.sleep(10);
+        // The entity carries the createdAt of the row, which is left as it is
+        inserted.setTitle("second");
+        inserted.setSecret("other");
+        Note updated = Rostrum.upsert(inserted);
+        assertEquals(stored.getCreatedAt(), updated.getCreatedAt());
+        assertFalse(cache.contains(Note.class, 1L));
+        Note found = Rostrum.find(Note.class, 1L);
+        assertEquals("second", found.getTitle());
+        assertEquals("other", AES256.decrypt(found.getSecret()));
+        assertEquals(stored.getCreatedAt(), found.getCreatedAt());
+        assertTrue(found.getUpdatedAt().after(stored.getUpdatedAt()));
+        // Without createdAt the statement still keeps the one of the row
+        Rostrum.upsert(new Note(1L, "third", "another"));
+        found = Rostrum.find(Note.class, 1L);
+        assertEquals("third", found.getTitle());
+        assertEquals(stored.getCreatedAt(), found.getCreatedAt());
+        assertEquals(1L, Rostrum.findAll(Note.class).size());
+    }
+
+    @Test
+    void findPage() {
+        List<String> titles = Arrays.asList("b", "a", "c", "a", "b", "a", "c");
+        Rostrum.inUnitOfWork(STORE, manager -> {
+            for (int i = 0; i < titles.size(); i++) {
+                manager.persist(new Note(i + 1L, titles.get(i), null));
+            }
+            return null;
+        });
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L, 3L), Arrays.asList(4L, 5L, 6L), Collections.singletonList(7L)),
+                walk(PageRequest.of(3)));
+        assertEquals(Arrays.asList(Arrays.asList(7L, 6L, 5L), Arrays.asList(4L, 3L, 2L), Collections.singletonList(1L)),
+                walk(PageRequest.of(3).descending()));
+        // A full last page has no token either
+        assertEquals(Collections.singletonList(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L)), walk(PageRequest.of(7)));
+        // Ties of the sort attribute are broken by id, also across pages
+        assertEquals(Arrays.asList(Arrays.asList(2L, 4L), Arrays.asList(6L, 1L), Arrays.asList(5L, 3L),
+                Collections.singletonList(7L)), walk(PageRequest.of(2).sortBy("title")));
+        assertEquals(Arrays.asList(Arrays.asList(7L, 3L), Arrays.asList(5L, 1L), Arrays.asList(6L, 4L),
+                Collections.singletonList(2L)), walk(PageRequest.of(2).sortBy("title").descending()));
+        // The token only continues a request with the same sort
+        String token = Rostrum.findPage(Note.class, PageRequest.of(2).sortBy("title")).getNextToken();
+        assertThrows(IllegalArgumentException.class,
+                () -> Rostrum.findPage(Note.class, PageRequest.of(2).after(token)));
+        assertThrows(IllegalArgumentException.class,
+                () -> Rostrum.findPage(Note.class, PageRequest.of(2).sortBy("title").descending().after(token)));
+        assertEquals(Arrays.asList(6L, 1L),
+                ids(Rostrum.findPage(Note.class, PageRequest.of(2).sortBy("title").after(token)).getContent()));
+    }
+
+    @Test
+    void streamReleasesItsResources() {
+        insertNotes(1, 10);
+        CursorListener listener = new CursorListener();
+        SessionEventManager events = Factory.getReadEntityManagerFactory(STORE).unwrap(JpaEntityManagerFactory.class)
+                .getServerSession().getEventManager();
+        events.addListener(listener);
+        try {
+            try (Stream<Note> stream = Rostrum.stream(Note.class, 3)) {
+                assertEquals(2, stream.limit(2).count());
+                assertEquals(Collections.singletonList(3), listener.fetchSizes);
+                assertFalse(listener.cursors.get(0).isClosed());
+                assertEquals(1, listener.transactions.get());
+                assertEquals(0, listener.released.get());
+            }
+            listener.assertReleased(1);
+            List<Long> ids = new ArrayList<>();
+            Rostrum.forEach(Note.class, 4, note -> ids.add(note.getId()));
+            assertEquals(10, ids.size());
+            listener.assertReleased(2);
+            assertThrows(IllegalStateException.class, () -> Rostrum.forEach(Note.class, 4, note -> {
+                throw new IllegalStateException("Failed action");
+            }));
+            listener.assertReleased(3);
+            assertEquals(Arrays.asList(3, 4, 4), listener.fetchSizes);
+        } finally {
+            events.removeListener(listener);
+        }
+    }
+
+    /**
+     * Inserts notes without secret and timestamps, directly with the entity manager.
+     */
+    private static void insertNotes(long from, long to) {
+        Rostrum.inUnitOfWork(STORE, manager -> {
+            for (long id = from; id <= to; id++) {
+                manager.persist(new Note(id, "bulk", null));
+            }
+            return null;
+        });
+    }
+
+    private static Note findInStore(Long id) {
+        EntityManager manager = Factory.getEntityManagerFactory(STORE).createEntityManager();
+        try {
+            return manager.find(Note.class, id);
+        } finally {
+            manager.close();
+        }
+    }
+
+    /**
+     * Reads every page of the notes with the request, checking that only the last page has no token.
+     */
+    private static List<List<Long>> walk(PageRequest pageRequest) {
+        List<List<Long>> pages = new ArrayList<>();
+        String token = null;
+        do {
+            Page<Note> page = Rostrum.findPage(Note.class, pageRequest.after(token));
+            pages.add(ids(page.getContent()));
+            assertTrue(pages.size() <= 7, "The pages don't end");
+            token = page.getNextToken();
+        } while (Objects.nonNull(token));
+        return pages;
+    }
+
+    /**
+     * Records the cursors opened in the session, their fetch size, the transactions that remain active and the
+     * entity managers released.
+     */
+    private static final class CursorListener extends SessionEventAdapter {
+
+        private final List<ScrollableCursor> cursors = new ArrayList<>();
+        private final List<Integer> fetchSizes = new ArrayList<>();
+        private final AtomicInteger transactions = new AtomicInteger();
+        private final AtomicInteger released = new AtomicInteger();
+
+        @Override
+        public void postExecuteQuery(SessionEvent event) {
+            if (event.getResult() instanceof ScrollableCursor) {
+                cursors.add((ScrollableCursor) event.getResult());
+                fetchSizes.add(((ReadQuery) event.getQuery()).getFetchSize());
+            }
+        }
+
+        @Override
+        public void postBeginTransaction(SessionEvent event) {
+            transactions.incrementAndGet();
+        }
+
+        @Override
+        public void postCommitTransaction(SessionEvent event) {
+            transactions.decrementAndGet();
+        }
+
+        @Override
+        public void postRollbackTransaction(SessionEvent event) {
+            transactions.decrementAndGet();
+        }
+
+        @Override
+        public void postReleaseUnitOfWork(SessionEvent event) {
+            released.incrementAndGet();
+        }
+
+        void assertReleased(int streams) {
+            assertEquals(streams, cursors.size());
+            assertTrue(cursors.stream().allMatch(ScrollableCursor::isClosed));
+            assertEquals(0, transactions.get());
+            assertEquals(streams, released.get());
+        }
+    }
+
+    private static List<Long> ids(List<Note> notes) {
+        return notes.stream().map(Note::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.entities.Account;
+import com.mateolegi.rostrum.entities.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardingTest {
+
+    private static final List<String> SHARDS = Arrays.asList("shard-0", "shard-1");
+
+    @BeforeEach
+    void deleteRows() {
+        for (String shard : SHARDS) {
+            Rostrum.inUnitOfWork(shard, manager -> manager.createQuery("DELETE FROM Account").executeUpdate()
+                    + manager.createQuery("DELETE FROM Event").executeUpdate());
+            Factory.getEntityManagerFactory(shard).getCache().evictAll();
+        }
+    }
+
+    @Test
+    void idShardedOperationsHitOneUnit() {
+        assertEquals("shard-1", Sharding.getPersistenceUnit(new Account(1L, "owner")));
+        assertEquals(Collections.singletonList("shard-1"), Sharding.getPersistenceUnits(Account.class, 1));
+        // A row with the same id in the other shard is never read, updated or removed
+        Rostrum.inUnitOfWork("shard-0", manager -> {
+            manager.persist(new Account(1L, "decoy"));
+            return null;
+        });
+        Rostrum.save(new Account(1L, "owner"));
+        assertEquals("owner", findIn("shard-1", Account.class, 1L).getName());
+        Account account = Rostrum.find(Account.class, 1L);
+        assertEquals("owner", account.getName());
+        account.setName("renamed");
+        Rostrum.update(account);
+        assertEquals("renamed", findIn("shard-1", Account.class, 1L).getName());
+        Rostrum.delete(account);
+        assertNull(findIn("shard-1", Account.class, 1L));
+        assertNull(Rostrum.find(Account.class, 1L));
+        assertEquals("decoy", findIn("shard-0", Account.class, 1L).getName());
+    }
+
+    @Test
+    void otherShardKeyFansOut() {
+        assertEquals(SHARDS, Sharding.getPersistenceUnits(Event.class, 5L));
+        Rostrum.save(new Event(5L, tenantIn("shard-0"), "first"));
+        Rostrum.save(new Event(6L, tenantIn("shard-1"), "second"));
+        assertEquals("first", findIn("shard-0", Event.class, 5L).getName());
+        assertEquals("second", findIn("shard-1", Event.class, 6L).getName());
+        // The id doesn't tell the shard, so every shard is queried
+        assertEquals("first", Rostrum.find(Event.class, 5L).getName());
+        assertEquals("second", Rostrum.find(Event.class, 6L).getName());
+        assertEquals(2, Rostrum.findAllById(Event.class, Arrays.asList(6L, 5L)).size());
+        assertEquals(2, Rostrum.findAll(Event.class).size());
+        assertEquals(2, Rostrum.deleteAllById(Event.class, Arrays.asList(5L, 6L)));
+        assertTrue(Rostrum.findAll(Event.class).isEmpty());
+    }
+
+    @Test
+    void nullShardKey() {
+        assertThrows(IllegalArgumentException.class, () -> Rostrum.save(new Event(7L, null, "orphan")));
+        assertThrows(IllegalArgumentException.class, () -> Rostrum.save(new Account(null, "orphan")));
+        assertTrue(Rostrum.findAll(Event.class).isEmpty());
+        assertTrue(Rostrum.findAll(Account.class).isEmpty());
+    }
+
+    @Test
+    void streamReadsShardsInOrder() {
+        Rostrum.saveAll(Arrays.asList(new Account(1L, "a"), new Account(2L, "b"), new Account(3L, "c"),
+                new Account(4L, "d")));
+        try (Stream<Account> stream = Rostrum.stream(Account.class, 1)) {
+            List<Long> ids = stream.map(Account::getId).collect(Collectors.toList());
+            // The first shard holds the even ids
+            assertEquals(new HashSet<>(Arrays.asList(2L, 4L)), new HashSet<>(ids.subList(0, 2)));
+            assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), new HashSet<>(ids.subList(2, 4)));
+        }
+        try (Stream<Account> stream = Rostrum.stream(Account.class)) {
+            assertEquals(0, stream.findFirst().map(Account::getId).orElse(-1L) % 2);
+        }
+    }
+
+    /**
+     * Gets a tenant whose events are stored in the persistence unit.
+     */
+    private static String tenantIn(String persistenceUnit) {
+        ShardConfig shard = Properties.getConfig().getShard(Event.class);
+        for (int i = 0; ; i++) {
+            if (shard.getPersistenceUnit("tenant-" + i).equals(persistenceUnit)) {
+                return "tenant-" + i;
+            }
+        }
+    }
+
+    private static <T> T findIn(String persistenceUnit, Class<T> clazz, Object id) {
+        EntityManager manager = Factory.getEntityManagerFactory(persistenceUnit).createEntityManager();
+        try {
+            return manager.find(clazz, id);
+        } finally {
+            manager.close();
+        }
+    }
+}
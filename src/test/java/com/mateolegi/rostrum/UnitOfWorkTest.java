@@ -0,0 +1,157 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.entities.Note;
+import com.mateolegi.rostrum.entities.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.RollbackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitOfWorkTest {
+
+    private static final String STORE = "store";
+
+    @BeforeEach
+    void deleteNotes() {
+        Rostrum.inUnitOfWork(STORE, manager -> manager.createQuery("DELETE FROM Note").executeUpdate());
+        Factory.getEntityManagerFactory(STORE).getCache().evictAll();
+    }
+
+    @Test
+    void nestedScopeJoinsTheOuterOne() {
+        try (UnitOfWork outer = Factory.openUnitOfWork(STORE)) {
+            try (UnitOfWork inner = Factory.openUnitOfWork(STORE)) {
+                assertSame(outer.getEntityManager(), inner.getEntityManager());
+                inner.getEntityManager().persist(new Note(1L, "nested", "secret"));
+                inner.getEntityManager().flush();
+                inner.commit();
+            }
+            // Only the outermost scope commits and closes the entity manager
+            assertTrue(outer.getEntityManager().isOpen());
+            assertTrue(outer.getEntityManager().getTransaction().isActive());
+            assertNull(findCommitted(Note.class, 1L));
+            outer.commit();
+            assertNotNull(findCommitted(Note.class, 1L));
+        }
+        assertFalse(UnitOfWork.isActive(STORE));
+    }
+
+    @Test
+    void exceptionRollsBack() {
+        assertThrows(IllegalStateException.class, () -> Rostrum.inUnitOfWork(STORE, manager -> {
+            manager.persist(new Note(2L, "failed", "secret"));
+            manager.flush();
+            throw new IllegalStateException("Failed work");
+        }));
+        assertFalse(UnitOfWork.isActive(STORE));
+        assertNull(findCommitted(Note.class, 2L));
+    }
+
+    @Test
+    void innerScopeRollsBackTheOuterOne() {
+        EntityManager manager;
+        try (UnitOfWork outer = Factory.openUnitOfWork(STORE)) {
+            manager = outer.getEntityManager();
+            manager.persist(new Note(3L, "outer", "secret"));
+            try (UnitOfWork inner = Factory.openUnitOfWork(STORE)) {
+                inner.setRollbackOnly();
+            }
+            assertTrue(manager.getTransaction().getRollbackOnly());
+            assertThrows(RollbackException.class, outer::commit);
+        }
+        assertFalse(manager.isOpen());
+        assertNull(findCommitted(Note.class, 3L));
+        // An inner scope closed without commit has the same effect
+        try (UnitOfWork outer = Factory.openUnitOfWork(STORE)) {
+            outer.getEntityManager().persist(new Note(4L, "outer", "secret"));
+            Factory.openUnitOfWork(STORE).close();
+            assertThrows(RollbackException.class, outer::commit);
+        }
+        assertNull(findCommitted(Note.class, 4L));
+    }
+
+    @Test
+    void saveAndUpdateShareTheUnitOfWork() {
+        try (UnitOfWork unitOfWork = Factory.openUnitOfWork(STORE)) {
+            Note note = Rostrum.save(new Note(5L, "draft", "secret"));
+            assertTrue(unitOfWork.getEntityManager().contains(note));
+            note.setTitle("final");
+            assertSame(note, Rostrum.update(note));
+            unitOfWork.getEntityManager().flush();
+            assertTrue(unitOfWork.getEntityManager().getTransaction().isActive());
+            assertNull(findCommitted(Note.class, 5L));
+            unitOfWork.commit();
+        }
+        Note committed = findCommitted(Note.class, 5L);
+        assertEquals("final", committed.getTitle());
+        assertNotNull(committed.getCreatedAt());
+        assertNotNull(committed.getUpdatedAt());
+        // The secret wasn't changed after the save, so it isn't encrypted again
+        assertEquals("secret", AES256.decrypt(committed.getSecret()));
+    }
+
+    @Test
+    void changedCryptFieldOfManagedEntityIsEncrypted() {
+        Rostrum.save(new Note(8L, "stored", "secret"));
+        try (UnitOfWork unitOfWork = Factory.openUnitOfWork(STORE)) {
+            Note note = Rostrum.find(Note.class, 8L);
+            assertTrue(unitOfWork.getEntityManager().contains(note));
+            note.setSecret("changed");
+            assertSame(note, Rostrum.update(note));
+            unitOfWork.getEntityManager().flush();
+            // A later update compares with the flushed state, so the ciphertext isn't encrypted again
+            note.setTitle("retitled");
+            Rostrum.update(note);
+            unitOfWork.commit();
+        }
+        Note committed = findCommitted(Note.class, 8L);
+        assertEquals("retitled", committed.getTitle());
+        assertNotEquals("changed", committed.getSecret());
+        assertEquals("changed", AES256.decrypt(committed.getSecret()));
+    }
+
+    @Test
+    void transactionsArePairedByPersistenceUnit() {
+        Factory.beginTransaction(STORE);
+        Factory.beginTransaction("mapping");
+        Factory.getEntityManager(STORE).persist(new Note(6L, "paired", "secret"));
+        Factory.getEntityManager("mapping").persist(new Tag(501L, "paired"));
+        // The unit of store is committed although mapping was started after it
+        Factory.commitTransaction(STORE);
+        assertFalse(UnitOfWork.isActive(STORE));
+        assertTrue(UnitOfWork.isActive("mapping"));
+        Factory.rollbackTransaction("mapping");
+        assertFalse(UnitOfWork.isActive("mapping"));
+        assertNotNull(findCommitted(Note.class, 6L));
+        assertNull(findCommitted(Tag.class, 501L));
+        // Nested transactions of the same unit are ended from the last one started
+        Factory.beginTransaction(STORE);
+        Factory.beginTransaction(STORE);
+        Factory.getEntityManager(STORE).persist(new Note(7L, "nested", "secret"));
+        Factory.commitTransaction(STORE);
+        assertTrue(UnitOfWork.isActive(STORE));
+        Factory.commitTransaction(STORE);
+        assertFalse(UnitOfWork.isActive(STORE));
+        assertNotNull(findCommitted(Note.class, 7L));
+        // Without a transaction started there is nothing to end
+        assertDoesNotThrow(() -> Factory.commitTransaction(STORE));
+        assertDoesNotThrow(() -> Factory.rollbackTransaction("mapping"));
+        assertFalse(UnitOfWork.isActive(STORE));
+    }
+
+    /**
+     * Finds the entity with an entity manager outside the unit of work, so only committed rows are seen.
+     */
+    private static <T> T findCommitted(Class<T> clazz, Object id) {
+        EntityManager manager = Factory.getEntityManagerFactory(clazz == Tag.class ? "mapping" : STORE)
+                .createEntityManager();
+        try {
+            return manager.find(clazz, id);
+        } finally {
+            manager.close();
+        }
+    }
+}
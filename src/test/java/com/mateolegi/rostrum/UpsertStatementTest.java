@@ -0,0 +1,47 @@
+package com.mateolegi.rostrum;
+
+import com.mateolegi.rostrum.constant.DatabaseProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpsertStatementTest {
+
+    private static final List<String> COLUMNS = Arrays.asList("id", "name", "created_at");
+    private static final List<String> KEYS = Arrays.asList("id");
+    private static final Set<String> INSERT_ONLY = new HashSet<>(Arrays.asList("id", "created_at"));
+
+    @Test
+    void postgres() {
+        assertEquals("INSERT INTO users (id, name, created_at) VALUES (?, ?, ?) ON CONFLICT (id) DO UPDATE SET "
+                        + "name = EXCLUDED.name",
+                UpsertStatement.sql(DatabaseProvider.POSTGRES, "users", COLUMNS, KEYS, INSERT_ONLY));
+        assertEquals(COLUMNS, UpsertStatement.parameters(DatabaseProvider.POSTGRES, COLUMNS, KEYS, INSERT_ONLY));
+    }
+
+    @Test
+    void mysql() {
+        assertEquals("INSERT INTO users (id, name, created_at) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE "
+                        + "name = VALUES(name)",
+                UpsertStatement.sql(DatabaseProvider.MARIADB, "users", COLUMNS, KEYS, INSERT_ONLY));
+    }
+
+    @Test
+    void merge() {
+        assertEquals("MERGE INTO users t USING DUAL ON (t.id = ?) WHEN MATCHED THEN UPDATE SET t.name = ? "
+                        + "WHEN NOT MATCHED THEN INSERT (id, name, created_at) VALUES (?, ?, ?)",
+                UpsertStatement.sql(DatabaseProvider.H2, "users", COLUMNS, KEYS, INSERT_ONLY));
+        assertEquals(Arrays.asList("id", "name", "id", "name", "created_at"),
+                UpsertStatement.parameters(DatabaseProvider.ORACLE, COLUMNS, KEYS, INSERT_ONLY));
+    }
+
+    @Test
+    void notSupported() {
+        assertNull(UpsertStatement.sql(DatabaseProvider.DERBY, "users", COLUMNS, KEYS, INSERT_ONLY));
+    }
+}
@@ -0,0 +1,38 @@
+package com.mateolegi.rostrum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpReportTest {
+
+    @Test
+    void report() {
+        Map<String, Long> primary = new LinkedHashMap<>();
+        primary.put(WarmUpReport.DEPLOY, 120L);
+        primary.put(WarmUpReport.CONNECT, 30L);
+        primary.put(WarmUpReport.METADATA, 15L);
+        Map<String, Long> broken = new LinkedHashMap<>();
+        broken.put(WarmUpReport.DEPLOY, 80L);
+        Map<String, Map<String, Long>> durations = new LinkedHashMap<>();
+        durations.put("primary", primary);
+        durations.put("broken", broken);
+        IllegalStateException failure = new IllegalStateException("Connection refused");
+        WarmUpReport report = new WarmUpReport(durations, Collections.singletonMap("broken", failure), 170L);
+        assertFalse(report.isSuccessful());
+        assertEquals(170L, report.getTotalTime());
+        assertEquals(30L, report.getDuration("primary", WarmUpReport.CONNECT));
+        assertEquals(-1L, report.getDuration("broken", WarmUpReport.CONNECT));
+        assertEquals(-1L, report.getDuration("unknown", WarmUpReport.DEPLOY));
+        assertSame(failure, report.getFailure("broken"));
+        assertNull(report.getFailure("primary"));
+        assertTrue(report.toString().contains("primary: deploy 120 ms connect 30 ms metadata 15 ms"));
+        primary.clear();
+        assertEquals(3, report.getDurations("primary").size());
+        assertThrows(UnsupportedOperationException.class, () -> report.getDurations("primary").clear());
+    }
+}
@@ -0,0 +1,44 @@
+package com.mateolegi.rostrum.entities;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+@MappedSuperclass
+public abstract class Audited {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Basic
+    @Column(name = "created_at")
+    private Timestamp createdAt;
+
+    @Basic
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Timestamp updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mateolegi.rostrum.entities;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "events")
+public class Event {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Basic
+    @Column(name = "tenant")
+    private String tenant;
+
+    @Basic
+    @Column(name = "name")
+    private String name;
+
+    public Event() {
+    }
+
+    public Event(Long id, String tenant, String name) {
+        this.id = id;
+        this.tenant = tenant;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
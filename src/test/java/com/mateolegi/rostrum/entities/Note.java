@@ -0,0 +1,45 @@
+package com.mateolegi.rostrum.entities;
+
+import com.mateolegi.rostrum.annotation.Crypt;
+import com.mateolegi.rostrum.annotation.Type;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "notes")
+public class Note extends Audited {
+
+    @Basic
+    @Column(name = "title")
+    private String title;
+
+    @Basic
+    @Column(name = "secret")
+    @Crypt(type = Type.TWO_WAY)
+    private String secret;
+
+    public Note() {
+    }
+
+    public Note(Long id, String title, String secret) {
+        setId(id);
+        this.title = title;
+        this.secret = secret;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
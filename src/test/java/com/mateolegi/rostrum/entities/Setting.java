@@ -0,0 +1,40 @@
+package com.mateolegi.rostrum.entities;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "settings")
+public class Setting {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Basic
+    @Column(name = "setting_value")
+    private String value;
+
+    public Setting() {
+    }
+
+    public Setting(Long id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}